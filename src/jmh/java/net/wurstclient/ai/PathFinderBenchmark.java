@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2014-2025 Wurst-Imperium and contributors.
+ *
+ * This source code is subject to the terms of the GNU General Public
+ * License, version 3. If a copy of the GPL was not distributed with this
+ * file, You can obtain one at: https://www.gnu.org/licenses/gpl-3.0.txt
+ */
+package net.wurstclient.ai;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures how fast {@link PathFinder} searches the {@link SyntheticWorld}s
+ * and how good the paths are. Allocation rates come from the GC profiler that
+ * is enabled in build.gradle.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PathFinderBenchmark
+{
+	private static final PlayerAbilities WALKING =
+		new PlayerAbilities(false, false, false, false, false, false, false);
+	
+	@Param({"FLAT", "MAZE", "CAVE", "WATER", "LADDERS"})
+	public SyntheticWorld.Type worldType;
+	
+	@Param("42")
+	public long seed;
+	
+	private SyntheticWorld world;
+	
+	@Setup(Level.Trial)
+	public void setup()
+	{
+		world = SyntheticWorld.generate(worldType, seed);
+	}
+	
+	/**
+	 * Full searches per second. The expansions counter shows how many
+	 * positions per second that is.
+	 */
+	@Benchmark
+	public PathFinder findPath(Expansions counters)
+	{
+		PathFinder pathFinder = search();
+		counters.expansions += pathFinder.countExpansions();
+		return pathFinder;
+	}
+	
+	/**
+	 * Runs each search once and reports the length and cost of the path it
+	 * found, so that changes to the search can be checked for worse paths.
+	 */
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@Warmup(iterations = 0)
+	@Measurement(iterations = 1)
+	public PathFinder pathQuality(PathQuality quality)
+	{
+		PathFinder pathFinder = search();
+		ArrayList<PathPos> path = pathFinder.formatPath();
+		
+		quality.pathLength = path.size();
+		quality.pathCost = pathFinder.getCost(path.get(path.size() - 1));
+		quality.reachedGoal = pathFinder.isDone() ? 1 : 0;
+		return pathFinder;
+	}
+	
+	private PathFinder search()
+	{
+		PathFinder pathFinder = world.createPathFinder(WALKING);
+		while(!pathFinder.isDone() && !pathFinder.isFailed())
+			pathFinder.think();
+		
+		return pathFinder;
+	}
+	
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	public static class Expansions
+	{
+		public long expansions;
+		
+		@Setup(Level.Iteration)
+		public void reset()
+		{
+			expansions = 0;
+		}
+	}
+	
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class PathQuality
+	{
+		public int pathLength;
+		public double pathCost;
+		public int reachedGoal;
+		
+		@Setup(Level.Iteration)
+		public void reset()
+		{
+			pathLength = 0;
+			pathCost = 0;
+			reachedGoal = 0;
+		}
+	}
+}
@@ -0,0 +1,297 @@
+/*
+ * Copyright (c) 2014-2025 Wurst-Imperium and contributors.
+ *
+ * This source code is subject to the terms of the GNU General Public
+ * License, version 3. If a copy of the GPL was not distributed with this
+ * file, You can obtain one at: https://www.gnu.org/licenses/gpl-3.0.txt
+ */
+package net.wurstclient.ai;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Random;
+
+import net.minecraft.SharedConstants;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.Bootstrap;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+
+/**
+ * An in-memory world for benchmarking {@link PathFinder} without a running
+ * game. The same type and seed always generate the same blocks, start and
+ * goal.
+ */
+public final class SyntheticWorld implements PathWorld
+{
+	// the block registry must be ready before any block is used
+	static
+	{
+		SharedConstants.tryDetectVersion();
+		Bootstrap.bootStrap();
+	}
+	
+	private static final BlockState AIR = Blocks.AIR.defaultBlockState();
+	private static final BlockState VOID_AIR =
+		Blocks.VOID_AIR.defaultBlockState();
+	private static final BlockState STONE = Blocks.STONE.defaultBlockState();
+	private static final BlockState WATER = Blocks.WATER.defaultBlockState();
+	private static final BlockState LADDER = Blocks.LADDER.defaultBlockState();
+	
+	private static final int SIZE = 128;
+	private static final int HEIGHT = 64;
+	private static final int GROUND = 4;
+	
+	private final BlockState[] blocks = new BlockState[SIZE * HEIGHT * SIZE];
+	private BlockPos start;
+	private BlockPos goal;
+	
+	private SyntheticWorld()
+	{
+		Arrays.fill(blocks, AIR);
+	}
+	
+	public static SyntheticWorld generate(Type type, long seed)
+	{
+		SyntheticWorld world = new SyntheticWorld();
+		Random random = new Random(seed);
+		
+		switch(type)
+		{
+			case FLAT -> world.generateFlat(random);
+			case MAZE -> world.generateMaze(random);
+			case CAVE -> world.generateCave(random);
+			case WATER -> world.generateWater(random);
+			case LADDERS -> world.generateLadders(random);
+		}
+		
+		return world;
+	}
+	
+	public PathFinder createPathFinder(PlayerAbilities abilities)
+	{
+		return new PathFinder(this, abilities, start, goal);
+	}
+	
+	private void generateFlat(Random random)
+	{
+		fill(0, 0, 0, SIZE - 1, GROUND - 1, SIZE - 1, STONE);
+		
+		// random pillars that are too high to jump over
+		for(int i = 0; i < SIZE * SIZE / 32; i++)
+		{
+			int x = random.nextInt(SIZE);
+			int z = random.nextInt(SIZE);
+			fill(x, GROUND, z, x, GROUND + 1, z, STONE);
+		}
+		
+		start = clear(4, GROUND, 4);
+		goal = clear(SIZE - 5, GROUND, SIZE - 5);
+	}
+	
+	private void generateMaze(Random random)
+	{
+		fill(0, 0, 0, SIZE - 1, GROUND - 1, SIZE - 1, STONE);
+		fill(0, GROUND, 0, SIZE - 1, GROUND + 2, SIZE - 1, STONE);
+		
+		// depth-first maze with 1-block walls and corridors
+		int cells = (SIZE - 1) / 2;
+		boolean[] visited = new boolean[cells * cells];
+		ArrayDeque<int[]> stack = new ArrayDeque<>();
+		stack.push(new int[]{0, 0});
+		visited[0] = true;
+		carve(1, 1);
+		
+		int[][] steps = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+		while(!stack.isEmpty())
+		{
+			int[] cell = stack.peek();
+			int[] next = null;
+			
+			int offset = random.nextInt(4);
+			for(int i = 0; i < 4 && next == null; i++)
+			{
+				int[] step = steps[(offset + i) % 4];
+				int x = cell[0] + step[0];
+				int z = cell[1] + step[1];
+				if(x >= 0 && z >= 0 && x < cells && z < cells
+					&& !visited[x * cells + z])
+					next = new int[]{x, z};
+			}
+			
+			if(next == null)
+			{
+				stack.pop();
+				continue;
+			}
+			
+			visited[next[0] * cells + next[1]] = true;
+			carve(cell[0] + next[0] + 1, cell[1] + next[1] + 1);
+			carve(next[0] * 2 + 1, next[1] * 2 + 1);
+			stack.push(next);
+		}
+		
+		start = new BlockPos(1, GROUND, 1);
+		goal = new BlockPos(cells * 2 - 1, GROUND, cells * 2 - 1);
+	}
+	
+	private void carve(int x, int z)
+	{
+		fill(x, GROUND, z, x, GROUND + 2, z, AIR);
+	}
+	
+	private void generateCave(Random random)
+	{
+		fill(0, 0, 0, SIZE - 1, HEIGHT - 1, SIZE - 1, STONE);
+		
+		start = new BlockPos(8, 12, 8);
+		goal = new BlockPos(SIZE - 9, HEIGHT - 12, SIZE - 9);
+		
+		// one tunnel that is guaranteed to connect start and goal, plus some
+		// dead ends
+		digTunnel(random, start, goal);
+		for(int i = 0; i < 12; i++)
+		{
+			BlockPos from = new BlockPos(8 + random.nextInt(SIZE - 16),
+				8 + random.nextInt(HEIGHT - 16), 8 + random.nextInt(SIZE - 16));
+			BlockPos to = from.offset(random.nextInt(64) - 32,
+				random.nextInt(16) - 8, random.nextInt(64) - 32);
+			digTunnel(random, from, to);
+		}
+		
+		// something to stand on at both ends
+		fill(start.getX(), start.getY() - 1, start.getZ(), start.getX(),
+			start.getY() - 1, start.getZ(), STONE);
+		fill(goal.getX(), goal.getY() - 1, goal.getZ(), goal.getX(),
+			goal.getY() - 1, goal.getZ(), STONE);
+	}
+	
+	private void digTunnel(Random random, BlockPos from, BlockPos to)
+	{
+		double x = from.getX();
+		double y = from.getY();
+		double z = from.getZ();
+		
+		while(Math.abs(x - to.getX()) > 1 || Math.abs(y - to.getY()) > 1
+			|| Math.abs(z - to.getZ()) > 1)
+		{
+			// wander towards the target
+			x += Math.signum(to.getX() - x) * random.nextDouble()
+				+ random.nextGaussian() * 0.5;
+			y += Math.signum(to.getY() - y) * random.nextDouble() * 0.5
+				+ random.nextGaussian() * 0.25;
+			z += Math.signum(to.getZ() - z) * random.nextDouble()
+				+ random.nextGaussian() * 0.5;
+			
+			int radius = 1 + random.nextInt(2);
+			fill((int)x - radius, (int)y - 1, (int)z - radius, (int)x + radius,
+				(int)y + radius, (int)z + radius, AIR);
+		}
+	}
+	
+	private void generateWater(Random random)
+	{
+		fill(0, 0, 0, SIZE - 1, GROUND - 1, SIZE - 1, STONE);
+		
+		// a lake across the middle, with random islands
+		int lakeMin = SIZE / 4;
+		int lakeMax = SIZE * 3 / 4;
+		fill(0, 0, lakeMin, SIZE - 1, GROUND + 2, lakeMax, WATER);
+		fill(0, 0, lakeMin, SIZE - 1, 0, lakeMax, STONE);
+		
+		for(int i = 0; i < 24; i++)
+		{
+			int x = random.nextInt(SIZE - 8);
+			int z = lakeMin + random.nextInt(lakeMax - lakeMin - 8);
+			int size = 2 + random.nextInt(6);
+			fill(x, 1, z, x + size, GROUND + 2, z + size, STONE);
+		}
+		
+		start = clear(SIZE / 2, GROUND, 4);
+		goal = clear(SIZE / 2, GROUND, SIZE - 5);
+	}
+	
+	private void generateLadders(Random random)
+	{
+		// a tower of floors, connected only by ladder shafts
+		int floorHeight = 6;
+		int floors = (HEIGHT - GROUND) / floorHeight - 1;
+		int towerMax = 31;
+		fill(0, 0, 0, towerMax, GROUND - 1, towerMax, STONE);
+		
+		for(int floor = 1; floor <= floors; floor++)
+		{
+			int y = GROUND + floor * floorHeight - 1;
+			fill(0, y, 0, towerMax, y, towerMax, STONE);
+			
+			// shaft with a wall to hold the ladder
+			int x = 2 + random.nextInt(towerMax - 4);
+			int z = 2 + random.nextInt(towerMax - 4);
+			fill(x, y - floorHeight + 1, z - 1, x, y, z - 1, STONE);
+			fill(x, y - floorHeight + 1, z, x, y, z, LADDER);
+		}
+		
+		start = clear(towerMax / 2, GROUND, towerMax / 2);
+		goal = clear(towerMax / 2, GROUND + floors * floorHeight, towerMax / 2);
+	}
+	
+	private BlockPos clear(int x, int y, int z)
+	{
+		fill(x, y, z, x, y + 1, z, AIR);
+		return new BlockPos(x, y, z);
+	}
+	
+	private void fill(int x1, int y1, int z1, int x2, int y2, int z2,
+		BlockState state)
+	{
+		for(int x = Math.max(x1, 0); x <= Math.min(x2, SIZE - 1); x++)
+			for(int y = Math.max(y1, 0); y <= Math.min(y2, HEIGHT - 1); y++)
+				for(int z = Math.max(z1, 0); z <= Math.min(z2, SIZE - 1); z++)
+					blocks[index(x, y, z)] = state;
+	}
+	
+	private static int index(int x, int y, int z)
+	{
+		return (y * SIZE + z) * SIZE + x;
+	}
+	
+	@Override
+	public BlockState getBlockState(BlockPos pos)
+	{
+		int x = pos.getX();
+		int y = pos.getY();
+		int z = pos.getZ();
+		if(x < 0 || y < 0 || z < 0 || x >= SIZE || y >= HEIGHT || z >= SIZE)
+			return VOID_AIR;
+		
+		return blocks[index(x, y, z)];
+	}
+	
+	@Override
+	public boolean isLoaded(BlockPos pos)
+	{
+		return pos.getX() >= 0 && pos.getZ() >= 0 && pos.getX() < SIZE
+			&& pos.getZ() < SIZE;
+	}
+	
+	@Override
+	public int getMinY()
+	{
+		return 0;
+	}
+	
+	@Override
+	public int getMaxY()
+	{
+		return HEIGHT - 1;
+	}
+	
+	public static enum Type
+	{
+		FLAT,
+		MAZE,
+		CAVE,
+		WATER,
+		LADDERS;
+	}
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2014-2025 Wurst-Imperium and contributors.
+ *
+ * This source code is subject to the terms of the GNU General Public
+ * License, version 3. If a copy of the GPL was not distributed with this
+ * file, You can obtain one at: https://www.gnu.org/licenses/gpl-3.0.txt
+ */
+package net.wurstclient.util;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import net.minecraft.core.BlockPos;
+
+/**
+ * Measures {@link BlockUtils#getAllInBoxStream(BlockPos, int)} at the ranges
+ * that Nuker and similar hacks use. The blocks counter shows how many
+ * positions per second that is.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BlockUtilsBenchmark
+{
+	private static final BlockPos CENTER = new BlockPos(1234, 64, -5678);
+	
+	@Param({"4", "6", "16"})
+	public int range;
+	
+	@Benchmark
+	public long getAllInBoxStream(Positions positions)
+	{
+		long count = BlockUtils.getAllInBoxStream(CENTER, range)
+			.filter(pos -> pos.getY() != Integer.MIN_VALUE).count();
+		positions.positions += count;
+		return count;
+	}
+	
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	public static class Positions
+	{
+		public long positions;
+		
+		@Setup(Level.Iteration)
+		public void reset()
+		{
+			positions = 0;
+		}
+	}
+}
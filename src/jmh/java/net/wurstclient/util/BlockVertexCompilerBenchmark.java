@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2014-2025 Wurst-Imperium and contributors.
+ *
+ * This source code is subject to the terms of the GNU General Public
+ * License, version 3. If a copy of the GPL was not distributed with this
+ * file, You can obtain one at: https://www.gnu.org/licenses/gpl-3.0.txt
+ */
+package net.wurstclient.util;
+
+import java.util.HashSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.wurstclient.util.chunk.ChunkFixtures;
+
+/**
+ * Measures how fast {@link BlockVertexCompiler} turns the matches of one
+ * chunk into vertices. The blocks counter shows how many matched blocks per
+ * second that is.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BlockVertexCompilerBenchmark
+{
+	private static final ChunkPos CHUNK_POS = new ChunkPos(3, -7);
+	
+	@Param({"ORE_DENSE", "CAVE_DENSE", "FULL_HEIGHT"})
+	public ChunkFixtures.Type chunkType;
+	
+	@Param("42")
+	public long seed;
+	
+	private HashSet<BlockPos> scattered;
+	private HashSet<BlockPos> solid;
+	private RegionPos region;
+	
+	@Setup(Level.Trial)
+	public void setup()
+	{
+		LevelChunkSection[] sections = ChunkFixtures.generate(chunkType, seed);
+		region = RegionPos.of(CHUNK_POS);
+		
+		// single ores scattered around, like most Search results
+		scattered =
+			ChunkFixtures.findBlocks(sections, CHUNK_POS, Blocks.DIAMOND_ORE);
+		
+		// large connected areas, where most faces are hidden
+		solid = ChunkFixtures.findBlocks(sections, CHUNK_POS,
+			chunkType == ChunkFixtures.Type.FULL_HEIGHT ? Blocks.STONE
+				: Blocks.DEEPSLATE);
+	}
+	
+	@Benchmark
+	public VertexSlab compileScattered(MatchedBlocks blocks)
+	{
+		blocks.blocks += scattered.size();
+		return BlockVertexCompiler.compile(scattered, region);
+	}
+	
+	@Benchmark
+	public VertexSlab compileSolid(MatchedBlocks blocks)
+	{
+		blocks.blocks += solid.size();
+		return BlockVertexCompiler.compile(solid, region);
+	}
+	
+	@Benchmark
+	public VertexSlab compileMergedScattered(MatchedBlocks blocks)
+	{
+		blocks.blocks += scattered.size();
+		return BlockVertexCompiler.compileMerged(scattered, region);
+	}
+	
+	@Benchmark
+	public VertexSlab compileMergedSolid(MatchedBlocks blocks)
+	{
+		blocks.blocks += solid.size();
+		return BlockVertexCompiler.compileMerged(solid, region);
+	}
+	
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	public static class MatchedBlocks
+	{
+		public long blocks;
+		
+		@Setup(Level.Iteration)
+		public void reset()
+		{
+			blocks = 0;
+		}
+	}
+}
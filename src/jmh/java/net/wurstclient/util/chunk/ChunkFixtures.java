@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2014-2025 Wurst-Imperium and contributors.
+ *
+ * This source code is subject to the terms of the GNU General Public
+ * License, version 3. If a copy of the GPL was not distributed with this
+ * file, You can obtain one at: https://www.gnu.org/licenses/gpl-3.0.txt
+ */
+package net.wurstclient.util.chunk;
+
+import java.util.HashSet;
+import java.util.Random;
+
+import net.minecraft.SharedConstants;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.Bootstrap;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.chunk.PalettedContainer;
+import net.minecraft.world.level.chunk.Strategy;
+
+/**
+ * Generates the block sections of synthetic chunks for benchmarks, laid out
+ * like an overworld chunk from y=-64 to y=319. The same type and seed always
+ * generate the same blocks.
+ */
+public enum ChunkFixtures
+{
+	;
+	
+	// the block registry must be ready before any block is used
+	static
+	{
+		SharedConstants.tryDetectVersion();
+		Bootstrap.bootStrap();
+	}
+	
+	public static final int MIN_SECTION_Y = -4;
+	public static final int SECTIONS = 24;
+	
+	private static final BlockState AIR = Blocks.AIR.defaultBlockState();
+	private static final BlockState STONE = Blocks.STONE.defaultBlockState();
+	private static final BlockState DEEPSLATE =
+		Blocks.DEEPSLATE.defaultBlockState();
+	private static final BlockState[] ORES = {
+		Blocks.COAL_ORE.defaultBlockState(),
+		Blocks.IRON_ORE.defaultBlockState(),
+		Blocks.COPPER_ORE.defaultBlockState(),
+		Blocks.DIAMOND_ORE.defaultBlockState(),
+		Blocks.DEEPSLATE_DIAMOND_ORE.defaultBlockState()};
+	
+	public static LevelChunkSection[] generate(Type type, long seed)
+	{
+		Random random = new Random(seed);
+		LevelChunkSection[] sections = new LevelChunkSection[SECTIONS];
+		for(int i = 0; i < SECTIONS; i++)
+			sections[i] = createSection();
+		
+		switch(type)
+		{
+			// terrain up to y=64, with lots of ores in it
+			case ORE_DENSE -> fill(sections, random, 64, 0.1F, 0F);
+			
+			// terrain up to y=64, but half of it is caves
+			case CAVE_DENSE -> fill(sections, random, 64, 0.01F, 0.5F);
+			
+			// nothing but air, like most of the sky
+			case EMPTY ->
+			{}
+			
+			// solid all the way up, e.g. a large build or the nether roof
+			case FULL_HEIGHT -> fill(sections, random, 319, 0.01F, 0F);
+		}
+		
+		return sections;
+	}
+	
+	/**
+	 * Returns the positions of all blocks in the given sections that match
+	 * the given block, like the results of a Search hack scan.
+	 */
+	public static HashSet<BlockPos> findBlocks(LevelChunkSection[] sections,
+		ChunkPos chunkPos, Block block)
+	{
+		HashSet<BlockPos> blocks = new HashSet<>();
+		for(int i = 0; i < sections.length; i++)
+		{
+			if(!sections[i].maybeHas(state -> state.is(block)))
+				continue;
+			
+			int minY = SectionPos.sectionToBlockCoord(MIN_SECTION_Y + i);
+			for(int y = 0; y < 16; y++)
+				for(int z = 0; z < 16; z++)
+					for(int x = 0; x < 16; x++)
+						if(sections[i].getBlockState(x, y, z).is(block))
+							blocks.add(new BlockPos(chunkPos.getMinBlockX() + x,
+								minY + y, chunkPos.getMinBlockZ() + z));
+		}
+		
+		return blocks;
+	}
+	
+	private static LevelChunkSection createSection()
+	{
+		// biomes are never read by the code being benchmarked
+		PalettedContainer<BlockState> states = new PalettedContainer<>(AIR,
+			Strategy.createForBlockStates(Block.BLOCK_STATE_REGISTRY));
+		return new LevelChunkSection(states, null);
+	}
+	
+	private static void fill(LevelChunkSection[] sections, Random random,
+		int maxY, float oreChance, float caveChance)
+	{
+		int minY = SectionPos.sectionToBlockCoord(MIN_SECTION_Y);
+		for(int y = minY; y <= maxY; y++)
+		{
+			LevelChunkSection section =
+				sections[SectionPos.blockToSectionCoord(y) - MIN_SECTION_Y];
+			BlockState base = y < 0 ? DEEPSLATE : STONE;
+			
+			for(int z = 0; z < 16; z++)
+				for(int x = 0; x < 16; x++)
+				{
+					float roll = random.nextFloat();
+					BlockState state;
+					if(roll < caveChance)
+						state = AIR;
+					else if(roll < caveChance + oreChance)
+						state = ORES[random.nextInt(ORES.length)];
+					else
+						state = base;
+					
+					section.setBlockState(x, y & 15, z, state, false);
+				}
+		}
+	}
+	
+	public static enum Type
+	{
+		ORE_DENSE,
+		CAVE_DENSE,
+		EMPTY,
+		FULL_HEIGHT;
+	}
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2014-2025 Wurst-Imperium and contributors.
+ *
+ * This source code is subject to the terms of the GNU General Public
+ * License, version 3. If a copy of the GPL was not distributed with this
+ * file, You can obtain one at: https://www.gnu.org/licenses/gpl-3.0.txt
+ */
+package net.wurstclient.util.chunk;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+
+/**
+ * Measures how many chunks per second a {@link ChunkSearcher} query can scan,
+ * the way that Search and similar hacks use it. The matches counter shows
+ * how many matching blocks per second that is, and the GC profiler shows the
+ * allocations per chunk.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChunkSearchBenchmark
+{
+	private static final ChunkPos CHUNK_POS = new ChunkPos(3, -7);
+	private static final Block TARGET = Blocks.DIAMOND_ORE;
+	
+	@Param({"ORE_DENSE", "CAVE_DENSE", "EMPTY", "FULL_HEIGHT"})
+	public ChunkFixtures.Type chunkType;
+	
+	@Param("42")
+	public long seed;
+	
+	private LevelChunkSection[] sections;
+	
+	@Setup(Level.Trial)
+	public void setup()
+	{
+		sections = ChunkFixtures.generate(chunkType, seed);
+	}
+	
+	/**
+	 * A single query with a section filter, so sections without the target
+	 * block are skipped.
+	 */
+	@Benchmark
+	public ChunkSearchResults searchWithFilter(Matches matches)
+	{
+		ChunkSearcher searcher = new ChunkSearcher(
+			(pos, state) -> state.is(TARGET), state -> state.is(TARGET), null,
+			null);
+		return scan(searcher, matches);
+	}
+	
+	/**
+	 * A single query without a section filter, so every block is tested.
+	 */
+	@Benchmark
+	public ChunkSearchResults searchWithoutFilter(Matches matches)
+	{
+		ChunkSearcher searcher =
+			new ChunkSearcher((pos, state) -> state.is(TARGET), null, null);
+		return scan(searcher, matches);
+	}
+	
+	private ChunkSearchResults scan(ChunkSearcher searcher, Matches matches)
+	{
+		ChunkSearchResults results = ChunkScanService.scanNow(CHUNK_POS,
+			ChunkFixtures.MIN_SECTION_Y, sections, List.of(searcher))[0];
+		matches.matches += results.size();
+		return results;
+	}
+	
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	public static class Matches
+	{
+		public long matches;
+		
+		@Setup(Level.Iteration)
+		public void reset()
+		{
+			matches = 0;
+		}
+	}
+}
@@ -12,9 +12,11 @@ import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.TreeSet;
+import java.util.UUID;
 
 import com.google.gson.JsonArray;
 
+import it.unimi.dsi.fastutil.objects.Object2BooleanOpenHashMap;
 import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.player.Player;
 import net.wurstclient.commands.FriendsCmd;
@@ -24,9 +26,17 @@ import net.wurstclient.util.json.JsonUtils;
 
 public class FriendsList
 {
+	private static final int MAX_CACHED_PLAYERS = 4096;
+	
 	private final TreeSet<String> friends = new TreeSet<>();
 	private Path path;
 	
+	// A player's name can't change while they are online, so whether they
+	// are a friend only needs to be looked up once per friends list change.
+	// Only used from the client thread.
+	private final Object2BooleanOpenHashMap<UUID> playerCache =
+		new Object2BooleanOpenHashMap<>();
+	
 	public FriendsList(Path path)
 	{
 		this.path = path;
@@ -35,18 +45,21 @@ public class FriendsList
 	public void addAndSave(String name)
 	{
 		friends.add(name);
+		playerCache.clear();
 		save();
 	}
 	
 	public void removeAndSave(String name)
 	{
 		friends.remove(name);
+		playerCache.clear();
 		save();
 	}
 	
 	public void removeAllAndSave()
 	{
 		friends.clear();
+		playerCache.clear();
 		save();
 	}
 	
@@ -75,7 +88,25 @@ public class FriendsList
 	
 	public boolean isFriend(Entity entity)
 	{
-		return entity != null && contains(entity.getName().getString());
+		// skip building the name when there is nothing to compare it to,
+		// since this is called for every entity that a hack looks at
+		if(entity == null || friends.isEmpty())
+			return false;
+		
+		if(!(entity instanceof Player))
+			return entity.hasCustomName()
+				&& contains(entity.getCustomName().getString());
+		
+		UUID uuid = entity.getUUID();
+		if(playerCache.containsKey(uuid))
+			return playerCache.getBoolean(uuid);
+		
+		if(playerCache.size() >= MAX_CACHED_PLAYERS)
+			playerCache.clear();
+		
+		boolean friend = contains(entity.getName().getString());
+		playerCache.put(uuid, friend);
+		return friend;
 	}
 	
 	public ArrayList<String> toList()
@@ -88,6 +119,7 @@ public class FriendsList
 		try
 		{
 			friends.clear();
+			playerCache.clear();
 			friends.addAll(JsonUtils.parseFileToArray(path).getAllStrings());
 			
 		}catch(NoSuchFileException e)
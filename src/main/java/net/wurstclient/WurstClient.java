@@ -41,6 +41,9 @@ import net.wurstclient.other_feature.OtherFeature;
 import net.wurstclient.settings.SettingsFile;
 import net.wurstclient.update.ProblematicResourcePackDetector;
 import net.wurstclient.update.WurstUpdater;
+import net.wurstclient.util.EntitySnapshot;
+import net.wurstclient.util.TaskScheduler;
+import net.wurstclient.util.chunk.ChunkScanService;
 import net.wurstclient.util.json.JsonException;
 
 public enum WurstClient
@@ -69,6 +72,9 @@ public enum WurstClient
 	private RotationFaker rotationFaker;
 	private FriendsList friends;
 	private WurstTranslator translator;
+	private TaskScheduler taskScheduler;
+	private EntitySnapshot entitySnapshot;
+	private ChunkScanService chunkScanService;
 	
 	private boolean enabled = true;
 	private static boolean guiInitialized;
@@ -90,6 +96,9 @@ public enum WurstClient
 		
 		eventManager = new EventManager(this);
 		
+		taskScheduler = new TaskScheduler();
+		entitySnapshot = new EntitySnapshot();
+		
 		Path enabledHacksFile = wurstFolder.resolve("enabled-hacks.json");
 		hax = new HackList(enabledHacksFile);
 		
@@ -132,6 +141,8 @@ public enum WurstClient
 		eventManager.add(PreMotionListener.class, rotationFaker);
 		eventManager.add(PostMotionListener.class, rotationFaker);
 		
+		chunkScanService = new ChunkScanService();
+		
 		updater = new WurstUpdater();
 		eventManager.add(UpdateListener.class, updater);
 		
@@ -279,6 +290,21 @@ public enum WurstClient
 		return friends;
 	}
 	
+	public TaskScheduler getTaskScheduler()
+	{
+		return taskScheduler;
+	}
+	
+	public EntitySnapshot getEntitySnapshot()
+	{
+		return entitySnapshot;
+	}
+	
+	public ChunkScanService getChunkScanService()
+	{
+		return chunkScanService;
+	}
+	
 	public WurstTranslator getTranslator()
 	{
 		return translator;
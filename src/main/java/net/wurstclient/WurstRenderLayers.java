@@ -68,6 +68,34 @@ public enum WurstRenderLayers
 				.setOutputState(RenderType.ITEM_ENTITY_TARGET)
 				.createCompositeState(false));
 	
+	/**
+	 * Like {@link #LINES}, but for
+	 * {@link net.wurstclient.util.InstancedBoxRenderer}.
+	 */
+	public static final RenderType.CompositeRenderType INSTANCED_BOX_LINES =
+		RenderType.create("wurst:instanced_box_lines", 1536,
+			WurstShaderPipelines.DEPTH_TEST_INSTANCED_BOX_LINES,
+			RenderType.CompositeState.builder()
+				.setLineState(
+					new RenderStateShard.LineStateShard(OptionalDouble.of(2)))
+				.setLayeringState(RenderType.VIEW_OFFSET_Z_LAYERING)
+				.setOutputState(RenderType.ITEM_ENTITY_TARGET)
+				.createCompositeState(false));
+	
+	/**
+	 * Like {@link #ESP_LINES}, but for
+	 * {@link net.wurstclient.util.InstancedBoxRenderer}.
+	 */
+	public static final RenderType.CompositeRenderType ESP_INSTANCED_BOX_LINES =
+		RenderType.create("wurst:esp_instanced_box_lines", 1536,
+			WurstShaderPipelines.ESP_INSTANCED_BOX_LINES,
+			RenderType.CompositeState.builder()
+				.setLineState(
+					new RenderStateShard.LineStateShard(OptionalDouble.of(2)))
+				.setLayeringState(RenderType.VIEW_OFFSET_Z_LAYERING)
+				.setOutputState(RenderType.ITEM_ENTITY_TARGET)
+				.createCompositeState(false));
+	
 	/**
 	 * Similar to {@link RenderType#debugQuads()}, but with culling enabled.
 	 */
@@ -118,4 +146,15 @@ public enum WurstRenderLayers
 	{
 		return depthTest ? LINE_STRIP : ESP_LINE_STRIP;
 	}
+	
+	/**
+	 * Returns either {@link #INSTANCED_BOX_LINES} or
+	 * {@link #ESP_INSTANCED_BOX_LINES} depending on the value of
+	 * {@code depthTest}.
+	 */
+	public static RenderType.CompositeRenderType getInstancedBoxLines(
+		boolean depthTest)
+	{
+		return depthTest ? INSTANCED_BOX_LINES : ESP_INSTANCED_BOX_LINES;
+	}
 }
@@ -11,6 +11,7 @@ import com.mojang.blaze3d.pipeline.BlendFunction;
 import com.mojang.blaze3d.pipeline.RenderPipeline;
 import com.mojang.blaze3d.pipeline.RenderPipeline.Snippet;
 import com.mojang.blaze3d.platform.DepthTestFunction;
+import com.mojang.blaze3d.shaders.UniformType;
 import com.mojang.blaze3d.vertex.DefaultVertexFormat;
 import com.mojang.blaze3d.vertex.VertexFormat.Mode;
 
@@ -73,6 +74,38 @@ public enum WurstShaderPipelines
 				Mode.LINE_STRIP)
 			.withDepthTestFunction(DepthTestFunction.NO_DEPTH_TEST).build());
 	
+	/**
+	 * Like {@link #FOGLESS_LINES_SNIPPET}, but draws many boxes at once by
+	 * moving and scaling a unit cube for each instance. See
+	 * {@link net.wurstclient.util.InstancedBoxRenderer}.
+	 */
+	public static final Snippet INSTANCED_BOX_LINES_SNIPPET = RenderPipeline
+		.builder(FOGLESS_LINES_SNIPPET)
+		.withVertexShader(
+			ResourceLocation.parse("wurst:core/instanced_box_lines"))
+		.withUniform("BoxInstances", UniformType.UNIFORM_BUFFER)
+		.buildSnippet();
+	
+	/**
+	 * Instanced version of {@link #DEPTH_TEST_LINES}.
+	 */
+	public static final RenderPipeline DEPTH_TEST_INSTANCED_BOX_LINES =
+		RenderPipelines.register(RenderPipeline
+			.builder(INSTANCED_BOX_LINES_SNIPPET)
+			.withLocation(ResourceLocation
+				.parse("wurst:pipeline/wurst_depth_test_instanced_box_lines"))
+			.build());
+	
+	/**
+	 * Instanced version of {@link #ESP_LINES}.
+	 */
+	public static final RenderPipeline ESP_INSTANCED_BOX_LINES =
+		RenderPipelines.register(RenderPipeline
+			.builder(INSTANCED_BOX_LINES_SNIPPET)
+			.withLocation(ResourceLocation
+				.parse("wurst:pipeline/wurst_esp_instanced_box_lines"))
+			.withDepthTestFunction(DepthTestFunction.NO_DEPTH_TEST).build());
+	
 	/**
 	 * Similar to the DEBUG_QUADS ShaderPipeline, but with culling enabled.
 	 */
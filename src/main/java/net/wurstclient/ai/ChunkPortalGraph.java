@@ -0,0 +1,371 @@
+/*
+ * Copyright (c) 2014-2025 Wurst-Imperium and contributors.
+ *
+ * This source code is subject to the terms of the GNU General Public
+ * License, version 3. If a copy of the GPL was not distributed with this
+ * file, You can obtain one at: https://www.gnu.org/licenses/gpl-3.0.txt
+ */
+package net.wurstclient.ai;
+
+import java.util.ArrayList;
+
+import it.unimi.dsi.fastutil.longs.Long2FloatOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.minecraft.client.Minecraft;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.BaseFireBlock;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.CactusBlock;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.material.LavaFluid;
+import net.wurstclient.WurstClient;
+import net.wurstclient.util.chunk.ChunkUtils;
+
+/**
+ * A coarse graph of the loaded world, for routes that are too long for a
+ * single {@link PathFinder} search. Every loaded chunk is a node, and two
+ * neighboring chunks are connected if their shared border has at least one
+ * "portal", meaning a spot where the player can stand and then step across
+ * into the other chunk.
+ *
+ * <p>
+ * Portals are found when a border is first needed and then cached until one
+ * of its two chunks is unloaded or replaced, so that planning the same area
+ * again only has to scan the borders that haven't been seen yet. Single block
+ * changes inside of a loaded chunk are not noticed, but every leg of the
+ * route is still planned by a {@link PathFinder} against the live world.
+ *
+ * <p>
+ * Must only be used from the client thread. Long routes are planned over
+ * several ticks, see {@link #startRoute(BlockPos, BlockPos)}.
+ */
+public final class ChunkPortalGraph
+{
+	private static final Minecraft MC = WurstClient.MC;
+	private static final long[] NO_PORTALS = new long[0];
+	private static final int MAX_EXPANSIONS = 4096;
+	
+	// keeps each tick of a long search well below one frame
+	private static final long MAX_NANOS_PER_THINK = 4_000_000;
+	
+	// keyed by the ChunkPos.asLong() of the chunk to the west / north
+	private final Long2ObjectOpenHashMap<Border> eastBorders =
+		new Long2ObjectOpenHashMap<>();
+	private final Long2ObjectOpenHashMap<Border> southBorders =
+		new Long2ObjectOpenHashMap<>();
+	
+	private final BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+	
+	/**
+	 * Starts planning a route from the given start towards the given goal,
+	 * through loaded chunks only. If the goal isn't loaded, or can't be
+	 * reached, the route ends in the reachable chunk that is closest to it.
+	 *
+	 * <p>
+	 * Scanning chunk borders for portals is slow, so the search only runs
+	 * for a limited time whenever {@link RouteSearch#think()} is called, and
+	 * is meant to be continued on the following ticks.
+	 */
+	public RouteSearch startRoute(BlockPos start, BlockPos goal)
+	{
+		removeUnloadedBorders();
+		return new RouteSearch(start, goal);
+	}
+	
+	public final class RouteSearch
+	{
+		private final BlockPos start;
+		private final BlockPos goal;
+		private final long startChunk;
+		private final long goalChunk;
+		
+		private final PathQueue queue = new PathQueue();
+		private final Long2FloatOpenHashMap costs = new Long2FloatOpenHashMap();
+		private final Long2LongOpenHashMap prevChunks =
+			new Long2LongOpenHashMap();
+		
+		private long closest;
+		private float closestDistance;
+		private int expansions;
+		private ArrayList<BlockPos> route;
+		
+		private RouteSearch(BlockPos start, BlockPos goal)
+		{
+			this.start = start;
+			this.goal = goal;
+			startChunk = ChunkPos.asLong(start);
+			goalChunk = ChunkPos.asLong(goal);
+			
+			costs.defaultReturnValue(Float.POSITIVE_INFINITY);
+			costs.put(startChunk, 0F);
+			queue.add(startChunk, getHeuristic(startChunk, goal));
+			
+			closest = startChunk;
+			closestDistance = getHeuristic(startChunk, goal);
+		}
+		
+		/**
+		 * Continues the search for a few milliseconds. Returns true once the
+		 * route is ready, see {@link #getRoute()}.
+		 */
+		public boolean think()
+		{
+			if(route != null)
+				return true;
+			
+			long stopTime = System.nanoTime() + MAX_NANOS_PER_THINK;
+			while(expansions < MAX_EXPANSIONS && !queue.isEmpty())
+			{
+				if(System.nanoTime() > stopTime)
+					return false;
+				
+				long current = queue.poll();
+				expansions++;
+				
+				float distance = getHeuristic(current, goal);
+				if(distance < closestDistance)
+				{
+					closest = current;
+					closestDistance = distance;
+				}
+				
+				if(current == goalChunk)
+					break;
+				
+				expand(current);
+			}
+			
+			route = buildRoute();
+			return true;
+		}
+		
+		private void expand(long current)
+		{
+			int x = ChunkPos.getX(current);
+			int z = ChunkPos.getZ(current);
+			float newCost = costs.get(current) + 16;
+			
+			for(Direction direction : Direction.Plane.HORIZONTAL)
+			{
+				long next = ChunkPos.asLong(x + direction.getStepX(),
+					z + direction.getStepZ());
+				if(costs.get(next) <= newCost
+					|| getPortals(x, z, direction).length == 0)
+					continue;
+				
+				costs.put(next, newCost);
+				prevChunks.put(next, current);
+				queue.add(next, newCost + getHeuristic(next, goal));
+			}
+		}
+		
+		private ArrayList<BlockPos> buildRoute()
+		{
+			LongArrayList chunks = new LongArrayList();
+			long chunk = closest;
+			while(chunk != startChunk)
+			{
+				chunks.add(chunk);
+				chunk = prevChunks.get(chunk);
+			}
+			chunks.add(startChunk);
+			
+			// pick the portals that are closest to the previous one, so the
+			// route doesn't zig-zag along the borders more than it has to
+			ArrayList<BlockPos> route = new ArrayList<>();
+			BlockPos prevPos = start;
+			for(int i = chunks.size() - 1; i > 0; i--)
+			{
+				long from = chunks.getLong(i);
+				long to = chunks.getLong(i - 1);
+				int x = ChunkPos.getX(from);
+				int z = ChunkPos.getZ(from);
+				Direction direction = Direction.fromDelta(
+					ChunkPos.getX(to) - x, 0, ChunkPos.getZ(to) - z);
+				
+				// chunks can unload while the search is spread over ticks
+				long[] portals = getPortals(x, z, direction);
+				if(portals.length == 0)
+					break;
+				
+				prevPos = getClosest(portals, prevPos);
+				route.add(prevPos);
+			}
+			
+			if(closest == goalChunk && route.size() == chunks.size() - 1)
+				route.add(goal);
+			
+			return route;
+		}
+		
+		/**
+		 * Returns the portals to walk through, in order, followed by the goal
+		 * itself if its chunk was reached. Each portal is the position of the
+		 * player's feet on the west or north side of a chunk border. Returns
+		 * <code>null</code> until {@link #think()} returns true.
+		 */
+		public ArrayList<BlockPos> getRoute()
+		{
+			return route;
+		}
+	}
+	
+	private float getHeuristic(long chunk, BlockPos goal)
+	{
+		float dx = (ChunkPos.getX(chunk) << 4) + 8 - goal.getX();
+		float dz = (ChunkPos.getZ(chunk) << 4) + 8 - goal.getZ();
+		return (float)Math.sqrt(dx * dx + dz * dz);
+	}
+	
+	private BlockPos getClosest(long[] portals, BlockPos target)
+	{
+		long closest = portals[0];
+		double closestDistance = Double.POSITIVE_INFINITY;
+		for(long portal : portals)
+		{
+			pos.set(portal);
+			double distance = pos.distSqr(target);
+			if(distance >= closestDistance)
+				continue;
+			
+			closest = portal;
+			closestDistance = distance;
+		}
+		
+		return BlockPos.of(closest);
+	}
+	
+	private long[] getPortals(int chunkX, int chunkZ, Direction direction)
+	{
+		return switch(direction)
+		{
+			case EAST -> getPortals(eastBorders, chunkX, chunkZ, chunkX + 1,
+				chunkZ);
+			case WEST -> getPortals(eastBorders, chunkX - 1, chunkZ, chunkX,
+				chunkZ);
+			case SOUTH -> getPortals(southBorders, chunkX, chunkZ, chunkX,
+				chunkZ + 1);
+			case NORTH -> getPortals(southBorders, chunkX, chunkZ - 1, chunkX,
+				chunkZ);
+			default -> throw new IllegalArgumentException();
+		};
+	}
+	
+	private long[] getPortals(Long2ObjectOpenHashMap<Border> borders, int x1,
+		int z1, int x2, int z2)
+	{
+		LevelChunk a = getLoadedChunk(x1, z1);
+		LevelChunk b = getLoadedChunk(x2, z2);
+		if(a == null || b == null)
+			return NO_PORTALS;
+		
+		long key = ChunkPos.asLong(x1, z1);
+		Border border = borders.get(key);
+		if(border == null || border.a != a || border.b != b)
+		{
+			border = new Border(a, b, findPortals(a, b));
+			borders.put(key, border);
+		}
+		
+		return border.portals;
+	}
+	
+	private long[] findPortals(LevelChunk a, LevelChunk b)
+	{
+		ChunkPos chunkPos = a.getPos();
+		boolean east = chunkPos.x != b.getPos().x;
+		int stepX = east ? 1 : 0;
+		int stepZ = east ? 0 : 1;
+		int startX = east ? chunkPos.getMaxBlockX() : chunkPos.getMinBlockX();
+		int startZ = east ? chunkPos.getMinBlockZ() : chunkPos.getMaxBlockZ();
+		
+		int minY = a.getMinY() + 1;
+		int maxY = Math.max(ChunkUtils.getHighestNonEmptySectionYOffset(a),
+			ChunkUtils.getHighestNonEmptySectionYOffset(b)) + 16;
+		
+		LongArrayList portals = new LongArrayList();
+		for(int i = 0; i < 16; i++)
+		{
+			int x = startX + i * stepZ;
+			int z = startZ + i * stepX;
+			
+			for(int y = minY; y <= maxY; y++)
+				if(canStandAt(a, x, y, z)
+					&& canStepOnto(a, x, z, b, x + stepX, z + stepZ, y))
+					portals.add(BlockPos.asLong(x, y, z));
+		}
+		
+		return portals.toLongArray();
+	}
+	
+	private boolean canStepOnto(LevelChunk a, int ax, int az, LevelChunk b,
+		int bx, int bz, int y)
+	{
+		if(canStandAt(b, bx, y, bz))
+			return true;
+		
+		// step up, needs room to jump
+		if(canStandAt(b, bx, y + 1, bz) && canGoThrough(a, ax, y + 2, az))
+			return true;
+		
+		// step down
+		return canStandAt(b, bx, y - 1, bz) && canGoThrough(b, bx, y + 1, bz);
+	}
+	
+	private boolean canStandAt(LevelChunk chunk, int x, int y, int z)
+	{
+		return canSafelyStandOn(chunk, x, y - 1, z)
+			&& canGoThrough(chunk, x, y, z) && canGoThrough(chunk, x, y + 1, z);
+	}
+	
+	@SuppressWarnings("deprecation")
+	private boolean canSafelyStandOn(LevelChunk chunk, int x, int y, int z)
+	{
+		BlockState state = chunk.getBlockState(pos.set(x, y, z));
+		return state.blocksMotion()
+			&& !(state.getBlock() instanceof CactusBlock)
+			&& !(state.getFluidState().getType() instanceof LavaFluid);
+	}
+	
+	@SuppressWarnings("deprecation")
+	private boolean canGoThrough(LevelChunk chunk, int x, int y, int z)
+	{
+		BlockState state = chunk.getBlockState(pos.set(x, y, z));
+		return !state.blocksMotion() && !state.is(Blocks.LAVA)
+			&& !(state.getBlock() instanceof BaseFireBlock);
+	}
+	
+	private LevelChunk getLoadedChunk(int x, int z)
+	{
+		if(!MC.level.hasChunk(x, z))
+			return null;
+		
+		return MC.level.getChunk(x, z);
+	}
+	
+	private void removeUnloadedBorders()
+	{
+		eastBorders.values().removeIf(Border::isUnloaded);
+		southBorders.values().removeIf(Border::isUnloaded);
+	}
+	
+	private record Border(LevelChunk a, LevelChunk b, long[] portals)
+	{
+		private boolean isUnloaded()
+		{
+			return isUnloaded(a) || isUnloaded(b);
+		}
+		
+		private static boolean isUnloaded(LevelChunk chunk)
+		{
+			ChunkPos pos = chunk.getPos();
+			return !MC.level.hasChunk(pos.x, pos.z)
+				|| MC.level.getChunk(pos.x, pos.z) != chunk;
+		}
+	}
+}
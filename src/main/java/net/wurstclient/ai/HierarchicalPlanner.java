@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2014-2025 Wurst-Imperium and contributors.
+ *
+ * This source code is subject to the terms of the GNU General Public
+ * License, version 3. If a copy of the GPL was not distributed with this
+ * file, You can obtain one at: https://www.gnu.org/licenses/gpl-3.0.txt
+ */
+package net.wurstclient.ai;
+
+import java.util.ArrayList;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.core.BlockPos;
+import net.wurstclient.WurstClient;
+
+/**
+ * Splits the way to a far away goal into legs that are short enough for a
+ * single {@link PathFinder} search. The legs are chosen from a coarse route
+ * through the {@link ChunkPortalGraph}, which is planned again at the start
+ * of every leg, since more chunks will have loaded by then. Planning a leg
+ * can take several ticks, see {@link #update()}.
+ *
+ * <p>
+ * Goals that are already close enough are reached in a single leg, exactly
+ * like before.
+ */
+public final class HierarchicalPlanner
+{
+	private static final Minecraft MC = WurstClient.MC;
+	
+	// well within the 256 block limit of PathFinder
+	private static final int DIRECT_RANGE = 128;
+	private static final int LEG_LENGTH = 96;
+	
+	private final ChunkPortalGraph graph;
+	private final BlockPos goal;
+	private BlockPos legStart;
+	private ChunkPortalGraph.RouteSearch search;
+	private BlockPos legGoal;
+	
+	public HierarchicalPlanner(ChunkPortalGraph graph, BlockPos goal)
+	{
+		this.graph = graph;
+		this.goal = goal;
+	}
+	
+	/**
+	 * Starts planning the route again from the player's current position.
+	 * Call {@link #update()} every tick until it returns true, then get the
+	 * result from {@link #getLegGoal()}.
+	 */
+	public void planNextLeg()
+	{
+		legStart = BlockPos.containing(MC.player.position());
+		legGoal = null;
+		search = null;
+		
+		if(getDistance(legStart, goal) <= DIRECT_RANGE)
+			legGoal = goal;
+		else
+			search = graph.startRoute(legStart, goal);
+	}
+	
+	/**
+	 * Continues planning the next leg. Returns true once it's planned.
+	 */
+	public boolean update()
+	{
+		if(search == null)
+			return true;
+		
+		if(!search.think())
+			return false;
+		
+		legGoal = pickLegGoal(search.getRoute());
+		search = null;
+		return true;
+	}
+	
+	private BlockPos pickLegGoal(ArrayList<BlockPos> route)
+	{
+		if(route.isEmpty())
+			return null;
+		
+		// go as far along the route as a single leg can go
+		BlockPos next = route.get(0);
+		for(BlockPos pos : route)
+		{
+			if(getDistance(legStart, pos) > LEG_LENGTH)
+				break;
+			
+			next = pos;
+		}
+		
+		// already standing at the end of the loaded part of the route
+		if(getDistance(legStart, next) <= 1)
+			return null;
+		
+		return next;
+	}
+	
+	/**
+	 * Returns the goal of the leg that was last planned, or <code>null</code>
+	 * if no loaded chunk gets the player any closer to the final goal.
+	 */
+	public BlockPos getLegGoal()
+	{
+		return legGoal;
+	}
+	
+	/**
+	 * Returns true if the leg that was last planned ends at the final goal.
+	 */
+	public boolean isFinalLeg()
+	{
+		return goal.equals(legGoal);
+	}
+	
+	public BlockPos getGoal()
+	{
+		return goal;
+	}
+	
+	private int getDistance(BlockPos a, BlockPos b)
+	{
+		return Math.max(Math.abs(a.getX() - b.getX()),
+			Math.abs(a.getZ() - b.getZ()));
+	}
+}
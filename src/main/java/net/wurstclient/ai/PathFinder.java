@@ -9,17 +9,25 @@ package net.wurstclient.ai;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map.Entry;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import com.mojang.blaze3d.vertex.PoseStack;
 import com.mojang.blaze3d.vertex.VertexConsumer;
 
+import it.unimi.dsi.fastutil.longs.Long2FloatOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2LongMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.renderer.MultiBufferSource;
 import net.minecraft.core.BlockPos;
-import net.minecraft.core.Direction;
+import net.minecraft.core.SectionPos;
 import net.minecraft.world.level.block.*;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.material.Fluid;
@@ -29,29 +37,78 @@ import net.minecraft.world.phys.AABB;
 import net.minecraft.world.phys.Vec3;
 import net.wurstclient.WurstClient;
 import net.wurstclient.WurstRenderLayers;
-import net.wurstclient.util.BlockUtils;
 import net.wurstclient.util.RegionPos;
 import net.wurstclient.util.RenderUtils;
+import net.wurstclient.util.TaskScheduler;
+import net.wurstclient.util.TaskScheduler.Priority;
 
 public class PathFinder
 {
 	private static final Minecraft MC = WurstClient.MC;
 	
-	private final PlayerAbilities abilities = PlayerAbilities.get();
+	// how many chunks around the start and goal are copied for async searches
+	private static final int SNAPSHOT_MARGIN = 4;
+	
+	// Positions are packed into longs with 21 bits for each coordinate and
+	// one bit for jumping. X and Z are stored relative to the origin, which is
+	// the start position unless the search was resumed.
+	private static final int KEY_OFFSET = 1 << 20;
+	private static final long KEY_MASK = (1L << 21) - 1;
+	
+	// how far the goal can move before resumeFrom() starts over instead
+	private static final int MAX_GOAL_SHIFT = 16;
+	
+	// Movement-related properties of a block, see computeProperties().
+	// CACHED is always set so that 0 can mean "not in the cache yet".
+	private static final int CACHED = 1;
+	private static final int PASSABLE = 1 << 1;
+	private static final int SOLID = 1 << 2;
+	private static final int DANGEROUS = 1 << 3;
+	private static final int FENCE_LIKE = 1 << 4;
+	private static final int WATER = 1 << 5;
+	private static final int LAVA = 1 << 6;
+	private static final int WATER_FLUID = 1 << 7;
+	private static final int LIQUID = 1 << 8;
+	private static final int CLIMBABLE = 1 << 9;
+	private static final int WEB = 1 << 10;
+	private static final int SOUL_SAND = 1 << 11;
+	private static final int SLIME = 1 << 12;
+	private static final int MINEABLE = 1 << 13;
+	
+	private final PlayerAbilities abilities;
+	private final PathWorld liveWorld;
+	private PathWorld world;
+	private volatile boolean searchingAsync;
+	private volatile boolean cancelled;
+	private volatile CompletableFuture<Void> asyncSearch;
 	protected boolean fallingAllowed = true;
 	protected boolean divingAllowed = true;
 	
 	private final PathPos start;
+	private BlockPos origin;
 	protected PathPos current;
 	private final BlockPos goal;
 	
-	private final HashMap<PathPos, Float> costMap = new HashMap<>();
-	protected final HashMap<PathPos, PathPos> prevPosMap = new HashMap<>();
+	private final Long2FloatOpenHashMap costMap = new Long2FloatOpenHashMap();
+	private final Long2LongOpenHashMap prevPosMap = new Long2LongOpenHashMap();
 	private final PathQueue queue = new PathQueue();
 	
+	// Blocks are assumed not to change during a search, so their properties
+	// only need to be looked up once. Keyed by BlockPos.asLong().
+	private final Long2IntOpenHashMap propertyCache =
+		new Long2IntOpenHashMap(1 << 16);
+	private boolean cachingProperties = true;
+	
+	// Reused for every block lookup, so that expanding a position doesn't
+	// allocate anything. Only one thread searches at a time.
+	private final long[] neighbors = new long[10];
+	private final BlockPos.MutableBlockPos scratchPos =
+		new BlockPos.MutableBlockPos();
+	
 	protected int thinkSpeed = 1024;
 	protected int thinkTime = 200;
 	private int iterations;
+	private int invalidIndex = -1;
 	
 	protected boolean done;
 	protected boolean failed;
@@ -59,15 +116,38 @@ public class PathFinder
 	
 	public PathFinder(BlockPos goal)
 	{
-		if(MC.player.onGround())
-			start = new PathPos(BlockPos.containing(MC.player.getX(),
-				MC.player.getY() + 0.5, MC.player.getZ()));
-		else
-			start = new PathPos(BlockPos.containing(MC.player.position()));
+		this(PathWorld.LIVE, PlayerAbilities.get(), getPlayerPos(), goal);
+	}
+	
+	/**
+	 * Searches the given world instead of the live one, for the given
+	 * abilities instead of the player's. This doesn't touch
+	 * <code>MC.player</code> and is mostly meant for benchmarks. Only
+	 * {@link #findPathAsync()} and {@link #isPathStillValid(int)} still need
+	 * a player.
+	 */
+	public PathFinder(PathWorld world, PlayerAbilities abilities,
+		BlockPos start, BlockPos goal)
+	{
+		liveWorld = world;
+		this.world = world;
+		this.abilities = abilities;
+		this.start = new PathPos(start);
+		origin = this.start;
 		this.goal = goal;
 		
-		costMap.put(start, 0F);
-		queue.add(start, getHeuristic(start));
+		costMap.defaultReturnValue(Float.POSITIVE_INFINITY);
+		costMap.put(key(this.start), 0F);
+		queue.add(key(this.start), getHeuristic(this.start));
+	}
+	
+	private static BlockPos getPlayerPos()
+	{
+		if(MC.player.onGround())
+			return BlockPos.containing(MC.player.getX(),
+				MC.player.getY() + 0.5, MC.player.getZ());
+		
+		return BlockPos.containing(MC.player.position());
 	}
 	
 	public PathFinder(PathFinder pathFinder)
@@ -86,29 +166,275 @@ public class PathFinder
 		for(; i < thinkSpeed && !checkFailed(); i++)
 		{
 			// get next position from queue
-			current = queue.poll();
+			long currentKey = queue.poll();
+			current = toPathPos(currentKey);
 			
 			// check if path is found
 			if(checkDone())
+			{
+				iterations += i + 1;
 				return;
+			}
 			
 			// add neighbors to queue
-			for(PathPos next : getNeighbors(current))
+			float currentCost = costMap.get(currentKey);
+			int neighborCount = getNeighbors(currentKey, neighbors);
+			for(int j = 0; j < neighborCount; j++)
 			{
+				long next = neighbors[j];
+				
 				// check cost
-				float newCost = costMap.get(current) + getCost(current, next);
-				if(costMap.containsKey(next) && costMap.get(next) <= newCost)
+				float newCost = currentCost + getCost(currentKey, next);
+				if(costMap.get(next) <= newCost)
 					continue;
 				
 				// add to queue
 				costMap.put(next, newCost);
-				prevPosMap.put(next, current);
+				prevPosMap.put(next, currentKey);
 				queue.add(next, newCost + getHeuristic(next));
 			}
 		}
 		iterations += i;
 	}
 	
+	/**
+	 * Runs the whole search on a background thread, against a
+	 * {@link WorldSnapshot} of the chunks around the start and the goal. The
+	 * path is then formatted on the client thread and the returned future
+	 * completes with a processor for it. Check {@link #isDone()} to see if the
+	 * path actually reaches the goal.
+	 *
+	 * <p>
+	 * Must be called from the client thread. Subclasses that override
+	 * {@link #checkDone()} or {@link #isMineable(BlockPos)} must be safe to
+	 * call from another thread while this is running.
+	 *
+	 * <p>
+	 * Once the future completes, {@link #isPathStillValid(int)} checks the
+	 * path against the live world again.
+	 */
+	public CompletableFuture<PathProcessor> findPathAsync()
+	{
+		if(done || failed)
+			throw new IllegalStateException("Search is already finished!");
+		
+		world = captureSnapshot();
+		searchingAsync = true;
+		
+		TaskScheduler scheduler = WurstClient.INSTANCE.getTaskScheduler();
+		asyncSearch = scheduler.submit(Priority.NEAR, () -> {
+			while(!done && !failed && !cancelled
+				&& !TaskScheduler.isCurrentTaskCancelled())
+				think();
+		});
+		
+		return asyncSearch.handleAsync((v, e) -> {
+			searchingAsync = false;
+			world = liveWorld;
+			asyncSearch = null;
+			
+			if(cancelled)
+				throw new CancellationException();
+			
+			if(e != null)
+				throw new CompletionException(e);
+			
+			formatPath();
+			return getProcessor();
+		}, MC);
+	}
+	
+	/**
+	 * Stops a search started by {@link #findPathAsync()}. Its future then
+	 * completes exceptionally.
+	 */
+	public void cancel()
+	{
+		cancelled = true;
+		
+		// skips the search entirely if it hasn't started yet
+		CompletableFuture<Void> asyncSearch = this.asyncSearch;
+		if(asyncSearch != null)
+			asyncSearch.cancel(false);
+	}
+	
+	/**
+	 * Continues from the search tree of a previous search instead of starting
+	 * over, in the way of Fringe-Retrieving A*. This is meant for chasing a
+	 * goal that moves a few blocks at a time while the player walks along the
+	 * previous path.
+	 *
+	 * <p>
+	 * Only the part of the old tree that grows out of the player's current
+	 * position is kept, along with its costs. Kept positions on the edge of
+	 * the dropped part, or that already reach the new goal, are searched
+	 * again, so the result is the same as with a fresh search as long as the
+	 * blocks in the kept part haven't changed. If
+	 * {@link #isPathStillValid(int)} found a broken step in the old path, the
+	 * part of the tree behind that step is dropped as well.
+	 *
+	 * <p>
+	 * Must be called before the first {@link #think()}. Does nothing and
+	 * returns false if the previous search can't be reused, e.g. because the
+	 * player has left its tree or the goal moved too far.
+	 */
+	public boolean resumeFrom(PathFinder previous)
+	{
+		if(iterations > 0 || done || failed)
+			throw new IllegalStateException("Search was already started!");
+		
+		if(previous == null || !previous.done && !previous.failed
+			|| previous.liveWorld != liveWorld || previous.searchingAsync
+			|| previous.invalidIndex == 0
+			|| !abilities.equals(previous.abilities)
+			|| previous.goal.distManhattan(goal) > MAX_GOAL_SHIFT
+			|| Math.abs(start.getX() - previous.origin.getX()) > 256
+			|| Math.abs(start.getZ() - previous.origin.getZ()) > 256)
+			return false;
+		
+		long startKey = previous.key(start);
+		if(!previous.costMap.containsKey(startKey))
+			return false;
+		
+		long brokenKey = previous.invalidIndex > 0
+			? previous.key(previous.path.get(previous.invalidIndex)) : -1;
+		if(startKey == brokenKey)
+			return false;
+		
+		LongOpenHashSet kept = previous.getSubtree(startKey, brokenKey);
+		float startCost = previous.costMap.get(startKey);
+		long previousCurrent = previous.done ? previous.key(previous.current)
+			: -1;
+		
+		origin = previous.origin;
+		costMap.clear();
+		prevPosMap.clear();
+		queue.clear();
+		
+		for(LongIterator itr = kept.iterator(); itr.hasNext();)
+		{
+			long key = itr.nextLong();
+			costMap.put(key, previous.costMap.get(key) - startCost);
+			if(key != startKey)
+				prevPosMap.put(key, previous.prevPosMap.get(key));
+		}
+		
+		for(LongIterator itr = kept.iterator(); itr.hasNext();)
+		{
+			long key = itr.nextLong();
+			
+			// Positions that were never expanded stay in the queue. Expanded
+			// ones only need to be expanded again if they could lead into the
+			// dropped part, were cut off by the distance limit of the old
+			// search, or are now at the goal.
+			if(previous.queue.contains(key) || key == previousCurrent
+				|| Math.abs(previous.start.getX() - getX(key)) > 256
+				|| Math.abs(previous.start.getZ() - getZ(key)) > 256
+				|| previous.hasDroppedNeighbor(key, kept) || isGoal(key))
+				queue.add(key, costMap.get(key) + getHeuristic(key));
+		}
+		
+		current = null;
+		return true;
+	}
+	
+	/**
+	 * Returns the keys of the given position and of all positions whose path
+	 * leads through it, except for those whose path also leads through the
+	 * excluded position.
+	 */
+	private LongOpenHashSet getSubtree(long rootKey, long excludedKey)
+	{
+		LongOpenHashSet subtree = new LongOpenHashSet();
+		LongOpenHashSet outside = new LongOpenHashSet();
+		LongArrayList chain = new LongArrayList();
+		subtree.add(rootKey);
+		
+		for(LongIterator itr = costMap.keySet().iterator(); itr.hasNext();)
+		{
+			long key = itr.nextLong();
+			chain.clear();
+			
+			// walk towards the start until the answer is known
+			boolean inside;
+			while(true)
+			{
+				if(subtree.contains(key))
+				{
+					inside = true;
+					break;
+				}
+				
+				if(outside.contains(key) || key == excludedKey
+					|| !prevPosMap.containsKey(key))
+				{
+					inside = false;
+					break;
+				}
+				
+				chain.add(key);
+				key = prevPosMap.get(key);
+			}
+			
+			if(inside)
+				subtree.addAll(chain);
+			else
+				outside.addAll(chain);
+		}
+		
+		return subtree;
+	}
+	
+	/**
+	 * Checks if any of the 26 blocks around the given position was part of
+	 * this search, but not of the kept subtree.
+	 */
+	private boolean hasDroppedNeighbor(long key, LongOpenHashSet kept)
+	{
+		long base = key & ~1L;
+		for(int dx = -1; dx <= 1; dx++)
+			for(int dy = -1; dy <= 1; dy++)
+				for(int dz = -1; dz <= 1; dz++)
+					for(int jumping = 0; jumping <= 1; jumping++)
+					{
+						long neighbor = base + ((long)dx << 43)
+							+ ((long)dz << 22) + ((long)dy << 1) + jumping;
+						if(neighbor != key && costMap.containsKey(neighbor)
+							&& !kept.contains(neighbor))
+							return true;
+					}
+				
+		return false;
+	}
+	
+	private boolean isGoal(long key)
+	{
+		current = toPathPos(key);
+		boolean goal = checkDone();
+		done = false;
+		return goal;
+	}
+	
+	private WorldSnapshot captureSnapshot()
+	{
+		int startX = SectionPos.blockToSectionCoord(start.getX());
+		int startZ = SectionPos.blockToSectionCoord(start.getZ());
+		int goalX = SectionPos.blockToSectionCoord(goal.getX());
+		int goalZ = SectionPos.blockToSectionCoord(goal.getZ());
+		
+		// no need to copy anything beyond the 256 block limit of getNeighbors()
+		int minX = Math.max(Math.min(startX, goalX) - SNAPSHOT_MARGIN,
+			startX - 17);
+		int minZ = Math.max(Math.min(startZ, goalZ) - SNAPSHOT_MARGIN,
+			startZ - 17);
+		int maxX = Math.min(Math.max(startX, goalX) + SNAPSHOT_MARGIN,
+			startX + 17);
+		int maxZ = Math.min(Math.max(startZ, goalZ) + SNAPSHOT_MARGIN,
+			startZ + 17);
+		
+		return WorldSnapshot.capture(MC.level, minX, minZ, maxX, maxZ);
+	}
+	
 	protected boolean checkDone()
 	{
 		return done = goal.equals(current);
@@ -119,111 +445,107 @@ public class PathFinder
 		return failed = queue.isEmpty() || iterations >= thinkSpeed * thinkTime;
 	}
 	
-	private ArrayList<PathPos> getNeighbors(PathPos pos)
+	/**
+	 * Writes the keys of all positions that can be reached from the given
+	 * position into the given array and returns how many there are.
+	 */
+	private int getNeighbors(long key, long[] neighbors)
 	{
-		ArrayList<PathPos> neighbors = new ArrayList<>();
+		int count = 0;
+		int x = getX(key);
+		int y = getY(key);
+		int z = getZ(key);
 		
 		// abort if too far away
-		if(Math.abs(start.getX() - pos.getX()) > 256
-			|| Math.abs(start.getZ() - pos.getZ()) > 256)
-			return neighbors;
-		
-		// get all neighbors
-		BlockPos north = pos.north();
-		BlockPos east = pos.east();
-		BlockPos south = pos.south();
-		BlockPos west = pos.west();
-		
-		BlockPos northEast = north.east();
-		BlockPos southEast = south.east();
-		BlockPos southWest = south.west();
-		BlockPos northWest = north.west();
-		
-		BlockPos up = pos.above();
-		BlockPos down = pos.below();
+		if(Math.abs(start.getX() - x) > 256 || Math.abs(start.getZ() - z) > 256)
+			return count;
 		
 		// flying
-		boolean flying = canFlyAt(pos);
+		boolean flying = canFlyAt(x, y, z);
 		// walking
-		boolean onGround = canBeSolid(down);
+		boolean onGround = canBeSolid(x, y - 1, z);
 		
 		// player can move sideways if flying, standing on the ground, jumping,
 		// or inside of a block that allows sideways movement (ladders, webs,
 		// etc.)
-		if(flying || onGround || pos.isJumping()
-			|| canMoveSidewaysInMidairAt(pos) || canClimbUpAt(pos.below()))
+		if(flying || onGround || isJumping(key)
+			|| canMoveSidewaysInMidairAt(x, y, z)
+			|| canClimbUpAt(x, y - 1, z))
 		{
 			// north
-			if(checkHorizontalMovement(pos, north))
-				neighbors.add(new PathPos(north));
+			if(checkHorizontalMovement(flying, x, y, z - 1))
+				neighbors[count++] = key(x, y, z - 1, false);
 			
 			// east
-			if(checkHorizontalMovement(pos, east))
-				neighbors.add(new PathPos(east));
+			if(checkHorizontalMovement(flying, x + 1, y, z))
+				neighbors[count++] = key(x + 1, y, z, false);
 			
 			// south
-			if(checkHorizontalMovement(pos, south))
-				neighbors.add(new PathPos(south));
+			if(checkHorizontalMovement(flying, x, y, z + 1))
+				neighbors[count++] = key(x, y, z + 1, false);
 			
 			// west
-			if(checkHorizontalMovement(pos, west))
-				neighbors.add(new PathPos(west));
+			if(checkHorizontalMovement(flying, x - 1, y, z))
+				neighbors[count++] = key(x - 1, y, z, false);
 			
 			// north-east
-			if(checkDiagonalMovement(pos, Direction.NORTH, Direction.EAST))
-				neighbors.add(new PathPos(northEast));
+			if(checkDiagonalMovement(flying, x, y, z, 1, -1))
+				neighbors[count++] = key(x + 1, y, z - 1, false);
 			
 			// south-east
-			if(checkDiagonalMovement(pos, Direction.SOUTH, Direction.EAST))
-				neighbors.add(new PathPos(southEast));
+			if(checkDiagonalMovement(flying, x, y, z, 1, 1))
+				neighbors[count++] = key(x + 1, y, z + 1, false);
 			
 			// south-west
-			if(checkDiagonalMovement(pos, Direction.SOUTH, Direction.WEST))
-				neighbors.add(new PathPos(southWest));
+			if(checkDiagonalMovement(flying, x, y, z, -1, 1))
+				neighbors[count++] = key(x - 1, y, z + 1, false);
 			
 			// north-west
-			if(checkDiagonalMovement(pos, Direction.NORTH, Direction.WEST))
-				neighbors.add(new PathPos(northWest));
+			if(checkDiagonalMovement(flying, x, y, z, -1, -1))
+				neighbors[count++] = key(x - 1, y, z - 1, false);
 		}
 		
 		// up
-		if(pos.getY() < MC.level.getMaxY() && canGoThrough(up.above())
-			&& (flying || onGround || canClimbUpAt(pos))
-			&& (flying || canClimbUpAt(pos) || goal.equals(up)
-				|| canSafelyStandOn(north) || canSafelyStandOn(east)
-				|| canSafelyStandOn(south) || canSafelyStandOn(west))
-			&& (divingAllowed
-				|| BlockUtils.getBlock(up.above()) != Blocks.WATER))
-			neighbors.add(new PathPos(up, onGround));
+		if(y < world.getMaxY() && canGoThrough(x, y + 2, z)
+			&& (flying || onGround || canClimbUpAt(x, y, z))
+			&& (flying || canClimbUpAt(x, y, z) || isGoal(x, y + 1, z)
+				|| canSafelyStandOn(x, y, z - 1)
+				|| canSafelyStandOn(x + 1, y, z)
+				|| canSafelyStandOn(x, y, z + 1)
+				|| canSafelyStandOn(x - 1, y, z))
+			&& (divingAllowed || !has(x, y + 2, z, WATER)))
+			neighbors[count++] = key(x, y + 1, z, onGround);
 		
 		// down
-		if(pos.getY() > MC.level.getMinY() && canGoThrough(down)
-			&& canGoAbove(down.below()) && (flying || canFallBelow(pos))
-			&& (divingAllowed || BlockUtils.getBlock(pos) != Blocks.WATER))
-			neighbors.add(new PathPos(down));
+		if(y > world.getMinY() && canGoThrough(x, y - 1, z)
+			&& canGoAbove(x, y - 2, z) && (flying || canFallBelow(key))
+			&& (divingAllowed || !has(x, y, z, WATER)))
+			neighbors[count++] = key(x, y - 1, z, false);
 		
-		return neighbors;
+		return count;
 	}
 	
-	private boolean checkHorizontalMovement(BlockPos current, BlockPos next)
+	private boolean isGoal(int x, int y, int z)
 	{
-		if(isPassable(next) && (canFlyAt(current) || canGoThrough(next.below())
-			|| canSafelyStandOn(next.below())))
+		return goal.getX() == x && goal.getY() == y && goal.getZ() == z;
+	}
+	
+	private boolean checkHorizontalMovement(boolean flying, int x, int y,
+		int z)
+	{
+		if(isPassable(x, y, z) && (flying || canGoThrough(x, y - 1, z)
+			|| canSafelyStandOn(x, y - 1, z)))
 			return true;
 		
 		return false;
 	}
 	
-	private boolean checkDiagonalMovement(BlockPos current,
-		Direction direction1, Direction direction2)
+	private boolean checkDiagonalMovement(boolean flying, int x, int y, int z,
+		int dx, int dz)
 	{
-		BlockPos horizontal1 = current.relative(direction1);
-		BlockPos horizontal2 = current.relative(direction2);
-		BlockPos next = horizontal1.relative(direction2);
-		
-		if(isPassableWithoutMining(horizontal1)
-			&& isPassableWithoutMining(horizontal2)
-			&& checkHorizontalMovement(current, next))
+		if(isPassableWithoutMining(x, y, z + dz)
+			&& isPassableWithoutMining(x + dx, y, z)
+			&& checkHorizontalMovement(flying, x + dx, y, z + dz))
 			return true;
 		
 		return false;
@@ -231,17 +553,21 @@ public class PathFinder
 	
 	protected boolean isPassable(BlockPos pos)
 	{
-		if(!canGoThrough(pos) && !isMineable(pos))
+		return isPassable(pos.getX(), pos.getY(), pos.getZ());
+	}
+	
+	private boolean isPassable(int x, int y, int z)
+	{
+		if(!canGoThrough(x, y, z) && !has(x, y, z, MINEABLE))
 			return false;
 		
-		BlockPos up = pos.above();
-		if(!canGoThrough(up) && !isMineable(up))
+		if(!canGoThrough(x, y + 1, z) && !has(x, y + 1, z, MINEABLE))
 			return false;
 		
-		if(!canGoAbove(pos.below()))
+		if(!canGoAbove(x, y - 1, z))
 			return false;
 		
-		if(!divingAllowed && BlockUtils.getBlock(up) == Blocks.WATER)
+		if(!divingAllowed && has(x, y + 1, z, WATER))
 			return false;
 		
 		return true;
@@ -249,17 +575,21 @@ public class PathFinder
 	
 	protected boolean isPassableWithoutMining(BlockPos pos)
 	{
-		if(!canGoThrough(pos))
+		return isPassableWithoutMining(pos.getX(), pos.getY(), pos.getZ());
+	}
+	
+	private boolean isPassableWithoutMining(int x, int y, int z)
+	{
+		if(!canGoThrough(x, y, z))
 			return false;
 		
-		BlockPos up = pos.above();
-		if(!canGoThrough(up))
+		if(!canGoThrough(x, y + 1, z))
 			return false;
 		
-		if(!canGoAbove(pos.below()))
+		if(!canGoAbove(x, y - 1, z))
 			return false;
 		
-		if(!divingAllowed && BlockUtils.getBlock(up) == Blocks.WATER)
+		if(!divingAllowed && has(x, y + 1, z, WATER))
 			return false;
 		
 		return true;
@@ -270,81 +600,45 @@ public class PathFinder
 		return false;
 	}
 	
-	@SuppressWarnings("deprecation")
 	protected boolean canBeSolid(BlockPos pos)
 	{
-		BlockState state = BlockUtils.getState(pos);
-		Block block = state.getBlock();
-		
-		return state.blocksMotion() && !(block instanceof SignBlock)
-			|| block instanceof LadderBlock || abilities.jesus()
-				&& (block == Blocks.WATER || block == Blocks.LAVA);
+		return canBeSolid(pos.getX(), pos.getY(), pos.getZ());
 	}
 	
-	@SuppressWarnings("deprecation")
-	private boolean canGoThrough(BlockPos pos)
+	private boolean canBeSolid(int x, int y, int z)
 	{
-		// check if loaded
-		// Can't see why isChunkLoaded() is deprecated. Still seems to be widely
-		// used with no replacement.
-		if(!MC.level.hasChunkAt(pos))
-			return false;
-		
-		// check if solid
-		BlockState state = BlockUtils.getState(pos);
-		Block block = state.getBlock();
-		if(state.blocksMotion() && !(block instanceof SignBlock))
-			return false;
-		
-		// check if trapped
-		if(block instanceof TripWireBlock
-			|| block instanceof PressurePlateBlock)
-			return false;
-		
-		// check if safe
-		if(!abilities.invulnerable()
-			&& (block == Blocks.LAVA || block instanceof BaseFireBlock))
-			return false;
-		
-		return true;
+		return has(x, y, z, SOLID);
 	}
 	
-	private boolean canGoAbove(BlockPos pos)
+	private boolean canGoThrough(int x, int y, int z)
+	{
+		return has(x, y, z, PASSABLE);
+	}
+	
+	private boolean canGoAbove(int x, int y, int z)
 	{
 		// check for fences, etc.
-		Block block = BlockUtils.getBlock(pos);
-		if(block instanceof FenceBlock || block instanceof WallBlock
-			|| block instanceof FenceGateBlock)
-			return false;
-		
-		return true;
+		return !has(x, y, z, FENCE_LIKE);
 	}
 	
-	private boolean canSafelyStandOn(BlockPos pos)
+	private boolean canSafelyStandOn(int x, int y, int z)
 	{
-		// check if solid
-		if(!canBeSolid(pos))
-			return false;
-		
-		// check if safe
-		BlockState state = BlockUtils.getState(pos);
-		Fluid fluid = state.getFluidState().getType();
-		if(!abilities.invulnerable() && (state.getBlock() instanceof CactusBlock
-			|| fluid instanceof LavaFluid))
-			return false;
-		
-		return true;
+		int properties = getProperties(x, y, z);
+		return (properties & SOLID) != 0 && (properties & DANGEROUS) == 0;
 	}
 	
-	private boolean canFallBelow(PathPos pos)
+	private boolean canFallBelow(long key)
 	{
+		int x = getX(key);
+		int y = getY(key);
+		int z = getZ(key);
+		
 		// check if player can keep falling
-		BlockPos down2 = pos.below(2);
-		if(fallingAllowed && canGoThrough(down2))
+		if(fallingAllowed && canGoThrough(x, y - 2, z))
 			return true;
 		
 		// check if player can stand below
-		if(!canSafelyStandOn(down2))
+		if(!canSafelyStandOn(x, y - 2, z))
 			return false;
 		
 		// check if fall damage is off
@@ -352,124 +646,132 @@ public class PathFinder
 			return true;
 		
 		// check if fall ends with slime block
-		if(BlockUtils.getBlock(down2) instanceof SlimeBlock && fallingAllowed)
+		if(has(x, y - 2, z, SLIME) && fallingAllowed)
 			return true;
 		
 		// check fall damage
-		BlockPos prevPos = pos;
+		long prevKey = key;
+		boolean hasPrevPos = true;
 		for(int i = 0; i <= (fallingAllowed ? 3 : 1); i++)
 		{
 			// check if prevPos does not exist, meaning that the pathfinding
 			// started during the fall and fall damage should be ignored because
 			// it cannot be prevented
-			if(prevPos == null)
+			if(!hasPrevPos)
 				return true;
-				
+			
 			// check if point is not part of this fall, meaning that the fall is
 			// too short to cause any damage
-			if(!pos.above(i).equals(prevPos))
+			int prevY = getY(prevKey);
+			if(getX(prevKey) != x || prevY != y + i || getZ(prevKey) != z)
 				return true;
 			
 			// check if block resets fall damage
-			Block prevBlock = BlockUtils.getBlock(prevPos);
-			BlockState prevState = BlockUtils.getState(prevPos);
-			if(prevState.getFluidState().getType() instanceof WaterFluid
-				|| prevBlock instanceof LadderBlock
-				|| prevBlock instanceof VineBlock
-				|| prevBlock instanceof WebBlock)
+			if(has(x, prevY, z, WATER_FLUID | CLIMBABLE | WEB))
 				return true;
 			
-			prevPos = prevPosMap.get(prevPos);
+			hasPrevPos = prevPosMap.containsKey(prevKey);
+			prevKey = prevPosMap.get(prevKey);
 		}
 		
 		return false;
 	}
 	
-	private boolean canFlyAt(BlockPos pos)
+	private boolean canFlyAt(int x, int y, int z)
 	{
-		return abilities.flying() || !abilities.noWaterSlowdown()
-			&& BlockUtils.getBlock(pos) == Blocks.WATER;
+		return abilities.flying()
+			|| !abilities.noWaterSlowdown() && has(x, y, z, WATER);
 	}
 	
-	private boolean canClimbUpAt(BlockPos pos)
+	private boolean canClimbUpAt(int x, int y, int z)
 	{
 		// check if this block works for climbing
-		Block block = BlockUtils.getBlock(pos);
-		if(!abilities.spider() && !(block instanceof LadderBlock)
-			&& !(block instanceof VineBlock))
+		if(!abilities.spider() && !has(x, y, z, CLIMBABLE))
 			return false;
 		
 		// check if any adjacent block is solid
-		BlockPos up = pos.above();
-		if(!canBeSolid(pos.north()) && !canBeSolid(pos.east())
-			&& !canBeSolid(pos.south()) && !canBeSolid(pos.west())
-			&& !canBeSolid(up.north()) && !canBeSolid(up.east())
-			&& !canBeSolid(up.south()) && !canBeSolid(up.west()))
+		if(!canBeSolid(x, y, z - 1) && !canBeSolid(x + 1, y, z)
+			&& !canBeSolid(x, y, z + 1) && !canBeSolid(x - 1, y, z)
+			&& !canBeSolid(x, y + 1, z - 1) && !canBeSolid(x + 1, y + 1, z)
+			&& !canBeSolid(x, y + 1, z + 1) && !canBeSolid(x - 1, y + 1, z))
 			return false;
 		
 		return true;
 	}
 	
-	private boolean canMoveSidewaysInMidairAt(BlockPos pos)
+	private boolean canMoveSidewaysInMidairAt(int x, int y, int z)
 	{
 		// check feet
-		Block blockFeet = BlockUtils.getBlock(pos);
-		if(BlockUtils.getBlock(pos) instanceof LiquidBlock
-			|| blockFeet instanceof LadderBlock
-			|| blockFeet instanceof VineBlock || blockFeet instanceof WebBlock)
+		if(has(x, y, z, LIQUID | CLIMBABLE | WEB))
 			return true;
 		
 		// check head
-		Block blockHead = BlockUtils.getBlock(pos.above());
-		if(BlockUtils.getBlock(pos.above()) instanceof LiquidBlock
-			|| blockHead instanceof WebBlock)
+		if(has(x, y + 1, z, LIQUID | WEB))
 			return true;
 		
 		return false;
 	}
 	
-	private float getCost(BlockPos current, BlockPos next)
+	private float getCost(long currentKey, long nextKey)
 	{
-		float[] costs = {0.5F, 0.5F};
-		BlockPos[] positions = {current, next};
-		
-		for(int i = 0; i < positions.length; i++)
-		{
-			BlockPos pos = positions[i];
-			Block block = BlockUtils.getBlock(pos);
-			
-			// liquids
-			if(block == Blocks.WATER && !abilities.noWaterSlowdown())
-				costs[i] *= 1.3164437838225804F;
-			else if(block == Blocks.LAVA)
-				costs[i] *= 4.539515393656079F;
-			
-			// soul sand
-			if(!canFlyAt(pos)
-				&& BlockUtils.getBlock(pos.below()) instanceof SoulSandBlock)
-				costs[i] *= 2.5F;
-			
-			// mining
-			if(isMineable(pos))
-				costs[i] *= 2F;
-			if(isMineable(pos.above()))
-				costs[i] *= 2F;
-		}
+		int currentX = getX(currentKey);
+		int currentZ = getZ(currentKey);
+		int nextX = getX(nextKey);
+		int nextZ = getZ(nextKey);
 		
-		float cost = costs[0] + costs[1];
+		float cost = getStepCost(currentX, getY(currentKey), currentZ)
+			+ getStepCost(nextX, getY(nextKey), nextZ);
 		
 		// diagonal movement
-		if(current.getX() != next.getX() && current.getZ() != next.getZ())
+		if(currentX != nextX && currentZ != nextZ)
 			cost *= 1.4142135623730951F;
 		
 		return cost;
 	}
 	
+	/**
+	 * Returns the cost of the half of a step that is spent in the given
+	 * position.
+	 */
+	private float getStepCost(int x, int y, int z)
+	{
+		float cost = 0.5F;
+		int properties = getProperties(x, y, z);
+		
+		// liquids
+		if((properties & WATER) != 0 && !abilities.noWaterSlowdown())
+			cost *= 1.3164437838225804F;
+		else if((properties & LAVA) != 0)
+			cost *= 4.539515393656079F;
+		
+		// soul sand
+		if(!canFlyAt(x, y, z) && has(x, y - 1, z, SOUL_SAND))
+			cost *= 2.5F;
+		
+		// mining
+		if((properties & MINEABLE) != 0)
+			cost *= 2F;
+		if(has(x, y + 1, z, MINEABLE))
+			cost *= 2F;
+		
+		return cost;
+	}
+	
 	private float getHeuristic(BlockPos pos)
 	{
-		float dx = Math.abs(pos.getX() - goal.getX());
-		float dy = Math.abs(pos.getY() - goal.getY());
-		float dz = Math.abs(pos.getZ() - goal.getZ());
+		return getHeuristic(pos.getX(), pos.getY(), pos.getZ());
+	}
+	
+	private float getHeuristic(long key)
+	{
+		return getHeuristic(getX(key), getY(key), getZ(key));
+	}
+	
+	private float getHeuristic(int x, int y, int z)
+	{
+		float dx = Math.abs(x - goal.getX());
+		float dy = Math.abs(y - goal.getY());
+		float dz = Math.abs(z - goal.getZ());
 		return 1.001F * (dx + dy + dz - 0.5857864376269049F * Math.min(dx, dz));
 	}
 	
@@ -488,6 +790,14 @@ public class PathFinder
 		return prevPosMap.size();
 	}
 	
+	/**
+	 * Returns how many positions have been taken out of the queue so far.
+	 */
+	public int countExpansions()
+	{
+		return iterations;
+	}
+	
 	public int getQueueSize()
 	{
 		return queue.size();
@@ -495,7 +805,8 @@ public class PathFinder
 	
 	public float getCost(BlockPos pos)
 	{
-		return costMap.get(pos);
+		boolean jumping = pos instanceof PathPos pathPos && pathPos.isJumping();
+		return costMap.get(key(pos, jumping));
 	}
 	
 	public boolean isDone()
@@ -516,28 +827,46 @@ public class PathFinder
 			throw new IllegalStateException("Path was already formatted!");
 		
 		// get last position
-		PathPos pos;
+		long key;
 		if(!failed)
-			pos = current;
+			key = key(current);
 		else
 		{
-			pos = start;
-			for(PathPos next : prevPosMap.keySet())
-				if(getHeuristic(next) < getHeuristic(pos)
-					&& (canFlyAt(next) || canBeSolid(next.below())))
-					pos = next;
+			key = key(start);
+			float heuristic = getHeuristic(start);
+			for(LongIterator itr = prevPosMap.keySet().iterator(); itr
+				.hasNext();)
+			{
+				long nextKey = itr.nextLong();
+				int x = getX(nextKey);
+				int y = getY(nextKey);
+				int z = getZ(nextKey);
+				float nextHeuristic = getHeuristic(x, y, z);
+				if(nextHeuristic < heuristic
+					&& (canFlyAt(x, y, z) || canBeSolid(x, y - 1, z)))
+				{
+					key = nextKey;
+					heuristic = nextHeuristic;
+				}
+			}
 		}
 		
 		// get positions
-		while(pos != null)
+		path.add(toPathPos(key));
+		while(prevPosMap.containsKey(key))
 		{
-			path.add(pos);
-			pos = prevPosMap.get(pos);
+			key = prevPosMap.get(key);
+			path.add(toPathPos(key));
 		}
 		
 		// reverse path
 		Collections.reverse(path);
 		
+		// isPathStillValid() needs to see blocks that change after the search
+		cachingProperties = false;
+		propertyCache.clear();
+		propertyCache.trim();
+		
 		return path;
 	}
 	
@@ -554,32 +883,36 @@ public class PathFinder
 		Vec3 regionOffset = region.negate().toVec3d();
 		RenderUtils.applyRegionalRenderOffset(matrixStack, region);
 		
-		if(debugMode)
+		// the queue and the processed positions are still being written to
+		// while an async search is running
+		if(debugMode && !searchingAsync)
 		{
 			int thingsRendered = 0;
 			
 			// queue (yellow)
-			for(PathPos element : queue.toArray())
+			for(long element : queue.toArray())
 			{
 				if(thingsRendered >= 5000)
 					break;
 				
-				AABB box = new AABB(element).move(regionOffset).deflate(0.4);
+				AABB box = new AABB(toPathPos(element)).move(regionOffset)
+					.deflate(0.4);
 				RenderUtils.drawNode(matrixStack, buffer, box, 0xC0FFFF00);
 				thingsRendered++;
 			}
 			
 			// processed (red or magenta)
-			for(Entry<PathPos, PathPos> entry : prevPosMap.entrySet())
+			for(Long2LongMap.Entry entry : prevPosMap.long2LongEntrySet())
 			{
 				if(thingsRendered >= 5000)
 					break;
 				
 				int color =
-					entry.getKey().isJumping() ? 0xC0FF00FF : 0xC0FF0000;
+					isJumping(entry.getLongKey()) ? 0xC0FF00FF : 0xC0FF0000;
 				
-				RenderUtils.drawArrow(matrixStack, buffer, entry.getValue(),
-					entry.getKey(), region, color);
+				RenderUtils.drawArrow(matrixStack, buffer,
+					toPathPos(entry.getLongValue()),
+					toPathPos(entry.getLongKey()), region, color);
 				thingsRendered++;
 			}
 		}
@@ -602,25 +935,48 @@ public class PathFinder
 		
 		// check player abilities
 		if(!abilities.equals(PlayerAbilities.get()))
+		{
+			invalidIndex = 0;
 			return false;
+		}
 		
 		// if index is zero, check if first pos is safe
 		if(index == 0)
 		{
 			PathPos pos = path.get(0);
-			if(!isPassable(pos) || !canFlyAt(pos) && !canGoThrough(pos.below())
-				&& !canSafelyStandOn(pos.below()))
+			int x = pos.getX();
+			int y = pos.getY();
+			int z = pos.getZ();
+			if(!isPassable(x, y, z) || !canFlyAt(x, y, z)
+				&& !canGoThrough(x, y - 1, z) && !canSafelyStandOn(x, y - 1, z))
+			{
+				invalidIndex = 0;
 				return false;
+			}
 		}
 		
 		// check path
 		for(int i = Math.max(1, index); i < path.size(); i++)
-			if(!getNeighbors(path.get(i - 1)).contains(path.get(i)))
+			if(!isNeighbor(path.get(i - 1), path.get(i)))
+			{
+				invalidIndex = i;
 				return false;
-			
+			}
+		
 		return true;
 	}
 	
+	private boolean isNeighbor(PathPos pos, PathPos next)
+	{
+		long nextKey = key(next);
+		int count = getNeighbors(key(pos), neighbors);
+		for(int i = 0; i < count; i++)
+			if(neighbors[i] == nextKey)
+				return true;
+			
+		return false;
+	}
+	
 	public PathProcessor getProcessor()
 	{
 		if(abilities.flying())
@@ -653,4 +1009,122 @@ public class PathFinder
 	{
 		return Collections.unmodifiableList(path);
 	}
+	
+	private boolean has(int x, int y, int z, int properties)
+	{
+		return (getProperties(x, y, z) & properties) != 0;
+	}
+	
+	private int getProperties(int x, int y, int z)
+	{
+		if(!cachingProperties)
+			return computeProperties(scratchPos.set(x, y, z));
+		
+		long key = BlockPos.asLong(x, y, z);
+		int properties = propertyCache.get(key);
+		if(properties == 0)
+		{
+			properties = computeProperties(scratchPos.set(x, y, z));
+			propertyCache.put(key, properties);
+		}
+		
+		return properties;
+	}
+	
+	@SuppressWarnings("deprecation")
+	private int computeProperties(BlockPos pos)
+	{
+		BlockState state = world.getBlockState(pos);
+		Block block = state.getBlock();
+		Fluid fluid = state.getFluidState().getType();
+		int properties = CACHED;
+		
+		boolean blocksMotion =
+			state.blocksMotion() && !(block instanceof SignBlock);
+		
+		if(blocksMotion || block instanceof LadderBlock || abilities.jesus()
+			&& (block == Blocks.WATER || block == Blocks.LAVA))
+			properties |= SOLID;
+		
+		// can't go through unloaded, solid, trapped or unsafe blocks
+		if(world.isLoaded(pos) && !blocksMotion
+			&& !(block instanceof TripWireBlock
+				|| block instanceof PressurePlateBlock)
+			&& (abilities.invulnerable()
+				|| block != Blocks.LAVA && !(block instanceof BaseFireBlock)))
+			properties |= PASSABLE;
+		
+		if(!abilities.invulnerable()
+			&& (block instanceof CactusBlock || fluid instanceof LavaFluid))
+			properties |= DANGEROUS;
+		
+		if(block instanceof FenceBlock || block instanceof WallBlock
+			|| block instanceof FenceGateBlock)
+			properties |= FENCE_LIKE;
+		
+		if(block == Blocks.WATER)
+			properties |= WATER;
+		else if(block == Blocks.LAVA)
+			properties |= LAVA;
+		
+		if(fluid instanceof WaterFluid)
+			properties |= WATER_FLUID;
+		if(block instanceof LiquidBlock)
+			properties |= LIQUID;
+		if(block instanceof LadderBlock || block instanceof VineBlock)
+			properties |= CLIMBABLE;
+		if(block instanceof WebBlock)
+			properties |= WEB;
+		if(block instanceof SoulSandBlock)
+			properties |= SOUL_SAND;
+		if(block instanceof SlimeBlock)
+			properties |= SLIME;
+		
+		if(isMineable(pos))
+			properties |= MINEABLE;
+		
+		return properties;
+	}
+	
+	private long key(PathPos pos)
+	{
+		return key(pos, pos.isJumping());
+	}
+	
+	private long key(BlockPos pos, boolean jumping)
+	{
+		return key(pos.getX(), pos.getY(), pos.getZ(), jumping);
+	}
+	
+	private long key(int x, int y, int z, boolean jumping)
+	{
+		return (long)(x - origin.getX() + KEY_OFFSET) << 43
+			| (long)(z - origin.getZ() + KEY_OFFSET) << 22
+			| (long)(y + KEY_OFFSET) << 1 | (jumping ? 1 : 0);
+	}
+	
+	private int getX(long key)
+	{
+		return (int)(key >>> 43 & KEY_MASK) - KEY_OFFSET + origin.getX();
+	}
+	
+	private static int getY(long key)
+	{
+		return (int)(key >>> 1 & KEY_MASK) - KEY_OFFSET;
+	}
+	
+	private int getZ(long key)
+	{
+		return (int)(key >>> 22 & KEY_MASK) - KEY_OFFSET + origin.getZ();
+	}
+	
+	private static boolean isJumping(long key)
+	{
+		return (key & 1) != 0;
+	}
+	
+	private PathPos toPathPos(long key)
+	{
+		return new PathPos(getX(key), getY(key), getZ(key), isJumping(key));
+	}
 }
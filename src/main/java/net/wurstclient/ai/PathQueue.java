@@ -7,60 +7,156 @@
  */
 package net.wurstclient.ai;
 
-import java.util.Comparator;
-import java.util.Iterator;
-import java.util.PriorityQueue;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
 
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+
+/**
+ * Binary min-heap of packed positions (see {@link PathFinder}) that keeps
+ * track of where each position is stored, so that a position which is already
+ * in the queue can have its priority lowered instead of being added again.
+ */
 public class PathQueue
 {
-	private final PriorityQueue<PathQueue.Entry> queue =
-		new PriorityQueue<>(Comparator.comparing(e1 -> e1.priority));
+	private long[] keys = new long[1024];
+	private float[] priorities = new float[1024];
+	private int size;
+	
+	private final Long2IntOpenHashMap indices = new Long2IntOpenHashMap();
 	
-	private static class Entry
+	public PathQueue()
 	{
-		private PathPos pos;
-		private float priority;
-		
-		public Entry(PathPos pos, float priority)
-		{
-			this.pos = pos;
-			this.priority = priority;
-		}
+		indices.defaultReturnValue(-1);
 	}
 	
 	public boolean isEmpty()
 	{
-		return queue.isEmpty();
+		return size == 0;
 	}
 	
-	public boolean add(PathPos pos, float priority)
+	/**
+	 * Adds the given position to the queue, or moves it up if it is already
+	 * in the queue with a higher priority.
+	 */
+	public void add(long key, float priority)
 	{
-		return queue.add(new Entry(pos, priority));
+		int index = indices.get(key);
+		if(index != -1)
+		{
+			if(priority < priorities[index])
+			{
+				priorities[index] = priority;
+				siftUp(index);
+			}
+			
+			return;
+		}
+		
+		if(size == keys.length)
+		{
+			keys = Arrays.copyOf(keys, size * 2);
+			priorities = Arrays.copyOf(priorities, size * 2);
+		}
+		
+		keys[size] = key;
+		priorities[size] = priority;
+		indices.put(key, size);
+		siftUp(size++);
 	}
 	
-	public PathPos[] toArray()
+	public long poll()
 	{
-		PathPos[] array = new PathPos[size()];
-		Iterator<Entry> itr = queue.iterator();
+		if(size == 0)
+			throw new NoSuchElementException();
+		
+		long key = keys[0];
+		indices.remove(key);
 		
-		for(int i = 0; i < size() && itr.hasNext(); i++)
-			array[i] = itr.next().pos;
+		size--;
+		if(size > 0)
+		{
+			move(size, 0);
+			siftDown(0);
+		}
 		
-		return array;
+		return key;
+	}
+	
+	public boolean contains(long key)
+	{
+		return indices.containsKey(key);
+	}
+	
+	/**
+	 * Returns the keys of all positions in the queue, in no particular order.
+	 */
+	public long[] toArray()
+	{
+		return Arrays.copyOf(keys, size);
 	}
 	
 	public int size()
 	{
-		return queue.size();
+		return size;
 	}
 	
 	public void clear()
 	{
-		queue.clear();
+		size = 0;
+		indices.clear();
+	}
+	
+	private void siftUp(int index)
+	{
+		long key = keys[index];
+		float priority = priorities[index];
+		
+		while(index > 0)
+		{
+			int parent = (index - 1) >>> 1;
+			if(priorities[parent] <= priority)
+				break;
+			
+			move(parent, index);
+			index = parent;
+		}
+		
+		set(index, key, priority);
+	}
+	
+	private void siftDown(int index)
+	{
+		long key = keys[index];
+		float priority = priorities[index];
+		
+		int half = size >>> 1;
+		while(index < half)
+		{
+			int child = 2 * index + 1;
+			int right = child + 1;
+			if(right < size && priorities[right] < priorities[child])
+				child = right;
+			
+			if(priority <= priorities[child])
+				break;
+			
+			move(child, index);
+			index = child;
+		}
+		
+		set(index, key, priority);
+	}
+	
+	private void move(int from, int to)
+	{
+		set(to, keys[from], priorities[from]);
 	}
 	
-	public PathPos poll()
+	private void set(int index, long key, float priority)
 	{
-		return queue.poll().pos;
+		keys[index] = key;
+		priorities[index] = priority;
+		indices.put(key, index);
 	}
 }
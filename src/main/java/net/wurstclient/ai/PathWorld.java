@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2014-2025 Wurst-Imperium and contributors.
+ *
+ * This source code is subject to the terms of the GNU General Public
+ * License, version 3. If a copy of the GPL was not distributed with this
+ * file, You can obtain one at: https://www.gnu.org/licenses/gpl-3.0.txt
+ */
+package net.wurstclient.ai;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.block.state.BlockState;
+import net.wurstclient.WurstClient;
+
+/**
+ * The blocks that a {@link PathFinder} searches through. This is either the
+ * live client world or a {@link WorldSnapshot} that can be read from a
+ * background thread.
+ */
+public interface PathWorld
+{
+	/**
+	 * Reads directly from {@code MC.level}. Only safe to use on the client
+	 * thread.
+	 */
+	public static final PathWorld LIVE = new PathWorld()
+	{
+		private static final Minecraft MC = WurstClient.MC;
+		
+		@Override
+		public BlockState getBlockState(BlockPos pos)
+		{
+			return MC.level.getBlockState(pos);
+		}
+		
+		@SuppressWarnings("deprecation")
+		@Override
+		public boolean isLoaded(BlockPos pos)
+		{
+			// Can't see why isChunkLoaded() is deprecated. Still seems to be
+			// widely used with no replacement.
+			return MC.level.hasChunkAt(pos);
+		}
+		
+		@Override
+		public int getMinY()
+		{
+			return MC.level.getMinY();
+		}
+		
+		@Override
+		public int getMaxY()
+		{
+			return MC.level.getMaxY();
+		}
+	};
+	
+	public BlockState getBlockState(BlockPos pos);
+	
+	public boolean isLoaded(BlockPos pos);
+	
+	public int getMinY();
+	
+	public int getMaxY();
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2014-2025 Wurst-Imperium and contributors.
+ *
+ * This source code is subject to the terms of the GNU General Public
+ * License, version 3. If a copy of the GPL was not distributed with this
+ * file, You can obtain one at: https://www.gnu.org/licenses/gpl-3.0.txt
+ */
+package net.wurstclient.ai;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.client.multiplayer.ClientLevel;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.chunk.PalettedContainer;
+
+/**
+ * An immutable copy of the block states in a rectangle of loaded chunks, so
+ * that a {@link PathFinder} can search through them on a background thread.
+ * Fluid states are not copied separately, since they are part of the block
+ * states.
+ *
+ * <p>
+ * Chunks outside of the rectangle, or that weren't loaded when the snapshot
+ * was taken, count as not loaded.
+ */
+public final class WorldSnapshot implements PathWorld
+{
+	private static final BlockState AIR = Blocks.AIR.defaultBlockState();
+	private static final BlockState VOID_AIR =
+		Blocks.VOID_AIR.defaultBlockState();
+	
+	private final Long2ObjectOpenHashMap<PalettedContainer<BlockState>[]> chunks =
+		new Long2ObjectOpenHashMap<>();
+	private final int minY;
+	private final int maxY;
+	private final int minSectionY;
+	
+	private WorldSnapshot(ClientLevel level)
+	{
+		minY = level.getMinY();
+		maxY = level.getMaxY();
+		minSectionY = level.getMinSectionY();
+	}
+	
+	/**
+	 * Copies all loaded chunks between the given chunk coordinates
+	 * (inclusive). Must be called from the client thread.
+	 */
+	public static WorldSnapshot capture(ClientLevel level, int minChunkX,
+		int minChunkZ, int maxChunkX, int maxChunkZ)
+	{
+		WorldSnapshot snapshot = new WorldSnapshot(level);
+		
+		for(int x = minChunkX; x <= maxChunkX; x++)
+			for(int z = minChunkZ; z <= maxChunkZ; z++)
+			{
+				if(!level.hasChunk(x, z))
+					continue;
+				
+				LevelChunk chunk = level.getChunk(x, z);
+				snapshot.chunks.put(ChunkPos.asLong(x, z), copyStates(chunk));
+			}
+		
+		return snapshot;
+	}
+	
+	private static PalettedContainer<BlockState>[] copyStates(LevelChunk chunk)
+	{
+		LevelChunkSection[] sections = chunk.getSections();
+		
+		@SuppressWarnings("unchecked")
+		PalettedContainer<BlockState>[] states =
+			new PalettedContainer[sections.length];
+		
+		// empty sections stay null and are read as air
+		for(int i = 0; i < sections.length; i++)
+			if(!sections[i].hasOnlyAir())
+				states[i] = sections[i].getStates().copy();
+			
+		return states;
+	}
+	
+	@Override
+	public BlockState getBlockState(BlockPos pos)
+	{
+		int y = pos.getY();
+		if(y < minY || y > maxY)
+			return VOID_AIR;
+		
+		PalettedContainer<BlockState>[] states =
+			chunks.get(ChunkPos.asLong(SectionPos.blockToSectionCoord(
+				pos.getX()), SectionPos.blockToSectionCoord(pos.getZ())));
+		if(states == null)
+			return VOID_AIR;
+		
+		PalettedContainer<BlockState> section =
+			states[SectionPos.blockToSectionCoord(y) - minSectionY];
+		if(section == null)
+			return AIR;
+		
+		return section.get(pos.getX() & 15, y & 15, pos.getZ() & 15);
+	}
+	
+	@Override
+	public boolean isLoaded(BlockPos pos)
+	{
+		return chunks.containsKey(
+			ChunkPos.asLong(SectionPos.blockToSectionCoord(pos.getX()),
+				SectionPos.blockToSectionCoord(pos.getZ())));
+	}
+	
+	@Override
+	public int getMinY()
+	{
+		return minY;
+	}
+	
+	@Override
+	public int getMaxY()
+	{
+		return maxY;
+	}
+}
@@ -12,8 +12,7 @@ import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Executor;
 
 import com.mojang.authlib.GameProfile;
 import com.mojang.authlib.yggdrasil.ProfileResult;
@@ -28,12 +27,10 @@ import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.entity.player.PlayerModelType;
 import net.minecraft.world.entity.player.PlayerSkin;
 import net.wurstclient.WurstClient;
+import net.wurstclient.util.TaskScheduler.Priority;
 
 public final class AltRenderer
 {
-	private static final ExecutorService BACKGROUND_THREAD =
-		Executors.newSingleThreadExecutor();
-	
 	private static final ConcurrentHashMap<String, ResourceLocation> onlineSkins =
 		new ConcurrentHashMap<>();
 	
@@ -69,6 +66,8 @@ public final class AltRenderer
 	private static void queueOnlineSkinLoading(String name)
 	{
 		Minecraft mc = WurstClient.MC;
+		Executor executor =
+			WurstClient.INSTANCE.getTaskScheduler().getExecutor(Priority.IO);
 		
 		CompletableFuture.supplyAsync(() -> {
 			
@@ -78,7 +77,7 @@ public final class AltRenderer
 			
 			return result == null ? null : result.profile();
 			
-		}, BACKGROUND_THREAD).thenComposeAsync(profile -> {
+		}, executor).thenComposeAsync(profile -> {
 			
 			if(profile == null)
 				return CompletableFuture.completedFuture(null);
@@ -88,12 +87,12 @@ public final class AltRenderer
 			
 			return skinFuture.thenApplyAsync(opt -> opt.orElse(null));
 			
-		}, BACKGROUND_THREAD).thenAcceptAsync(skinTextures -> {
+		}, executor).thenAcceptAsync(skinTextures -> {
 			
 			if(skinTextures != null)
 				onlineSkins.put(name, skinTextures.body().texturePath());
 			
-		}, BACKGROUND_THREAD);
+		}, executor);
 	}
 	
 	public static void drawAltFace(GuiGraphics context, String name, int x,
@@ -8,12 +8,15 @@
 package net.wurstclient.commands;
 
 import java.util.Comparator;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.StreamSupport;
 
 import com.mojang.blaze3d.vertex.PoseStack;
 
 import net.minecraft.core.BlockPos;
 import net.minecraft.world.entity.LivingEntity;
+import net.wurstclient.ai.ChunkPortalGraph;
+import net.wurstclient.ai.HierarchicalPlanner;
 import net.wurstclient.ai.PathFinder;
 import net.wurstclient.ai.PathProcessor;
 import net.wurstclient.command.CmdError;
@@ -29,7 +32,10 @@ import net.wurstclient.util.MathUtils;
 public final class GoToCmd extends Command
 	implements UpdateListener, RenderListener
 {
+	private final ChunkPortalGraph portalGraph = new ChunkPortalGraph();
+	private HierarchicalPlanner planner;
 	private PathFinder pathFinder;
+	private CompletableFuture<PathProcessor> pathFuture;
 	private PathProcessor processor;
 	private boolean enabled;
 	
@@ -53,17 +59,17 @@ public final class GoToCmd extends Command
 		}
 		
 		// set PathFinder
+		BlockPos goal;
 		if(args.length == 1 && args[0].equals("-path"))
 		{
-			BlockPos goal = WURST.getCmds().pathCmd.getLastGoal();
+			goal = WURST.getCmds().pathCmd.getLastGoal();
 			if(goal == null)
 				throw new CmdError("No previous position on .path.");
-			pathFinder = new PathFinder(goal);
 		}else
-		{
-			BlockPos goal = argsToPos(args);
-			pathFinder = new PathFinder(goal);
-		}
+			goal = argsToPos(args);
+		
+		planner = new HierarchicalPlanner(portalGraph, goal);
+		planNextLeg();
 		
 		// start
 		enabled = true;
@@ -71,6 +77,21 @@ public final class GoToCmd extends Command
 		EVENTS.add(RenderListener.class, this);
 	}
 	
+	private void planNextLeg()
+	{
+		planner.planNextLeg();
+		pathFinder = null;
+		pathFuture = null;
+		processor = null;
+	}
+	
+	private void findPath(BlockPos goal)
+	{
+		pathFinder = new PathFinder(goal);
+		pathFuture = pathFinder.findPathAsync();
+		processor = null;
+	}
+	
 	private BlockPos argsToPos(String... args) throws CmdException
 	{
 		switch(args.length)
@@ -127,51 +148,76 @@ public final class GoToCmd extends Command
 	@Override
 	public void onUpdate()
 	{
-		// find path
-		if(!pathFinder.isDone())
+		// wait for the next leg to be planned
+		if(pathFinder == null)
 		{
 			PathProcessor.lockControls();
 			
-			pathFinder.think();
+			if(!planner.update())
+				return;
 			
-			if(!pathFinder.isDone())
+			BlockPos legGoal = planner.getLegGoal();
+			if(legGoal == null)
 			{
-				if(pathFinder.isFailed())
-				{
-					ChatUtils.error("Could not find a path.");
-					disable();
-				}
-				
+				ChatUtils.error("Could not find a path.");
+				disable();
 				return;
 			}
 			
-			pathFinder.formatPath();
+			findPath(legGoal);
+		}
+		
+		// wait for path
+		if(processor == null)
+		{
+			PathProcessor.lockControls();
+			
+			if(!pathFuture.isDone())
+				return;
+			
+			if(pathFuture.isCompletedExceptionally() || !pathFinder.isDone())
+			{
+				ChatUtils.error("Could not find a path.");
+				disable();
+				return;
+			}
 			
 			// set processor
-			processor = pathFinder.getProcessor();
+			processor = pathFuture.join();
 			
 			System.out.println("Done");
 		}
 		
 		// check path
-		if(processor != null
-			&& !pathFinder.isPathStillValid(processor.getIndex()))
+		if(!pathFinder.isPathStillValid(processor.getIndex()))
 		{
 			System.out.println("Updating path...");
-			pathFinder = new PathFinder(pathFinder.getGoal());
+			findPath(pathFinder.getGoal());
 			return;
 		}
 		
 		// process path
 		processor.process();
 		
-		if(processor.isDone())
+		if(!processor.isDone())
+			return;
+		
+		if(planner.isFinalLeg())
+		{
 			disable();
+			return;
+		}
+		
+		// start next leg
+		planNextLeg();
 	}
 	
 	@Override
 	public void onRender(PoseStack matrixStack, float partialTicks)
 	{
+		if(pathFinder == null)
+			return;
+		
 		PathCmd pathCmd = WURST.getCmds().pathCmd;
 		pathFinder.renderPath(matrixStack, pathCmd.isDebugMode(),
 			pathCmd.isDepthTest());
@@ -182,7 +228,12 @@ public final class GoToCmd extends Command
 		EVENTS.remove(UpdateListener.class, this);
 		EVENTS.remove(RenderListener.class, this);
 		
+		if(pathFinder != null)
+			pathFinder.cancel();
+		
+		planner = null;
 		pathFinder = null;
+		pathFuture = null;
 		processor = null;
 		PathProcessor.releaseControls();
 		
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2014-2025 Wurst-Imperium and contributors.
+ *
+ * This source code is subject to the terms of the GNU General Public
+ * License, version 3. If a copy of the GPL was not distributed with this
+ * file, You can obtain one at: https://www.gnu.org/licenses/gpl-3.0.txt
+ */
+package net.wurstclient.commands;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+import net.wurstclient.DontBlock;
+import net.wurstclient.command.CmdError;
+import net.wurstclient.command.CmdException;
+import net.wurstclient.command.CmdSyntaxError;
+import net.wurstclient.command.Command;
+import net.wurstclient.event.EventProfiler;
+import net.wurstclient.event.EventProfiler.Entry;
+import net.wurstclient.hud.EventProfilerHUD;
+import net.wurstclient.util.ChatUtils;
+import net.wurstclient.util.MathUtils;
+import net.wurstclient.util.TaskScheduler;
+import net.wurstclient.util.TaskScheduler.Priority;
+import net.wurstclient.util.TaskScheduler.Stats;
+import net.wurstclient.util.json.JsonException;
+import net.wurstclient.util.json.JsonUtils;
+
+@DontBlock
+public final class ProfilerCmd extends Command
+{
+	private static final int DEFAULT_DUMP_LINES = 10;
+	
+	// whether hiding the HUD should also stop the profiler, i.e. it wasn't
+	// running yet when the HUD was shown
+	private boolean startedByHud;
+	
+	public ProfilerCmd()
+	{
+		super("profiler",
+			"Measures how much time each hack spends handling each event.\n"
+				+ "Useful for finding out which hack slows down your game.",
+			".profiler start", ".profiler stop", ".profiler reset",
+			".profiler dump [<lines>]", ".profiler hud", ".profiler tasks",
+			"Dumps are also saved to '.minecraft/wurst/event-profiler.json'.",
+			"Tasks shows the queues of Wurst's background threads.");
+	}
+	
+	@Override
+	public void call(String[] args) throws CmdException
+	{
+		if(args.length < 1 || args.length > 2)
+			throw new CmdSyntaxError();
+		
+		EventProfiler profiler = WURST.getEventManager().getProfiler();
+		
+		switch(args[0].toLowerCase())
+		{
+			case "start":
+			startedByHud = false;
+			profiler.start();
+			ChatUtils.message("Event profiler started.");
+			break;
+			
+			case "stop":
+			startedByHud = false;
+			profiler.stop();
+			ChatUtils.message("Event profiler stopped.");
+			break;
+			
+			case "reset":
+			profiler.reset();
+			ChatUtils.message("Event profiler reset.");
+			break;
+			
+			case "dump":
+			dump(profiler, args);
+			break;
+			
+			case "hud":
+			toggleHud(profiler);
+			break;
+			
+			case "tasks":
+			showTasks();
+			break;
+			
+			default:
+			throw new CmdSyntaxError();
+		}
+	}
+	
+	private void dump(EventProfiler profiler, String[] args)
+		throws CmdException
+	{
+		int maxLines = parseLines(args);
+		ArrayList<Entry> entries = profiler.getEntries();
+		if(entries.isEmpty())
+			throw new CmdError(
+				"Nothing recorded yet. Use \".profiler start\" first.");
+		
+		double seconds = Math.max(profiler.getRunningTime() / 1e9, 1e-3);
+		ChatUtils.message(String.format(
+			"Slowest listeners over %.1fs (total ms, ms/s, p99 us):",
+			seconds));
+		
+		for(Entry e : entries.subList(0, Math.min(maxLines, entries.size())))
+			ChatUtils.message(String.format("%s -> %s: %.1f, %.2f, %.0f",
+				e.getTypeName(), e.getListenerName(), e.totalNanos() / 1e6,
+				e.totalNanos() / 1e6 / seconds, e.p99Nanos() / 1e3));
+		
+		Path path = WURST.getWurstFolder().resolve("event-profiler.json");
+		try
+		{
+			JsonUtils.toJson(profiler.toJson(), path);
+			ChatUtils.message("Saved to " + path.getFileName() + ".");
+			
+		}catch(IOException | JsonException e)
+		{
+			e.printStackTrace();
+			throw new CmdError("Couldn't save dump: " + e.getMessage());
+		}
+	}
+	
+	private void toggleHud(EventProfiler profiler)
+	{
+		EventProfilerHUD hud = WURST.getHud().getProfilerHud();
+		hud.setVisible(!hud.isVisible());
+		
+		if(hud.isVisible())
+		{
+			if(!profiler.isRunning())
+			{
+				profiler.start();
+				startedByHud = true;
+			}
+			
+		}else if(startedByHud)
+		{
+			// otherwise every event keeps going through the profiling path
+			profiler.stop();
+			startedByHud = false;
+		}
+	}
+	
+	private void showTasks()
+	{
+		TaskScheduler scheduler = WURST.getTaskScheduler();
+		ChatUtils.message(String.format(
+			"Background tasks (%d CPU + %d I/O workers):",
+			scheduler.getCpuWorkers(), scheduler.getIoWorkers()));
+		ChatUtils.message("queued, running, done, cancelled, failed,"
+			+ " avg/max wait ms, avg run ms");
+		
+		for(Priority priority : Priority.values())
+		{
+			Stats stats = scheduler.getStats(priority);
+			ChatUtils.message(String.format(
+				"%s: %d, %d, %d, %d, %d, %.1f/%.1f, %.1f", priority,
+				stats.getQueued(), stats.getRunning(), stats.getCompleted(),
+				stats.getCancelled(), stats.getFailed(),
+				stats.getAverageWaitMillis(), stats.getMaxWaitMillis(),
+				stats.getAverageRunMillis()));
+		}
+	}
+	
+	private int parseLines(String[] args) throws CmdSyntaxError
+	{
+		if(args.length < 2)
+			return DEFAULT_DUMP_LINES;
+		
+		if(!MathUtils.isInteger(args[1]))
+			throw new CmdSyntaxError("Not a number: " + args[1]);
+		
+		int lines = Integer.parseInt(args[1]);
+		if(lines < 1)
+			throw new CmdSyntaxError("Must be at least 1: " + lines);
+		
+		return lines;
+	}
+}
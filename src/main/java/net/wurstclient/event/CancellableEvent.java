@@ -20,4 +20,13 @@ public abstract class CancellableEvent<T extends Listener> extends Event<T>
 	{
 		return cancelled;
 	}
+	
+	/**
+	 * Un-cancels this event so that it can be fired again. Only meant for
+	 * events that reuse their instances.
+	 */
+	protected void resetCancelled()
+	{
+		cancelled = false;
+	}
 }
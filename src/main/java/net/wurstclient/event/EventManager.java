@@ -8,20 +8,34 @@
 package net.wurstclient.event;
 
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 import net.minecraft.CrashReport;
 import net.minecraft.CrashReportCategory;
 import net.minecraft.ReportedException;
 import net.wurstclient.WurstClient;
 
+/**
+ * Keeps track of all event listeners and fires events to them.
+ *
+ * <p>
+ * The listeners of each type are stored as a copy-on-write snapshot. Adding
+ * or removing a listener replaces the snapshot with a modified copy, while
+ * firing an event just hands the current snapshot to the event, without
+ * copying or locking anything. This makes firing events cheap, which matters
+ * because some of them are fired thousands of times per frame, and it means
+ * that listeners can safely add or remove themselves (or each other) while an
+ * event is being fired, from any thread.
+ */
 public final class EventManager
 {
 	private final WurstClient wurst;
-	private final HashMap<Class<? extends Listener>, ArrayList<? extends Listener>> listenerMap =
-		new HashMap<>();
+	
+	// Snapshots in this map must never be modified after they are put in.
+	private final ConcurrentHashMap<Class<? extends Listener>, ArrayList<? extends Listener>> listenerMap =
+		new ConcurrentHashMap<>();
+	private final Object lock = new Object();
+	private final EventProfiler profiler = new EventProfiler();
 	
 	public EventManager(WurstClient wurst)
 	{
@@ -53,20 +67,13 @@ public final class EventManager
 			@SuppressWarnings("unchecked")
 			ArrayList<L> listeners = (ArrayList<L>)listenerMap.get(type);
 			
-			if(listeners == null || listeners.isEmpty())
+			if(listeners == null)
 				return;
-				
-			// Creating a copy of the list to avoid concurrent modification
-			// issues.
-			ArrayList<L> listeners2 = new ArrayList<>(listeners);
-			
-			// remove() sets an element to null before removing it. When one
-			// thread calls remove() while another calls fire(), it is possible
-			// for this list to contain null elements, which need to be filtered
-			// out.
-			listeners2.removeIf(Objects::isNull);
 			
-			event.fire(listeners2);
+			if(profiler.isRunning())
+				profiler.fire(event, listeners);
+			else
+				event.fire(listeners);
 			
 		}catch(Throwable e)
 		{
@@ -81,22 +88,46 @@ public final class EventManager
 		}
 	}
 	
+	public EventProfiler getProfiler()
+	{
+		return profiler;
+	}
+	
+	/**
+	 * Returns true if Wurst is enabled and the given listener is the only one
+	 * registered for the given type. This allows code that runs very often to
+	 * call that listener directly instead of creating and firing an event.
+	 * Always returns false while the {@link EventProfiler} is running, so that
+	 * such calls still show up in its stats.
+	 */
+	public <L extends Listener> boolean isOnlyListener(Class<L> type,
+		L listener)
+	{
+		if(!wurst.isEnabled() || profiler.isRunning())
+			return false;
+		
+		ArrayList<? extends Listener> listeners = listenerMap.get(type);
+		return listeners != null && listeners.size() == 1
+			&& listeners.get(0) == listener;
+	}
+	
 	public <L extends Listener> void add(Class<L> type, L listener)
 	{
 		try
 		{
-			@SuppressWarnings("unchecked")
-			ArrayList<L> listeners = (ArrayList<L>)listenerMap.get(type);
-			
-			if(listeners == null)
+			synchronized(lock)
 			{
-				listeners = new ArrayList<>(Arrays.asList(listener));
-				listenerMap.put(type, listeners);
-				return;
+				@SuppressWarnings("unchecked")
+				ArrayList<L> listeners = (ArrayList<L>)listenerMap.get(type);
+				
+				ArrayList<L> newListeners = new ArrayList<>();
+				if(listeners != null)
+					newListeners.addAll(listeners);
+				
+				newListeners.add(listener);
+				listenerMap.put(type, newListeners);
 			}
 			
-			listeners.add(listener);
-			
 		}catch(Throwable e)
 		{
 			e.printStackTrace();
@@ -117,11 +148,22 @@ public final class EventManager
 	{
 		try
 		{
-			@SuppressWarnings("unchecked")
-			ArrayList<L> listeners = (ArrayList<L>)listenerMap.get(type);
-			
-			if(listeners != null)
-				listeners.remove(listener);
+			synchronized(lock)
+			{
+				@SuppressWarnings("unchecked")
+				ArrayList<L> listeners = (ArrayList<L>)listenerMap.get(type);
+				
+				if(listeners == null || !listeners.contains(listener))
+					return;
+				
+				ArrayList<L> newListeners = new ArrayList<>(listeners);
+				newListeners.remove(listener);
+				
+				if(newListeners.isEmpty())
+					listenerMap.remove(type);
+				else
+					listenerMap.put(type, newListeners);
+			}
 			
 		}catch(Throwable e)
 		{
@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2014-2025 Wurst-Imperium and contributors.
+ *
+ * This source code is subject to the terms of the GNU General Public
+ * License, version 3. If a copy of the GPL was not distributed with this
+ * file, You can obtain one at: https://www.gnu.org/licenses/gpl-3.0.txt
+ */
+package net.wurstclient.event;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+/**
+ * Measures how much time each listener spends handling each type of event.
+ *
+ * <p>
+ * While the profiler is stopped, the only cost is one volatile read per fired
+ * event. While it is running, events are handed to one listener at a time so
+ * that each listener can be timed on its own.
+ */
+public final class EventProfiler
+{
+	private final ConcurrentHashMap<Class<? extends Listener>, TypeStats> stats =
+		new ConcurrentHashMap<>();
+	
+	private volatile boolean running;
+	private long startTime;
+	private long runningTime;
+	
+	public boolean isRunning()
+	{
+		return running;
+	}
+	
+	public synchronized void start()
+	{
+		if(running)
+			return;
+		
+		startTime = System.nanoTime();
+		running = true;
+	}
+	
+	public synchronized void stop()
+	{
+		if(!running)
+			return;
+		
+		running = false;
+		runningTime += System.nanoTime() - startTime;
+	}
+	
+	public synchronized void reset()
+	{
+		stats.clear();
+		runningTime = 0;
+		startTime = System.nanoTime();
+	}
+	
+	/**
+	 * Returns for how many nanoseconds the profiler has been running since
+	 * the last reset.
+	 */
+	public synchronized long getRunningTime()
+	{
+		if(running)
+			return runningTime + System.nanoTime() - startTime;
+		
+		return runningTime;
+	}
+	
+	<L extends Listener> void fire(Event<L> event, ArrayList<L> listeners)
+	{
+		TypeStats typeStats = stats.computeIfAbsent(event.getListenerType(),
+			type -> new TypeStats());
+		
+		ArrayList<L> single = new ArrayList<>(1);
+		single.add(null);
+		
+		long fireStart = System.nanoTime();
+		for(L listener : listeners)
+		{
+			single.set(0, listener);
+			
+			long start = System.nanoTime();
+			event.fire(single);
+			long time = System.nanoTime() - start;
+			
+			typeStats.listeners
+				.computeIfAbsent(listener.getClass(), c -> new Stats())
+				.record(time);
+			
+			if(event instanceof CancellableEvent<?> cancellable
+				&& cancellable.isCancelled())
+				break;
+		}
+		
+		typeStats.total.record(System.nanoTime() - fireStart);
+	}
+	
+	/**
+	 * Returns the stats of every listener for every event type, sorted by
+	 * total time, slowest first.
+	 */
+	public ArrayList<Entry> getEntries()
+	{
+		ArrayList<Entry> entries = new ArrayList<>();
+		for(Map.Entry<Class<? extends Listener>, TypeStats> type : stats
+			.entrySet())
+			for(Map.Entry<Class<?>, Stats> listener : type.getValue().listeners
+				.entrySet())
+				entries.add(listener.getValue().toEntry(type.getKey(),
+					listener.getKey()));
+		
+		entries.sort(Comparator.comparingLong(Entry::totalNanos).reversed());
+		return entries;
+	}
+	
+	public JsonObject toJson()
+	{
+		JsonObject json = new JsonObject();
+		json.addProperty("running_time_ms", getRunningTime() / 1e6);
+		
+		JsonObject events = new JsonObject();
+		for(Map.Entry<Class<? extends Listener>, TypeStats> type : stats
+			.entrySet())
+		{
+			JsonObject typeJson =
+				type.getValue().total.toEntry(type.getKey(), null).toJson();
+			
+			JsonArray listeners = new JsonArray();
+			for(Map.Entry<Class<?>, Stats> listener : type.getValue().listeners
+				.entrySet())
+				listeners.add(listener.getValue()
+					.toEntry(type.getKey(), listener.getKey()).toJson());
+			
+			typeJson.add("listeners", listeners);
+			events.add(type.getKey().getName(), typeJson);
+		}
+		
+		json.add("events", events);
+		return json;
+	}
+	
+	public static record Entry(Class<? extends Listener> type,
+		Class<?> listener, long count, long totalNanos, long maxNanos,
+		long p50Nanos, long p95Nanos, long p99Nanos)
+	{
+		public String getTypeName()
+		{
+			return type.getSimpleName();
+		}
+		
+		public String getListenerName()
+		{
+			String name = listener.getSimpleName();
+			return name.isEmpty() ? listener.getName() : name;
+		}
+		
+		public JsonObject toJson()
+		{
+			JsonObject json = new JsonObject();
+			if(listener != null)
+				json.addProperty("listener", listener.getName());
+			json.addProperty("count", count);
+			json.addProperty("total_ms", totalNanos / 1e6);
+			json.addProperty("max_us", maxNanos / 1e3);
+			json.addProperty("p50_us", p50Nanos / 1e3);
+			json.addProperty("p95_us", p95Nanos / 1e3);
+			json.addProperty("p99_us", p99Nanos / 1e3);
+			return json;
+		}
+	}
+	
+	private static final class TypeStats
+	{
+		private final Stats total = new Stats();
+		private final ConcurrentHashMap<Class<?>, Stats> listeners =
+			new ConcurrentHashMap<>();
+	}
+	
+	private static final class Stats
+	{
+		// percentiles are calculated from the most recent samples only
+		private final long[] samples = new long[1024];
+		private long count;
+		private long totalNanos;
+		private long maxNanos;
+		
+		private synchronized void record(long nanos)
+		{
+			samples[(int)(count % samples.length)] = nanos;
+			count++;
+			totalNanos += nanos;
+			maxNanos = Math.max(maxNanos, nanos);
+		}
+		
+		private synchronized Entry toEntry(Class<? extends Listener> type,
+			Class<?> listener)
+		{
+			long[] sorted =
+				Arrays.copyOf(samples, (int)Math.min(count, samples.length));
+			Arrays.sort(sorted);
+			
+			return new Entry(type, listener, count, totalNanos, maxNanos,
+				percentile(sorted, 0.5), percentile(sorted, 0.95),
+				percentile(sorted, 0.99));
+		}
+		
+		private static long percentile(long[] sorted, double p)
+		{
+			if(sorted.length == 0)
+				return 0;
+			
+			return sorted[(int)Math.ceil(p * sorted.length) - 1];
+		}
+	}
+}
@@ -21,12 +21,35 @@ public interface GetAmbientOcclusionLightLevelListener extends Listener
 	public static class GetAmbientOcclusionLightLevelEvent
 		extends Event<GetAmbientOcclusionLightLevelListener>
 	{
-		private final BlockState state;
+		private static final ThreadLocal<GetAmbientOcclusionLightLevelEvent> INSTANCES =
+			ThreadLocal.withInitial(
+				() -> new GetAmbientOcclusionLightLevelEvent(null, 0));
+		
+		private BlockState state;
 		private float lightLevel;
-		private final float defaultLightLevel;
+		private float defaultLightLevel;
 		
 		public GetAmbientOcclusionLightLevelEvent(BlockState state,
 			float lightLevel)
+		{
+			set(state, lightLevel);
+		}
+		
+		/**
+		 * Returns the current thread's reusable instance of this event, set
+		 * up with the given values. This event is fired for every block during
+		 * chunk rebuilds, so creating a new one every time would produce a lot
+		 * of garbage.
+		 */
+		public static GetAmbientOcclusionLightLevelEvent reuse(
+			BlockState state, float lightLevel)
+		{
+			GetAmbientOcclusionLightLevelEvent event = INSTANCES.get();
+			event.set(state, lightLevel);
+			return event;
+		}
+		
+		private void set(BlockState state, float lightLevel)
 		{
 			this.state = state;
 			this.lightLevel = lightLevel;
@@ -19,6 +19,21 @@ public interface IsNormalCubeListener extends Listener
 	public static class IsNormalCubeEvent
 		extends CancellableEvent<IsNormalCubeListener>
 	{
+		private static final ThreadLocal<IsNormalCubeEvent> INSTANCES =
+			ThreadLocal.withInitial(IsNormalCubeEvent::new);
+		
+		/**
+		 * Returns the current thread's reusable instance of this event, which
+		 * is fired so often during chunk rebuilds that creating a new one
+		 * every time would produce a lot of garbage.
+		 */
+		public static IsNormalCubeEvent reuse()
+		{
+			IsNormalCubeEvent event = INSTANCES.get();
+			event.resetCancelled();
+			return event;
+		}
+		
 		@Override
 		public void fire(ArrayList<IsNormalCubeListener> listeners)
 		{
@@ -19,6 +19,21 @@ public interface SetOpaqueCubeListener extends Listener
 	public static class SetOpaqueCubeEvent
 		extends CancellableEvent<SetOpaqueCubeListener>
 	{
+		private static final ThreadLocal<SetOpaqueCubeEvent> INSTANCES =
+			ThreadLocal.withInitial(SetOpaqueCubeEvent::new);
+		
+		/**
+		 * Returns the current thread's reusable instance of this event, which
+		 * is fired so often during chunk rebuilds that creating a new one
+		 * every time would produce a lot of garbage.
+		 */
+		public static SetOpaqueCubeEvent reuse()
+		{
+			SetOpaqueCubeEvent event = INSTANCES.get();
+			event.resetCancelled();
+			return event;
+		}
+		
 		@Override
 		public void fire(ArrayList<SetOpaqueCubeListener> listeners)
 		{
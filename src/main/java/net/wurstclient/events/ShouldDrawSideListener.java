@@ -22,14 +22,39 @@ public interface ShouldDrawSideListener extends Listener
 	public static class ShouldDrawSideEvent
 		extends Event<ShouldDrawSideListener>
 	{
-		private final BlockState state;
-		private final BlockPos pos;
+		private static final ThreadLocal<ShouldDrawSideEvent> INSTANCES =
+			ThreadLocal.withInitial(ShouldDrawSideEvent::new);
+		
+		private BlockState state;
+		private BlockPos pos;
 		private Boolean rendered; // null if unchanged
 		
 		public ShouldDrawSideEvent(BlockState state, BlockPos pos)
+		{
+			set(state, pos);
+		}
+		
+		private ShouldDrawSideEvent()
+		{}
+		
+		/**
+		 * Returns the current thread's reusable instance of this event, set
+		 * up with the given values. This event is fired for every block face
+		 * during chunk rebuilds, so creating a new one every time would
+		 * produce a lot of garbage.
+		 */
+		public static ShouldDrawSideEvent reuse(BlockState state, BlockPos pos)
+		{
+			ShouldDrawSideEvent event = INSTANCES.get();
+			event.set(state, pos);
+			return event;
+		}
+		
+		private void set(BlockState state, BlockPos pos)
 		{
 			this.state = Objects.requireNonNull(state);
 			this.pos = pos;
+			rendered = null;
 		}
 		
 		public BlockState getState()
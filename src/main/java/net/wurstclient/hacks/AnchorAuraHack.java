@@ -12,7 +12,6 @@ import java.util.Comparator;
 import java.util.Map;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
-import java.util.stream.StreamSupport;
 
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
@@ -321,21 +320,18 @@ public final class AnchorAuraHack extends Hack implements UpdateListener
 	
 	private ArrayList<Entity> getNearbyTargets()
 	{
-		double rangeSq = range.getValueSq();
-		
 		Comparator<Entity> furthestFromPlayer =
 			Comparator.<Entity> comparingDouble(e -> MC.player.distanceToSqr(e))
 				.reversed();
 		
-		Stream<Entity> stream = StreamSupport
-			.stream(MC.level.entitiesForRendering().spliterator(), false)
+		Stream<Entity> stream = WURST.getEntitySnapshot()
+			.getInRange(MC.player.position(), range.getValue())
 			.filter(e -> !e.isRemoved())
 			.filter(e -> e instanceof LivingEntity
 				&& ((LivingEntity)e).getHealth() > 0)
 			.filter(e -> e != MC.player)
 			.filter(e -> !(e instanceof FakePlayerEntity))
-			.filter(e -> !WURST.getFriends().contains(e.getName().getString()))
-			.filter(e -> MC.player.distanceToSqr(e) <= rangeSq);
+			.filter(e -> !WURST.getFriends().contains(e.getName().getString()));
 		
 		stream = entityFilters.applyTo(stream);
 		
@@ -7,6 +7,7 @@
  */
 package net.wurstclient.hacks;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.function.BiConsumer;
 
 import com.mojang.brigadier.suggestion.SuggestionsBuilder;
@@ -22,6 +23,7 @@ import net.wurstclient.hacks.autocomplete.ModelSettings;
 import net.wurstclient.hacks.autocomplete.OpenAiMessageCompleter;
 import net.wurstclient.hacks.autocomplete.SuggestionHandler;
 import net.wurstclient.util.ChatUtils;
+import net.wurstclient.util.TaskScheduler.Priority;
 
 @SearchTags({"auto complete", "Copilot", "ChatGPT", "chat GPT", "GPT-3", "GPT3",
 	"GPT 3", "OpenAI", "open ai", "ChatAI", "chat AI", "ChatBot", "chat bot"})
@@ -35,7 +37,7 @@ public final class AutoCompleteHack extends Hack
 	private String draftMessage;
 	private BiConsumer<SuggestionsBuilder, String> suggestionsUpdater;
 	
-	private Thread apiCallThread;
+	private CompletableFuture<Void> apiCall;
 	private long lastApiCallTime;
 	private long lastRefreshTime;
 	
@@ -104,8 +106,8 @@ public final class AutoCompleteHack extends Hack
 		if(draftMessage == null || suggestionsUpdater == null)
 			return;
 		
-		// don't start a new thread if the old one is still running
-		if(apiCallThread != null && apiCallThread.isAlive())
+		// don't start a new API call if the old one is still running
+		if(apiCall != null && !apiCall.isDone())
 			return;
 		
 		// check if we already have a suggestion for the current draft message
@@ -115,13 +117,14 @@ public final class AutoCompleteHack extends Hack
 			return;
 			
 		// copy fields to local variables, in case they change
-		// while the thread is running
+		// while the API call is running
 		String draftMessage2 = draftMessage;
 		BiConsumer<SuggestionsBuilder, String> suggestionsUpdater2 =
 			suggestionsUpdater;
 		
-		// build thread
-		apiCallThread = new Thread(() -> {
+		// start API call
+		lastApiCallTime = System.currentTimeMillis();
+		apiCall = WURST.getTaskScheduler().execute(Priority.IO, () -> {
 			
 			// get suggestions
 			String[] suggestions =
@@ -139,13 +142,6 @@ public final class AutoCompleteHack extends Hack
 					suggestionsUpdater2);
 			}
 		});
-		apiCallThread.setName("AutoComplete API Call");
-		apiCallThread.setPriority(Thread.MIN_PRIORITY);
-		apiCallThread.setDaemon(true);
-		
-		// start thread
-		lastApiCallTime = System.currentTimeMillis();
-		apiCallThread.start();
 	}
 	
 	public void onRefresh(String draftMessage,
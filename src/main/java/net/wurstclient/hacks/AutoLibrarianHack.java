@@ -12,7 +12,6 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Stream;
-import java.util.stream.StreamSupport;
 
 import com.mojang.blaze3d.vertex.PoseStack;
 
@@ -439,14 +438,10 @@ public final class AutoLibrarianHack extends Hack
 	
 	private void setTargetVillager()
 	{
-		LocalPlayer player = MC.player;
-		double rangeSq = range.getValueSq();
-		
-		Stream<Villager> stream = StreamSupport
-			.stream(MC.level.entitiesForRendering().spliterator(), true)
+		Stream<Villager> stream = WURST.getEntitySnapshot()
+			.getInRange(MC.player.position(), range.getValue())
 			.filter(e -> !e.isRemoved()).filter(Villager.class::isInstance)
 			.map(e -> (Villager)e).filter(e -> e.getHealth() > 0)
-			.filter(e -> player.distanceToSqr(e) <= rangeSq)
 			.filter(e -> e.getVillagerData().profession().unwrapKey()
 				.orElse(null) == VillagerProfession.LIBRARIAN)
 			.filter(e -> e.getVillagerData().level() == 1)
@@ -8,29 +8,42 @@
 package net.wurstclient.hacks;
 
 import java.awt.Color;
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.BitSet;
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 import com.mojang.blaze3d.vertex.DefaultVertexFormat;
 import com.mojang.blaze3d.vertex.PoseStack;
 import com.mojang.blaze3d.vertex.VertexFormat.Mode;
 
 import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
 import net.wurstclient.Category;
 import net.wurstclient.SearchTags;
 import net.wurstclient.WurstRenderLayers;
+import net.wurstclient.events.PacketInputListener;
 import net.wurstclient.events.RenderListener;
 import net.wurstclient.events.UpdateListener;
 import net.wurstclient.hack.Hack;
 import net.wurstclient.settings.BlockListSetting;
+import net.wurstclient.settings.ChunkAreaSetting;
+import net.wurstclient.settings.ChunkAreaSetting.ChunkArea;
 import net.wurstclient.settings.ColorSetting;
+import net.wurstclient.settings.SliderSetting;
+import net.wurstclient.settings.SliderSetting.ValueDisplay;
 import net.wurstclient.util.BlockUtils;
 import net.wurstclient.util.BlockVertexCompiler;
 import net.wurstclient.util.ChatUtils;
 import net.wurstclient.util.EasyVertexBuffer;
 import net.wurstclient.util.RegionPos;
 import net.wurstclient.util.RenderUtils;
+import net.wurstclient.util.RotationUtils;
+import net.wurstclient.util.TaskScheduler.Priority;
+import net.wurstclient.util.VertexSlab;
+import net.wurstclient.util.chunk.ChunkSearcherCoordinator;
 
 @SearchTags({"base finder", "factions"})
 public final class BaseFinderHack extends Hack
@@ -81,25 +94,44 @@ public final class BaseFinderHack extends Hack
 		"minecraft:tall_grass", "minecraft:tall_seagrass", "minecraft:tuff",
 		"minecraft:vine", "minecraft:water", "minecraft:white_tulip");
 	
+	private final ChunkAreaSetting area = new ChunkAreaSetting("Area",
+		"The area around the player to search in.\n"
+			+ "Higher values require a faster computer.",
+		ChunkArea.A9);
+	
+	private final SliderSetting limit = new SliderSetting("Limit",
+		"The maximum number of blocks to display.\n"
+			+ "Higher values require a faster computer.",
+		4, 3, 6, 1, ValueDisplay.LOGARITHMIC);
+	
 	private final ColorSetting color = new ColorSetting("Color",
 		"Man-made blocks will be highlighted in this color.", Color.RED);
 	
-	private ArrayList<String> blockNames;
+	private int prevLimit;
+	private boolean notify;
+	private int counter;
 	
-	private final HashSet<BlockPos> matchingBlocks = new HashSet<>();
-	private ArrayList<int[]> vertices = new ArrayList<>();
-	private EasyVertexBuffer vertexBuffer;
+	// compiled from the natural blocks setting in onEnable(), so that the
+	// background threads never have to look up any block names
+	private BitSet naturalStates = new BitSet();
 	
-	private int messageTimer = 0;
-	private int counter;
+	private final ChunkSearcherCoordinator coordinator =
+		new ChunkSearcherCoordinator(area);
+	
+	private CompletableFuture<HashSet<BlockPos>> getMatchingBlocksTask;
+	private CompletableFuture<VertexSlab> compileVerticesTask;
 	
-	private RegionPos lastRegion;
+	private EasyVertexBuffer vertexBuffer;
+	private RegionPos bufferRegion;
+	private boolean bufferUpToDate;
 	
 	public BaseFinderHack()
 	{
 		super("BaseFinder");
 		setCategory(Category.RENDER);
 		addSetting(naturalBlocks);
+		addSetting(area);
+		addSetting(limit);
 		addSetting(color);
 	}
 	
@@ -109,8 +141,8 @@ public final class BaseFinderHack extends Hack
 		String name = getName() + " [";
 		
 		// counter
-		if(counter >= 10000)
-			name += "10000+ blocks";
+		if(counter >= limit.getValueLog())
+			name += limit.getValueString() + "+ blocks";
 		else if(counter == 1)
 			name += "1 block";
 		else if(counter == 0)
@@ -125,11 +157,18 @@ public final class BaseFinderHack extends Hack
 	@Override
 	protected void onEnable()
 	{
-		// reset timer
-		messageTimer = 0;
-		blockNames = new ArrayList<>(naturalBlocks.getBlockNames());
+		naturalStates = BlockUtils.getStateIds(naturalBlocks.getBlockNames());
+		
+		// sections whose palette only has natural blocks are skipped
+		coordinator.setQuery(this::isManMade, this::isManMade);
+		prevLimit = limit.getValueI();
+		notify = true;
+		counter = 0;
+		
+		bufferUpToDate = false;
 		
 		EVENTS.add(UpdateListener.class, this);
+		EVENTS.add(PacketInputListener.class, coordinator);
 		EVENTS.add(RenderListener.class, this);
 	}
 	
@@ -137,28 +176,73 @@ public final class BaseFinderHack extends Hack
 	protected void onDisable()
 	{
 		EVENTS.remove(UpdateListener.class, this);
+		EVENTS.remove(PacketInputListener.class, coordinator);
 		EVENTS.remove(RenderListener.class, this);
-		matchingBlocks.clear();
-		vertices.clear();
+		
+		stopBuildingBuffer();
+		coordinator.reset();
 		
 		if(vertexBuffer != null)
 			vertexBuffer.close();
 		vertexBuffer = null;
-		lastRegion = null;
+		bufferRegion = null;
+	}
+	
+	private boolean isManMade(BlockPos pos, BlockState state)
+	{
+		return isManMade(state);
+	}
+	
+	private boolean isManMade(BlockState state)
+	{
+		return !naturalStates.get(Block.getId(state));
 	}
 	
 	@Override
-	public void onRender(PoseStack matrixStack, float partialTicks)
+	public void onUpdate()
 	{
-		RegionPos region = RenderUtils.getCameraRegion();
-		if(!region.equals(lastRegion))
-			onUpdate();
+		boolean searchersChanged = coordinator.update();
+		
+		if(searchersChanged)
+			stopBuildingBuffer();
 		
-		if(vertexBuffer == null)
+		if(!coordinator.isDone())
+			return;
+		
+		// check if limit has changed
+		if(limit.getValueI() != prevLimit)
+		{
+			stopBuildingBuffer();
+			prevLimit = limit.getValueI();
+			notify = true;
+		}
+		
+		// build the buffer
+		
+		if(getMatchingBlocksTask == null)
+			startGetMatchingBlocksTask();
+		
+		if(!getMatchingBlocksTask.isDone())
+			return;
+		
+		if(compileVerticesTask == null)
+			startCompileVerticesTask();
+		
+		if(!compileVerticesTask.isDone())
+			return;
+		
+		if(!bufferUpToDate)
+			setBufferFromTask();
+	}
+	
+	@Override
+	public void onRender(PoseStack matrixStack, float partialTicks)
+	{
+		if(vertexBuffer == null || bufferRegion == null)
 			return;
 		
 		matrixStack.pushPose();
-		RenderUtils.applyRegionalRenderOffset(matrixStack, region);
+		RenderUtils.applyRegionalRenderOffset(matrixStack, bufferRegion);
 		
 		vertexBuffer.draw(matrixStack, WurstRenderLayers.ESP_QUADS,
 			color.getColorF(), 0.25F);
@@ -166,81 +250,63 @@ public final class BaseFinderHack extends Hack
 		matrixStack.popPose();
 	}
 	
-	@Override
-	public void onUpdate()
+	private void stopBuildingBuffer()
 	{
-		int modulo = MC.player.tickCount % 64;
-		RegionPos region = RenderUtils.getCameraRegion();
+		if(getMatchingBlocksTask != null)
+			getMatchingBlocksTask.cancel(true);
+		getMatchingBlocksTask = null;
 		
-		if(modulo == 0 || !region.equals(lastRegion))
-		{
-			if(vertexBuffer != null)
-				vertexBuffer.close();
-			
-			vertexBuffer = EasyVertexBuffer.createAndUpload(Mode.QUADS,
-				DefaultVertexFormat.POSITION_COLOR, buffer -> {
-					for(int[] vertex : vertices)
-						buffer.addVertex(vertex[0] - region.x(), vertex[1],
-							vertex[2] - region.z()).setColor(0xFFFFFFFF);
-				});
-			
-			lastRegion = region;
-		}
+		if(compileVerticesTask != null)
+			compileVerticesTask.cancel(true);
+		compileVerticesTask = null;
 		
-		// reset matching blocks
-		if(modulo == 0)
-			matchingBlocks.clear();
-		
-		int stepSize = MC.level.getHeight() / 64;
-		int startY = MC.level.getMaxY() - 1 - modulo * stepSize;
-		int endY = startY - stepSize;
-		
-		BlockPos playerPos =
-			BlockPos.containing(MC.player.getX(), 0, MC.player.getZ());
-		
-		// search matching blocks
-		loop: for(int y = startY; y > endY; y--)
-			for(int x = 64; x > -64; x--)
-				for(int z = 64; z > -64; z--)
-				{
-					if(matchingBlocks.size() >= 10000)
-						break loop;
-					
-					BlockPos pos = new BlockPos(playerPos.getX() + x, y,
-						playerPos.getZ() + z);
-					
-					if(Collections.binarySearch(blockNames,
-						BlockUtils.getName(pos)) >= 0)
-						continue;
-					
-					matchingBlocks.add(pos);
-				}
-			
-		if(modulo != 63)
-			return;
+		bufferUpToDate = false;
+	}
+	
+	private void startGetMatchingBlocksTask()
+	{
+		BlockPos eyesPos = BlockPos.containing(RotationUtils.getEyesPos());
+		Comparator<BlockPos> comparator =
+			Comparator.comparingInt(pos -> eyesPos.distManhattan(pos));
 		
-		// update timer
-		if(matchingBlocks.size() < 10000)
-			messageTimer--;
-		else
+		getMatchingBlocksTask = WURST.getTaskScheduler().submit(Priority.NEAR,
+			() -> coordinator.getMatchingPositions().sorted(comparator)
+				.limit(limit.getValueLog())
+				.collect(Collectors.toCollection(HashSet::new)));
+	}
+	
+	private void startCompileVerticesTask()
+	{
+		HashSet<BlockPos> matchingBlocks = getMatchingBlocksTask.join();
+		counter = matchingBlocks.size();
+		
+		if(matchingBlocks.size() < limit.getValueLog())
+			notify = true;
+		else if(notify)
 		{
-			// show message
-			if(messageTimer <= 0)
-			{
-				ChatUtils
-					.warning("BaseFinder found \u00a7lA LOT\u00a7r of blocks.");
-				ChatUtils.message(
-					"To prevent lag, it will only show the first 10000 blocks.");
-			}
-			
-			// reset timer
-			messageTimer = 3;
+			ChatUtils.warning("BaseFinder found \u00a7lA LOT\u00a7r of blocks!"
+				+ " To prevent lag, it will only show the closest \u00a76"
+				+ limit.getValueString() + "\u00a7r results.");
+			notify = false;
 		}
 		
-		// update counter
-		counter = matchingBlocks.size();
+		compileVerticesTask = WURST.getTaskScheduler().submit(Priority.RENDER,
+			() -> BlockVertexCompiler.compileMerged(matchingBlocks));
+	}
+	
+	private void setBufferFromTask()
+	{
+		VertexSlab vertices = compileVerticesTask.join();
+		RegionPos region = RenderUtils.getCameraRegion();
+		
+		if(vertexBuffer != null)
+			vertexBuffer.close();
+		
+		vertexBuffer = EasyVertexBuffer.createAndUpload(Mode.QUADS,
+			DefaultVertexFormat.POSITION_COLOR,
+			buffer -> vertices.writeTo(buffer, region));
 		
-		// calculate vertices
-		vertices = BlockVertexCompiler.compile(matchingBlocks);
+		bufferUpToDate = true;
+		bufferRegion = region;
 	}
 }
@@ -8,11 +8,9 @@
 package net.wurstclient.hacks;
 
 import java.awt.Color;
-import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashSet;
-import java.util.concurrent.ForkJoinPool;
-import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import com.mojang.blaze3d.vertex.DefaultVertexFormat;
@@ -39,7 +37,8 @@ import net.wurstclient.util.EasyVertexBuffer;
 import net.wurstclient.util.RegionPos;
 import net.wurstclient.util.RenderUtils;
 import net.wurstclient.util.RotationUtils;
-import net.wurstclient.util.chunk.ChunkSearcher;
+import net.wurstclient.util.TaskScheduler.Priority;
+import net.wurstclient.util.VertexSlab;
 import net.wurstclient.util.chunk.ChunkSearcherCoordinator;
 
 @SearchTags({"cave finder"})
@@ -67,11 +66,11 @@ public final class CaveFinderHack extends Hack
 	
 	private final ChunkSearcherCoordinator coordinator =
 		new ChunkSearcherCoordinator(
-			(pos, state) -> state.getBlock() == Blocks.CAVE_AIR, area);
+			(pos, state) -> state.getBlock() == Blocks.CAVE_AIR,
+			state -> state.getBlock() == Blocks.CAVE_AIR, area);
 	
-	private ForkJoinPool forkJoinPool;
-	private ForkJoinTask<HashSet<BlockPos>> getMatchingBlocksTask;
-	private ForkJoinTask<ArrayList<int[]>> compileVerticesTask;
+	private CompletableFuture<HashSet<BlockPos>> getMatchingBlocksTask;
+	private CompletableFuture<VertexSlab> compileVerticesTask;
 	
 	private EasyVertexBuffer vertexBuffer;
 	private RegionPos bufferRegion;
@@ -93,8 +92,6 @@ public final class CaveFinderHack extends Hack
 		prevLimit = limit.getValueI();
 		notify = true;
 		
-		forkJoinPool = new ForkJoinPool();
-		
 		bufferUpToDate = false;
 		
 		EVENTS.add(UpdateListener.class, this);
@@ -111,7 +108,6 @@ public final class CaveFinderHack extends Hack
 		
 		stopBuildingBuffer();
 		coordinator.reset();
-		forkJoinPool.shutdownNow();
 		
 		if(vertexBuffer != null)
 			vertexBuffer.close();
@@ -199,10 +195,10 @@ public final class CaveFinderHack extends Hack
 		Comparator<BlockPos> comparator =
 			Comparator.comparingInt(pos -> eyesPos.distManhattan(pos));
 		
-		getMatchingBlocksTask = forkJoinPool.submit(() -> coordinator
-			.getMatches().parallel().map(ChunkSearcher.Result::pos)
-			.sorted(comparator).limit(limit.getValueLog())
-			.collect(Collectors.toCollection(HashSet::new)));
+		getMatchingBlocksTask = WURST.getTaskScheduler().submit(Priority.NEAR,
+			() -> coordinator.getMatchingPositions().sorted(comparator)
+				.limit(limit.getValueLog())
+				.collect(Collectors.toCollection(HashSet::new)));
 	}
 	
 	private void startCompileVerticesTask()
@@ -219,24 +215,21 @@ public final class CaveFinderHack extends Hack
 			notify = false;
 		}
 		
-		compileVerticesTask = forkJoinPool
-			.submit(() -> BlockVertexCompiler.compile(matchingBlocks));
+		compileVerticesTask = WURST.getTaskScheduler().submit(Priority.RENDER,
+			() -> BlockVertexCompiler.compileMerged(matchingBlocks));
 	}
 	
 	private void setBufferFromTask()
 	{
-		ArrayList<int[]> vertices = compileVerticesTask.join();
+		VertexSlab vertices = compileVerticesTask.join();
 		RegionPos region = RenderUtils.getCameraRegion();
 		
 		if(vertexBuffer != null)
 			vertexBuffer.close();
 		
 		vertexBuffer = EasyVertexBuffer.createAndUpload(Mode.QUADS,
-			DefaultVertexFormat.POSITION_COLOR, buffer -> {
-				for(int[] vertex : vertices)
-					buffer.addVertex(vertex[0] - region.x(), vertex[1],
-						vertex[2] - region.z()).setColor(0xFFFFFFFF);
-			});
+			DefaultVertexFormat.POSITION_COLOR,
+			buffer -> vertices.writeTo(buffer, region));
 		
 		bufferUpToDate = true;
 		bufferRegion = region;
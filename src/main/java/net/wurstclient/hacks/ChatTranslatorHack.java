@@ -19,6 +19,7 @@ import net.wurstclient.hacks.chattranslator.LanguageSetting.Language;
 import net.wurstclient.hacks.chattranslator.WhatToTranslateSetting;
 import net.wurstclient.settings.CheckboxSetting;
 import net.wurstclient.util.ChatUtils;
+import net.wurstclient.util.TaskScheduler.Priority;
 
 @SearchTags({"chat translator", "ChatTranslate", "chat translate",
 	"ChatTranslation", "chat translation", "AutoTranslate", "auto translate",
@@ -98,9 +99,8 @@ public final class ChatTranslatorHack extends Hack
 			&& filterOwnMessages.isOwnMessage(message))
 			return;
 		
-		Thread.ofVirtual().name("ChatTranslator")
-			.uncaughtExceptionHandler((t, e) -> e.printStackTrace())
-			.start(() -> showTranslated(message, fromLang, toLang));
+		WURST.getTaskScheduler().execute(Priority.IO,
+			() -> showTranslated(message, fromLang, toLang));
 	}
 	
 	private void showTranslated(String message, Language fromLang,
@@ -129,9 +129,8 @@ public final class ChatTranslatorHack extends Hack
 		
 		event.cancel();
 		
-		Thread.ofVirtual().name("ChatTranslator")
-			.uncaughtExceptionHandler((t, e) -> e.printStackTrace())
-			.start(() -> sendTranslated(message, fromLang, toLang));
+		WURST.getTaskScheduler().execute(Priority.IO,
+			() -> sendTranslated(message, fromLang, toLang));
 	}
 	
 	private void sendTranslated(String message, Language fromLang,
@@ -20,7 +20,9 @@ import net.wurstclient.events.UpdateListener;
 import net.wurstclient.hack.Hack;
 import net.wurstclient.hacks.chestesp.ChestEspGroup;
 import net.wurstclient.hacks.chestesp.ChestEspGroupManager;
+import net.wurstclient.settings.EspLodSetting;
 import net.wurstclient.settings.EspStyleSetting;
+import net.wurstclient.util.EspCulling;
 import net.wurstclient.util.RenderUtils;
 import net.wurstclient.util.chunk.ChunkUtils;
 
@@ -28,6 +30,7 @@ public class ChestEspHack extends Hack implements UpdateListener,
 	CameraTransformViewBobbingListener, RenderListener
 {
 	private final EspStyleSetting style = new EspStyleSetting();
+	private final EspLodSetting lod = new EspLodSetting();
 	private final ChestEspGroupManager groups = new ChestEspGroupManager();
 	
 	public ChestEspHack()
@@ -35,6 +38,7 @@ public class ChestEspHack extends Hack implements UpdateListener,
 		super("ChestESP");
 		setCategory(Category.RENDER);
 		addSetting(style);
+		addSetting(lod);
 		groups.allGroups.stream().flatMap(ChestEspGroup::getSettings)
 			.forEach(this::addSetting);
 	}
@@ -62,7 +66,7 @@ public class ChestEspHack extends Hack implements UpdateListener,
 		groups.allGroups.forEach(ChestEspGroup::clear);
 		ChunkUtils.getLoadedBlockEntities().forEach(
 			be -> groups.blockGroups.forEach(group -> group.addIfMatches(be)));
-		MC.level.entitiesForRendering().forEach(
+		WURST.getEntitySnapshot().getAll().forEach(
 			e -> groups.entityGroups.forEach(group -> group.addIfMatches(e)));
 	}
 	
@@ -94,7 +98,7 @@ public class ChestEspHack extends Hack implements UpdateListener,
 			if(!group.isEnabled())
 				continue;
 			
-			List<AABB> boxes = group.getBoxes();
+			List<AABB> boxes = EspCulling.cull(lod.apply(group.getBoxes()));
 			int quadsColor = group.getColorI(0x40);
 			int linesColor = group.getColorI(0x80);
 			
@@ -111,7 +115,7 @@ public class ChestEspHack extends Hack implements UpdateListener,
 			if(!group.isEnabled())
 				continue;
 			
-			List<AABB> boxes = group.getBoxes();
+			List<AABB> boxes = lod.apply(group.getBoxes());
 			List<Vec3> ends = boxes.stream().map(AABB::getCenter).toList();
 			int color = group.getColorI(0x80);
 			
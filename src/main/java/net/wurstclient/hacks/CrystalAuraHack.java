@@ -11,9 +11,7 @@ import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
-import java.util.stream.StreamSupport;
 
-import net.minecraft.client.player.LocalPlayer;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.world.InteractionHand;
@@ -223,38 +221,31 @@ public final class CrystalAuraHack extends Hack implements UpdateListener
 	
 	private ArrayList<Entity> getNearbyCrystals()
 	{
-		LocalPlayer player = MC.player;
-		double rangeSq = Math.pow(range.getValue(), 2);
-		
 		Comparator<Entity> furthestFromPlayer =
 			Comparator.<Entity> comparingDouble(e -> MC.player.distanceToSqr(e))
 				.reversed();
 		
-		return StreamSupport
-			.stream(MC.level.entitiesForRendering().spliterator(), true)
+		return WURST.getEntitySnapshot()
+			.getInRange(MC.player.position(), range.getValue())
 			.filter(EndCrystal.class::isInstance).filter(e -> !e.isRemoved())
-			.filter(e -> player.distanceToSqr(e) <= rangeSq)
 			.sorted(furthestFromPlayer)
 			.collect(Collectors.toCollection(ArrayList::new));
 	}
 	
 	private ArrayList<Entity> getNearbyTargets()
 	{
-		double rangeSq = Math.pow(range.getValue(), 2);
-		
 		Comparator<Entity> furthestFromPlayer =
 			Comparator.<Entity> comparingDouble(e -> MC.player.distanceToSqr(e))
 				.reversed();
 		
-		Stream<Entity> stream = StreamSupport
-			.stream(MC.level.entitiesForRendering().spliterator(), false)
+		Stream<Entity> stream = WURST.getEntitySnapshot()
+			.getInRange(MC.player.position(), range.getValue())
 			.filter(e -> !e.isRemoved())
 			.filter(e -> e instanceof LivingEntity
 				&& ((LivingEntity)e).getHealth() > 0)
 			.filter(e -> e != MC.player)
 			.filter(e -> !(e instanceof FakePlayerEntity))
-			.filter(e -> !WURST.getFriends().contains(e.getName().getString()))
-			.filter(e -> MC.player.distanceToSqr(e) <= rangeSq);
+			.filter(e -> !WURST.getFriends().contains(e.getName().getString()));
 		
 		stream = entityFilters.applyTo(stream);
 		
@@ -146,7 +146,10 @@ public final class FightBotHack extends Hack
 				|| !pathFinder.isPathStillValid(processor.getIndex()))
 				&& (pathFinder.isDone() || pathFinder.isFailed()))
 			{
+				// reuse the old search if the entity only moved a bit
+				EntityPathFinder previous = pathFinder;
 				pathFinder = new EntityPathFinder(entity);
+				pathFinder.resumeFrom(previous);
 				processor = null;
 				ticksProcessing = 0;
 			}
@@ -10,7 +10,6 @@ package net.wurstclient.hacks;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.stream.Stream;
-import java.util.stream.StreamSupport;
 
 import com.mojang.blaze3d.vertex.PoseStack;
 
@@ -82,8 +81,7 @@ public final class FollowHack extends Hack
 		
 		if(entity == null)
 		{
-			Stream<Entity> stream = StreamSupport
-				.stream(MC.level.entitiesForRendering().spliterator(), true)
+			Stream<Entity> stream = WURST.getEntitySnapshot().stream()
 				.filter(e -> !e.isRemoved())
 				.filter(e -> e instanceof LivingEntity
 					&& ((LivingEntity)e).getHealth() > 0
@@ -146,8 +144,7 @@ public final class FollowHack extends Hack
 		if(entity.isRemoved() || entity instanceof LivingEntity
 			&& ((LivingEntity)entity).getHealth() <= 0)
 		{
-			entity = StreamSupport
-				.stream(MC.level.entitiesForRendering().spliterator(), true)
+			entity = WURST.getEntitySnapshot().stream()
 				.filter(LivingEntity.class::isInstance)
 				.filter(
 					e -> !e.isRemoved() && ((LivingEntity)e).getHealth() > 0)
@@ -178,7 +175,10 @@ public final class FollowHack extends Hack
 				|| !pathFinder.isPathStillValid(processor.getIndex()))
 				&& (pathFinder.isDone() || pathFinder.isFailed()))
 			{
+				// reuse the old search if the entity only moved a bit
+				EntityPathFinder previous = pathFinder;
 				pathFinder = new EntityPathFinder();
+				pathFinder.resumeFrom(previous);
 				processor = null;
 				ticksProcessing = 0;
 			}
@@ -9,10 +9,10 @@ package net.wurstclient.hacks;
 
 import java.awt.Color;
 import java.util.ArrayList;
+import java.util.List;
 
 import com.mojang.blaze3d.vertex.PoseStack;
 
-import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.item.ItemEntity;
 import net.minecraft.world.phys.AABB;
 import net.minecraft.world.phys.Vec3;
@@ -24,8 +24,11 @@ import net.wurstclient.events.UpdateListener;
 import net.wurstclient.hack.Hack;
 import net.wurstclient.settings.ColorSetting;
 import net.wurstclient.settings.EspBoxSizeSetting;
+import net.wurstclient.settings.EspLodSetting;
 import net.wurstclient.settings.EspStyleSetting;
 import net.wurstclient.util.EntityUtils;
+import net.wurstclient.util.EspCulling;
+import net.wurstclient.util.InstancedBoxRenderer;
 import net.wurstclient.util.RenderUtils;
 
 @SearchTags({"item esp", "ItemTracers", "item tracers"})
@@ -41,6 +44,8 @@ public final class ItemEspHack extends Hack implements UpdateListener,
 	private final ColorSetting color = new ColorSetting("Color",
 		"Items will be highlighted in this color.", Color.YELLOW);
 	
+	private final EspLodSetting lod = new EspLodSetting();
+	
 	private final ArrayList<ItemEntity> items = new ArrayList<>();
 	
 	public ItemEspHack()
@@ -50,6 +55,7 @@ public final class ItemEspHack extends Hack implements UpdateListener,
 		addSetting(style);
 		addSetting(boxSize);
 		addSetting(color);
+		addSetting(lod);
 	}
 	
 	@Override
@@ -72,9 +78,8 @@ public final class ItemEspHack extends Hack implements UpdateListener,
 	public void onUpdate()
 	{
 		items.clear();
-		for(Entity entity : MC.level.entitiesForRendering())
-			if(entity instanceof ItemEntity)
-				items.add((ItemEntity)entity);
+		WURST.getEntitySnapshot().getOfType(ItemEntity.class)
+			.forEach(items::add);
 	}
 	
 	@Override
@@ -99,14 +104,19 @@ public final class ItemEspHack extends Hack implements UpdateListener,
 				boxes.add(EntityUtils.getLerpedBox(e, partialTicks)
 					.move(0, extraSize, 0).inflate(extraSize));
 			
-			RenderUtils.drawOutlinedBoxes(matrixStack, boxes, lineColor, false);
+			List<AABB> visibleBoxes = EspCulling.cull(lod.apply(boxes));
+			InstancedBoxRenderer.drawOutlinedBoxes(matrixStack, visibleBoxes,
+				lineColor, false);
 		}
 		
 		if(style.hasLines())
 		{
-			ArrayList<Vec3> ends = new ArrayList<>(items.size());
+			ArrayList<AABB> boxes = new ArrayList<>(items.size());
 			for(ItemEntity e : items)
-				ends.add(EntityUtils.getLerpedBox(e, partialTicks).getCenter());
+				boxes.add(EntityUtils.getLerpedBox(e, partialTicks));
+			
+			List<Vec3> ends =
+				lod.apply(boxes).stream().map(AABB::getCenter).toList();
 			
 			RenderUtils.drawTracers(matrixStack, partialTicks, ends, lineColor,
 				false);
@@ -8,17 +8,15 @@
 package net.wurstclient.hacks;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
-import java.util.stream.StreamSupport;
 
 import com.mojang.blaze3d.vertex.PoseStack;
 
 import net.minecraft.util.Mth;
 import net.minecraft.world.entity.LivingEntity;
-import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.phys.AABB;
-import net.minecraft.world.phys.Vec3;
 import net.wurstclient.Category;
 import net.wurstclient.SearchTags;
 import net.wurstclient.events.CameraTransformViewBobbingListener;
@@ -26,10 +24,14 @@ import net.wurstclient.events.RenderListener;
 import net.wurstclient.events.UpdateListener;
 import net.wurstclient.hack.Hack;
 import net.wurstclient.settings.EspBoxSizeSetting;
+import net.wurstclient.settings.EspLodSetting;
 import net.wurstclient.settings.EspStyleSetting;
 import net.wurstclient.settings.filterlists.EntityFilterList;
 import net.wurstclient.settings.filters.*;
+import net.wurstclient.util.EntitySnapshot.Kind;
 import net.wurstclient.util.EntityUtils;
+import net.wurstclient.util.EspCulling;
+import net.wurstclient.util.InstancedBoxRenderer;
 import net.wurstclient.util.RenderUtils;
 import net.wurstclient.util.RenderUtils.ColoredBox;
 import net.wurstclient.util.RenderUtils.ColoredPoint;
@@ -68,6 +70,8 @@ public final class MobEspHack extends Hack implements UpdateListener,
 			FilterNamedSetting.genericVision(false),
 			FilterArmorStandsSetting.genericVision(true));
 	
+	private final EspLodSetting lod = new EspLodSetting();
+	
 	private final ArrayList<LivingEntity> mobs = new ArrayList<>();
 	
 	public MobEspHack()
@@ -76,6 +80,7 @@ public final class MobEspHack extends Hack implements UpdateListener,
 		setCategory(Category.RENDER);
 		addSetting(style);
 		addSetting(boxSize);
+		addSetting(lod);
 		entityFilters.forEach(this::addSetting);
 	}
 	
@@ -100,11 +105,10 @@ public final class MobEspHack extends Hack implements UpdateListener,
 	{
 		mobs.clear();
 		
-		Stream<LivingEntity> stream = StreamSupport
-			.stream(MC.level.entitiesForRendering().spliterator(), false)
-			.filter(LivingEntity.class::isInstance).map(e -> (LivingEntity)e)
-			.filter(e -> !(e instanceof Player))
-			.filter(e -> !e.isRemoved() && e.getHealth() > 0);
+		Stream<LivingEntity> stream =
+			WURST.getEntitySnapshot().get(Kind.MOB).stream()
+				.map(e -> (LivingEntity)e)
+				.filter(e -> !e.isRemoved() && e.getHealth() > 0);
 		
 		stream = entityFilters.applyTo(stream);
 		
@@ -134,18 +138,23 @@ public final class MobEspHack extends Hack implements UpdateListener,
 				boxes.add(new ColoredBox(box, getColor(e)));
 			}
 			
-			RenderUtils.drawOutlinedBoxes(matrixStack, boxes, false);
+			List<ColoredBox> visibleBoxes =
+				EspCulling.cullColored(lod.applyColored(boxes));
+			InstancedBoxRenderer.drawOutlinedBoxes(matrixStack, visibleBoxes,
+				false);
 		}
 		
 		if(style.hasLines())
 		{
-			ArrayList<ColoredPoint> ends = new ArrayList<>(mobs.size());
+			ArrayList<ColoredBox> boxes = new ArrayList<>(mobs.size());
 			for(LivingEntity e : mobs)
-			{
-				Vec3 point =
-					EntityUtils.getLerpedBox(e, partialTicks).getCenter();
-				ends.add(new ColoredPoint(point, getColor(e)));
-			}
+				boxes.add(new ColoredBox(
+					EntityUtils.getLerpedBox(e, partialTicks), getColor(e)));
+			
+			List<ColoredBox> targets = lod.applyColored(boxes);
+			ArrayList<ColoredPoint> ends = new ArrayList<>(targets.size());
+			for(ColoredBox box : targets)
+				ends.add(new ColoredPoint(box.box().getCenter(), box.color()));
 			
 			RenderUtils.drawTracers(matrixStack, partialTicks, ends, false);
 		}
@@ -40,7 +40,7 @@ import net.wurstclient.util.EasyVertexBuffer;
 import net.wurstclient.util.RegionPos;
 import net.wurstclient.util.RenderUtils;
 import net.wurstclient.util.chunk.ChunkSearcher;
-import net.wurstclient.util.chunk.ChunkSearcher.Result;
+import net.wurstclient.util.chunk.ChunkSearchResults;
 import net.wurstclient.util.chunk.ChunkVertexBufferCoordinator;
 
 @SearchTags({"mob spawn esp", "LightLevelESP", "light level esp",
@@ -65,10 +65,11 @@ public final class MobSpawnEspHack extends Hack
 	
 	private final HitboxCheckSetting hitboxCheck = new HitboxCheckSetting();
 	
+	// Block light can reach up to 15 blocks away from a changed block.
 	private final ChunkVertexBufferCoordinator coordinator =
 		new ChunkVertexBufferCoordinator(this::isSpawnable, Mode.LINES,
 			DefaultVertexFormat.POSITION_COLOR_NORMAL, this::buildBuffer,
-			drawDistance);
+			drawDistance, 15);
 	
 	private int cachedDayColor;
 	private int cachedNightColor;
@@ -157,16 +158,17 @@ public final class MobSpawnEspHack extends Hack
 	}
 	
 	private void buildBuffer(VertexConsumer buffer, ChunkSearcher searcher,
-		Iterable<Result> results)
+		ChunkSearchResults results)
 	{
 		RegionPos region = RegionPos.of(searcher.getPos());
 		
-		for(Result result : results)
+		ChunkSearchResults.Cursor cursor = results.cursor();
+		while(cursor.next())
 		{
 			if(searcher.isInterrupted())
 				return;
 			
-			drawCross(buffer, result.pos(), region);
+			drawCross(buffer, cursor.pos(), region);
 		}
 	}
 	
@@ -8,34 +8,37 @@
 package net.wurstclient.hacks;
 
 import java.awt.Color;
-import java.util.List;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
 
 import com.mojang.blaze3d.vertex.PoseStack;
 
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.minecraft.client.multiplayer.ClientLevel;
+import net.minecraft.client.multiplayer.ServerData;
 import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.chunk.LevelChunk;
-import net.minecraft.world.level.dimension.DimensionType;
+import net.minecraft.world.level.chunk.LevelChunkSection;
 import net.minecraft.world.level.material.FluidState;
 import net.wurstclient.Category;
 import net.wurstclient.events.RenderListener;
 import net.wurstclient.events.UpdateListener;
 import net.wurstclient.hack.Hack;
-import net.wurstclient.hacks.newchunks.NewChunksChunkRenderer;
-import net.wurstclient.hacks.newchunks.NewChunksReasonsRenderer;
+import net.wurstclient.hacks.newchunks.NewChunksDatabase;
 import net.wurstclient.hacks.newchunks.NewChunksRenderer;
 import net.wurstclient.hacks.newchunks.NewChunksShowSetting;
-import net.wurstclient.hacks.newchunks.NewChunksShowSetting.Show;
 import net.wurstclient.hacks.newchunks.NewChunksStyleSetting;
 import net.wurstclient.settings.CheckboxSetting;
 import net.wurstclient.settings.ColorSetting;
 import net.wurstclient.settings.SliderSetting;
 import net.wurstclient.settings.SliderSetting.ValueDisplay;
 import net.wurstclient.util.BlockUtils;
-import net.wurstclient.util.RegionPos;
-import net.wurstclient.util.RenderUtils;
+import net.wurstclient.util.TaskScheduler;
+import net.wurstclient.util.TaskScheduler.Priority;
 import net.wurstclient.util.chunk.ChunkUtils;
 
 public final class NewChunksHack extends Hack
@@ -72,20 +75,23 @@ public final class NewChunksHack extends Hack
 	private final CheckboxSetting logChunks = new CheckboxSetting("Log chunks",
 		"Writes to the log file when a new/old chunk is found.", false);
 	
-	private final Set<ChunkPos> newChunks = ConcurrentHashMap.newKeySet();
-	private final Set<ChunkPos> oldChunks = ConcurrentHashMap.newKeySet();
-	private final Set<ChunkPos> dontCheckAgain = ConcurrentHashMap.newKeySet();
+	// saved to disk every few seconds, since the game could crash at any time
+	private static final long SAVE_INTERVAL = 5000;
 	
-	private final Set<BlockPos> newChunkReasons = ConcurrentHashMap.newKeySet();
-	private final Set<BlockPos> oldChunkReasons = ConcurrentHashMap.newKeySet();
+	// Null while the database for the current level is being loaded. Chunks
+	// and block updates that come in until then are checked afterwards.
+	private NewChunksDatabase database;
+	private Path databaseFile;
+	private CompletableFuture<NewChunksDatabase> loading;
+	private final LongArrayList pendingChunks = new LongArrayList();
+	private final LongArrayList pendingBlocks = new LongArrayList();
+	private long lastSaveTime;
 	
-	private final NewChunksRenderer renderer = new NewChunksRenderer(altitude,
-		opacity, newChunksColor, oldChunksColor);
-	private final NewChunksReasonsRenderer reasonsRenderer =
-		new NewChunksReasonsRenderer(drawDistance);
+	private final NewChunksRenderer renderer =
+		new NewChunksRenderer(style, show, showReasons, altitude, drawDistance,
+			opacity, newChunksColor, oldChunksColor);
 	
-	private RegionPos lastRegion;
-	private DimensionType lastDimension;
+	private ClientLevel lastLevel;
 	
 	public NewChunksHack()
 	{
@@ -113,13 +119,79 @@ public final class NewChunksHack extends Hack
 	
 	private void reset()
 	{
-		oldChunks.clear();
-		newChunks.clear();
-		dontCheckAgain.clear();
-		oldChunkReasons.clear();
-		newChunkReasons.clear();
-		lastRegion = null;
-		lastDimension = MC.level.dimensionType();
+		// a new level means a new dimension or server
+		lastLevel = MC.level;
+		renderer.closeBuffers();
+		
+		Path file = getDatabaseFile();
+		if(file.equals(databaseFile))
+			return;
+		
+		NewChunksDatabase oldDatabase = database;
+		database = null;
+		databaseFile = file;
+		pendingChunks.clear();
+		pendingBlocks.clear();
+		
+		// Reading a long log can take a while, so it's done on an I/O thread.
+		// Loads run one after another, so that a file is never read while
+		// the previous load is still saving to it.
+		TaskScheduler scheduler = WURST.getTaskScheduler();
+		CompletableFuture<?> previous = loading != null ? loading
+			: CompletableFuture.completedFuture(null);
+		loading = previous.handle((d, e) -> null).thenApplyAsync(v -> {
+			// saved right away, in case this file is opened again soon
+			if(oldDatabase != null)
+				oldDatabase.save();
+			
+			return NewChunksDatabase.open(file);
+		}, scheduler.getExecutor(Priority.IO));
+	}
+	
+	/**
+	 * Starts using the database once it has been loaded, and checks the
+	 * chunks and block updates that came in while it was loading.
+	 */
+	private void checkLoading()
+	{
+		if(database != null || !loading.isDone()
+			|| loading.isCompletedExceptionally())
+			return;
+		
+		database = loading.join();
+		lastSaveTime = System.currentTimeMillis();
+		
+		for(int i = 0; i < pendingChunks.size(); i++)
+		{
+			long chunk = pendingChunks.getLong(i);
+			int x = ChunkPos.getX(chunk);
+			int z = ChunkPos.getZ(chunk);
+			if(MC.level.hasChunk(x, z))
+				afterLoadChunk(x, z);
+		}
+		
+		for(int i = 0; i < pendingBlocks.size(); i++)
+			afterUpdateBlock(BlockPos.of(pendingBlocks.getLong(i)));
+		
+		pendingChunks.clear();
+		pendingBlocks.clear();
+	}
+	
+	private Path getDatabaseFile()
+	{
+		ServerData server = MC.getCurrentServer();
+		String serverName = server != null ? server.ip : "singleplayer_"
+			+ MC.getSingleplayerServer().getWorldData().getLevelName();
+		ResourceLocation dimension = MC.level.dimension().location();
+		
+		return WURST.getWurstFolder().resolve("newchunks")
+			.resolve(toFileName(serverName)).resolve(toFileName(
+				dimension.getNamespace() + "_" + dimension.getPath()) + ".log");
+	}
+	
+	private String toFileName(String name)
+	{
+		return name.replaceAll("[^A-Za-z0-9._-]", "_");
 	}
 	
 	@Override
@@ -128,48 +200,33 @@ public final class NewChunksHack extends Hack
 		EVENTS.remove(UpdateListener.class, this);
 		EVENTS.remove(RenderListener.class, this);
 		renderer.closeBuffers();
+		
+		NewChunksDatabase database = this.database;
+		if(database != null)
+			WURST.getTaskScheduler().execute(Priority.IO, database::save);
 	}
 	
 	@Override
 	public String getRenderName()
 	{
-		if(!showCounter.isChecked())
+		NewChunksDatabase database = this.database;
+		if(!showCounter.isChecked() || database == null)
 			return getName();
 		
-		return String.format("%s [%d/%d]", getName(), newChunks.size(),
-			oldChunks.size());
+		return String.format("%s [%d/%d]", getName(),
+			database.countNewChunks(), database.countOldChunks());
 	}
 	
 	@Override
 	public void onUpdate()
 	{
-		renderer.closeBuffers();
-		
-		Show showSetting = show.getSelected();
-		int dd = drawDistance.getValueI();
-		NewChunksChunkRenderer chunkRenderer =
-			style.getSelected().getChunkRenderer();
-		
-		if(showSetting.includesNew())
-		{
-			renderer.updateBuffer(0, chunkRenderer.getLayer(),
-				buffer -> chunkRenderer.buildBuffer(buffer, newChunks, dd));
-			
-			if(showReasons.isChecked())
-				renderer.updateBuffer(1, reasonsRenderer.getLayer(),
-					buffer -> reasonsRenderer.buildBuffer(buffer,
-						List.copyOf(newChunkReasons)));
-		}
+		if(database == null)
+			return;
 		
-		if(showSetting.includesOld())
+		if(System.currentTimeMillis() - lastSaveTime >= SAVE_INTERVAL)
 		{
-			renderer.updateBuffer(2, chunkRenderer.getLayer(),
-				buffer -> chunkRenderer.buildBuffer(buffer, oldChunks, dd));
-			
-			if(showReasons.isChecked())
-				renderer.updateBuffer(3, reasonsRenderer.getLayer(),
-					buffer -> reasonsRenderer.buildBuffer(buffer,
-						List.copyOf(oldChunkReasons)));
+			WURST.getTaskScheduler().execute(Priority.IO, database::save);
+			lastSaveTime = System.currentTimeMillis();
 		}
 	}
 	
@@ -178,49 +235,78 @@ public final class NewChunksHack extends Hack
 		if(!isEnabled())
 			return;
 		
+		if(database == null)
+		{
+			pendingChunks.add(ChunkPos.asLong(x, z));
+			return;
+		}
+		
 		LevelChunk chunk = MC.level.getChunk(x, z);
-		new Thread(() -> checkLoadedChunk(chunk), "NewChunks " + chunk.getPos())
-			.start();
+		NewChunksDatabase database = this.database;
+		WURST.getTaskScheduler().execute(Priority.FAR,
+			() -> checkLoadedChunk(chunk, database));
 	}
 	
-	private void checkLoadedChunk(LevelChunk chunk)
+	private void checkLoadedChunk(LevelChunk chunk,
+		NewChunksDatabase database)
 	{
 		ChunkPos chunkPos = chunk.getPos();
-		if(newChunks.contains(chunkPos) || oldChunks.contains(chunkPos)
-			|| dontCheckAgain.contains(chunkPos))
+		if(database.isKnown(chunkPos.toLong()))
 			return;
 		
 		int minX = chunkPos.getMinBlockX();
-		int minY = chunk.getMinY();
 		int minZ = chunkPos.getMinBlockZ();
-		int maxX = chunkPos.getMaxBlockX();
 		int maxY = ChunkUtils.getHighestNonEmptySectionYOffset(chunk) + 16;
-		int maxZ = chunkPos.getMaxBlockZ();
 		
-		for(int x = minX; x <= maxX; x++)
-			for(int y = minY; y <= maxY; y++)
-				for(int z = minZ; z <= maxZ; z++)
-				{
-					BlockPos pos = new BlockPos(x, y, z);
-					FluidState fluidState = chunk.getFluidState(pos);
-					
-					if(fluidState.isEmpty() || fluidState.isSource())
-						continue;
+		LevelChunkSection[] sections = chunk.getSections();
+		for(int i = 0; i < sections.length; i++)
+		{
+			int sectionMinY = SectionPos
+				.sectionToBlockCoord(chunk.getSectionYFromSectionIndex(i));
+			if(sectionMinY > maxY)
+				break;
+			
+			// skip sections that don't contain any flowing liquids
+			LevelChunkSection section = sections[i];
+			if(!section.maybeHas(NewChunksHack::isFlowingLiquid))
+				continue;
+			
+			int sectionMaxY = Math.min(sectionMinY + 15, maxY);
+			for(int y = sectionMinY; y <= sectionMaxY; y++)
+				for(int z = 0; z < 16; z++)
+					for(int x = 0; x < 16; x++)
+					{
+						FluidState fluidState =
+							section.getFluidState(x, y & 15, z);
 						
-					// Liquid always generates still, the flowing happens later
-					// through block updates. Therefore any chunk that contains
-					// flowing liquids from the start should be an old chunk.
-					oldChunks.add(chunkPos);
-					oldChunkReasons.add(pos);
-					if(logChunks.isChecked())
-						System.out.println("old chunk at " + chunkPos);
-					return;
-				}
-				
+						if(fluidState.isEmpty() || fluidState.isSource())
+							continue;
+							
+						// Liquid always generates still, the flowing happens
+						// later through block updates. Therefore any chunk
+						// that contains flowing liquids from the start should
+						// be an old chunk.
+						long reason = BlockPos.asLong(minX + x, y, minZ + z);
+						if(!database.addOld(chunkPos.toLong(), reason))
+							return;
+						
+						renderer.markChanged(chunkPos);
+						if(logChunks.isChecked())
+							System.out.println("old chunk at " + chunkPos);
+						return;
+					}
+		}
+		
 		// If the whole loop ran through without finding anything, make sure it
 		// never runs again on that chunk, as that would be a huge waste of CPU
 		// time.
-		dontCheckAgain.add(chunkPos);
+		database.addChecked(chunkPos.toLong());
+	}
+	
+	private static boolean isFlowingLiquid(BlockState state)
+	{
+		FluidState fluidState = state.getFluidState();
+		return !fluidState.isEmpty() && !fluidState.isSource();
 	}
 	
 	public void afterUpdateBlock(BlockPos pos)
@@ -228,17 +314,22 @@ public final class NewChunksHack extends Hack
 		if(!isEnabled())
 			return;
 		
+		if(database == null)
+		{
+			pendingBlocks.add(pos.asLong());
+			return;
+		}
+		
 		// Liquid starts flowing -> probably a new chunk
 		FluidState fluidState = BlockUtils.getState(pos).getFluidState();
 		if(fluidState.isEmpty() || fluidState.isSource())
 			return;
 		
 		ChunkPos chunkPos = new ChunkPos(pos);
-		if(newChunks.contains(chunkPos) || oldChunks.contains(chunkPos))
+		if(!database.addNew(chunkPos.toLong(), pos.asLong()))
 			return;
 		
-		newChunks.add(chunkPos);
-		newChunkReasons.add(pos);
+		renderer.markChanged(chunkPos);
 		if(logChunks.isChecked())
 			System.out.println("new chunk at " + chunkPos);
 	}
@@ -246,16 +337,14 @@ public final class NewChunksHack extends Hack
 	@Override
 	public void onRender(PoseStack matrixStack, float partialTicks)
 	{
-		if(MC.level.dimensionType() != lastDimension)
+		if(MC.level != lastLevel)
 			reset();
 		
-		RegionPos region = RenderUtils.getCameraRegion();
-		if(!region.equals(lastRegion))
-		{
-			onUpdate();
-			lastRegion = region;
-		}
+		checkLoading();
+		if(database == null)
+			return;
 		
+		renderer.update(database);
 		renderer.render(matrixStack, partialTicks);
 	}
 }
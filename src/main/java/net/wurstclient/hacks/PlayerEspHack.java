@@ -32,6 +32,7 @@ import net.wurstclient.settings.filters.FilterInvisibleSetting;
 import net.wurstclient.settings.filters.FilterSleepingSetting;
 import net.wurstclient.util.EntityUtils;
 import net.wurstclient.util.FakePlayerEntity;
+import net.wurstclient.util.InstancedBoxRenderer;
 import net.wurstclient.util.RenderUtils;
 import net.wurstclient.util.RenderUtils.ColoredBox;
 import net.wurstclient.util.RenderUtils.ColoredPoint;
@@ -84,7 +85,7 @@ public final class PlayerEspHack extends Hack implements UpdateListener,
 		players.clear();
 		
 		Stream<AbstractClientPlayer> stream = MC.level.players()
-			.parallelStream().filter(e -> !e.isRemoved() && e.getHealth() > 0)
+			.stream().filter(e -> !e.isRemoved() && e.getHealth() > 0)
 			.filter(e -> e != MC.player)
 			.filter(e -> !(e instanceof FakePlayerEntity))
 			.filter(e -> Math.abs(e.getY() - MC.player.getY()) <= 1e6);
@@ -117,7 +118,7 @@ public final class PlayerEspHack extends Hack implements UpdateListener,
 				boxes.add(new ColoredBox(box, getColor(e)));
 			}
 			
-			RenderUtils.drawOutlinedBoxes(matrixStack, boxes, false);
+			InstancedBoxRenderer.drawOutlinedBoxes(matrixStack, boxes, false);
 		}
 		
 		if(style.hasLines())
@@ -10,11 +10,10 @@ package net.wurstclient.hacks;
 import java.awt.Color;
 import java.util.Arrays;
 import java.util.List;
-import java.util.function.BiPredicate;
+import java.util.function.Predicate;
 
 import com.mojang.blaze3d.vertex.PoseStack;
 
-import net.minecraft.core.BlockPos;
 import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.phys.AABB;
@@ -29,7 +28,9 @@ import net.wurstclient.hacks.portalesp.PortalEspBlockGroup;
 import net.wurstclient.settings.CheckboxSetting;
 import net.wurstclient.settings.ChunkAreaSetting;
 import net.wurstclient.settings.ColorSetting;
+import net.wurstclient.settings.EspLodSetting;
 import net.wurstclient.settings.EspStyleSetting;
+import net.wurstclient.util.EspCulling;
 import net.wurstclient.util.RenderUtils;
 import net.wurstclient.util.chunk.ChunkSearcher.Result;
 import net.wurstclient.util.chunk.ChunkSearcherCoordinator;
@@ -70,14 +71,17 @@ public final class PortalEspHack extends Hack implements UpdateListener,
 		"The area around the player to search in.\n"
 			+ "Higher values require a faster computer.");
 	
-	private final BiPredicate<BlockPos, BlockState> query =
-		(pos, state) -> state.getBlock() == Blocks.NETHER_PORTAL
+	private final EspLodSetting lod = new EspLodSetting();
+	
+	private final Predicate<BlockState> isPortalBlock =
+		state -> state.getBlock() == Blocks.NETHER_PORTAL
 			|| state.getBlock() == Blocks.END_PORTAL
 			|| state.getBlock() == Blocks.END_PORTAL_FRAME
 			|| state.getBlock() == Blocks.END_GATEWAY;
 	
 	private final ChunkSearcherCoordinator coordinator =
-		new ChunkSearcherCoordinator(query, area);
+		new ChunkSearcherCoordinator(
+			(pos, state) -> isPortalBlock.test(state), isPortalBlock, area);
 	
 	private boolean groupsUpToDate;
 	
@@ -90,6 +94,7 @@ public final class PortalEspHack extends Hack implements UpdateListener,
 		groups.stream().flatMap(PortalEspBlockGroup::getSettings)
 			.forEach(this::addSetting);
 		addSetting(area);
+		addSetting(lod);
 	}
 	
 	@Override
@@ -151,7 +156,7 @@ public final class PortalEspHack extends Hack implements UpdateListener,
 			if(!group.isEnabled())
 				return;
 			
-			List<AABB> boxes = group.getBoxes();
+			List<AABB> boxes = EspCulling.cull(lod.apply(group.getBoxes()));
 			int quadsColor = group.getColorI(0x40);
 			int linesColor = group.getColorI(0x80);
 			
@@ -168,7 +173,7 @@ public final class PortalEspHack extends Hack implements UpdateListener,
 			if(!group.isEnabled())
 				return;
 			
-			List<AABB> boxes = group.getBoxes();
+			List<AABB> boxes = lod.apply(group.getBoxes());
 			List<Vec3> ends = boxes.stream().map(AABB::getCenter).toList();
 			int color = group.getColorI(0x80);
 			
@@ -19,6 +19,7 @@ import net.wurstclient.Category;
 import net.wurstclient.SearchTags;
 import net.wurstclient.events.RenderListener;
 import net.wurstclient.hack.Hack;
+import net.wurstclient.util.EntitySnapshot.Kind;
 import net.wurstclient.util.RenderUtils;
 
 @SearchTags({"prophunt esp"})
@@ -55,7 +56,7 @@ public final class ProphuntEspHack extends Hack implements RenderListener
 		
 		// draw boxes
 		ArrayList<AABB> boxes = new ArrayList<>();
-		for(Entity entity : MC.level.entitiesForRendering())
+		for(Entity entity : WURST.getEntitySnapshot().get(Kind.MOB))
 		{
 			if(!(entity instanceof Mob))
 				continue;
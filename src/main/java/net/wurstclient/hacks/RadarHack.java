@@ -11,7 +11,6 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
-import java.util.stream.StreamSupport;
 
 import net.minecraft.client.multiplayer.ClientLevel;
 import net.minecraft.client.player.LocalPlayer;
@@ -87,8 +86,7 @@ public final class RadarHack extends Hack implements UpdateListener
 		ClientLevel world = MC.level;
 		
 		entities.clear();
-		Stream<Entity> stream = StreamSupport
-			.stream(world.entitiesForRendering().spliterator(), true)
+		Stream<Entity> stream = WURST.getEntitySnapshot().stream()
 			.filter(e -> !e.isRemoved() && e != player)
 			.filter(e -> !(e instanceof FakePlayerEntity))
 			.filter(LivingEntity.class::isInstance)
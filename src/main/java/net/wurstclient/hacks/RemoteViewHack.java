@@ -9,7 +9,6 @@ package net.wurstclient.hacks;
 
 import java.util.Comparator;
 import java.util.stream.Stream;
-import java.util.stream.StreamSupport;
 
 import net.minecraft.network.protocol.game.ServerboundMovePlayerPacket;
 import net.minecraft.world.entity.Entity;
@@ -52,8 +51,7 @@ public final class RemoteViewHack extends Hack
 		// find entity if not already set
 		if(entity == null)
 		{
-			Stream<Entity> stream = StreamSupport
-				.stream(MC.level.entitiesForRendering().spliterator(), true)
+			Stream<Entity> stream = WURST.getEntitySnapshot().stream()
 				.filter(LivingEntity.class::isInstance)
 				.filter(
 					e -> !e.isRemoved() && ((LivingEntity)e).getHealth() > 0)
@@ -125,8 +123,7 @@ public final class RemoteViewHack extends Hack
 		// set entity
 		if(!isEnabled() && viewName != null && !viewName.isEmpty())
 		{
-			entity = StreamSupport
-				.stream(MC.level.entitiesForRendering().spliterator(), false)
+			entity = WURST.getEntitySnapshot().stream()
 				.filter(LivingEntity.class::isInstance)
 				.filter(
 					e -> !e.isRemoved() && ((LivingEntity)e).getHealth() > 0)
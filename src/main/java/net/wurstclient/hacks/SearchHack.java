@@ -10,16 +10,18 @@ package net.wurstclient.hacks;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashSet;
-import java.util.concurrent.ForkJoinPool;
-import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import com.mojang.blaze3d.vertex.DefaultVertexFormat;
 import com.mojang.blaze3d.vertex.PoseStack;
 import com.mojang.blaze3d.vertex.VertexFormat.Mode;
 
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.block.Block;
+import net.minecraft.world.phys.AABB;
 import net.wurstclient.Category;
 import net.wurstclient.SearchTags;
 import net.wurstclient.WurstRenderLayers;
@@ -34,10 +36,12 @@ import net.wurstclient.settings.SliderSetting.ValueDisplay;
 import net.wurstclient.util.BlockVertexCompiler;
 import net.wurstclient.util.ChatUtils;
 import net.wurstclient.util.EasyVertexBuffer;
+import net.wurstclient.util.EspCulling;
 import net.wurstclient.util.RegionPos;
 import net.wurstclient.util.RenderUtils;
 import net.wurstclient.util.RotationUtils;
-import net.wurstclient.util.chunk.ChunkSearcher;
+import net.wurstclient.util.TaskScheduler.Priority;
+import net.wurstclient.util.VertexSlab;
 import net.wurstclient.util.chunk.ChunkSearcherCoordinator;
 
 @SearchTags({"BlockESP", "block esp"})
@@ -62,11 +66,11 @@ public final class SearchHack extends Hack
 	private final ChunkSearcherCoordinator coordinator =
 		new ChunkSearcherCoordinator(area);
 	
-	private ForkJoinPool forkJoinPool;
-	private ForkJoinTask<HashSet<BlockPos>> getMatchingBlocksTask;
-	private ForkJoinTask<ArrayList<int[]>> compileVerticesTask;
+	private CompletableFuture<HashSet<BlockPos>> getMatchingBlocksTask;
+	private ArrayList<CompletableFuture<CompiledChunk>> compileVerticesTasks;
 	
-	private EasyVertexBuffer vertexBuffer;
+	// one buffer per chunk, so that chunks outside of the view can be skipped
+	private final ArrayList<ChunkBuffer> chunkBuffers = new ArrayList<>();
 	private RegionPos bufferRegion;
 	private boolean bufferUpToDate;
 	
@@ -94,8 +98,6 @@ public final class SearchHack extends Hack
 		prevLimit = limit.getValueI();
 		notify = true;
 		
-		forkJoinPool = new ForkJoinPool();
-		
 		bufferUpToDate = false;
 		
 		EVENTS.add(UpdateListener.class, this);
@@ -112,11 +114,8 @@ public final class SearchHack extends Hack
 		
 		stopBuildingBuffer();
 		coordinator.reset();
-		forkJoinPool.shutdownNow();
 		
-		if(vertexBuffer != null)
-			vertexBuffer.close();
-		vertexBuffer = null;
+		closeBuffers();
 		bufferRegion = null;
 	}
 	
@@ -159,11 +158,12 @@ public final class SearchHack extends Hack
 		if(!getMatchingBlocksTask.isDone())
 			return;
 		
-		if(compileVerticesTask == null)
-			startCompileVerticesTask();
+		if(compileVerticesTasks == null)
+			startCompileVerticesTasks();
 		
-		if(!compileVerticesTask.isDone())
-			return;
+		for(CompletableFuture<CompiledChunk> task : compileVerticesTasks)
+			if(!task.isDone())
+				return;
 		
 		if(!bufferUpToDate)
 			setBufferFromTask();
@@ -172,16 +172,18 @@ public final class SearchHack extends Hack
 	@Override
 	public void onRender(PoseStack matrixStack, float partialTicks)
 	{
-		if(vertexBuffer == null || bufferRegion == null)
+		if(chunkBuffers.isEmpty() || bufferRegion == null)
 			return;
 		
 		matrixStack.pushPose();
 		RenderUtils.applyRegionalRenderOffset(matrixStack, bufferRegion);
 		
 		float[] rainbow = RenderUtils.getRainbowColor();
-		vertexBuffer.draw(matrixStack, WurstRenderLayers.ESP_QUADS, rainbow,
-			0.5F);
-		
+		for(ChunkBuffer chunkBuffer : chunkBuffers)
+			if(EspCulling.isVisible(chunkBuffer.bounds()))
+				chunkBuffer.buffer().draw(matrixStack,
+					WurstRenderLayers.ESP_QUADS, rainbow, 0.5F);
+			
 		matrixStack.popPose();
 	}
 	
@@ -191,9 +193,9 @@ public final class SearchHack extends Hack
 			getMatchingBlocksTask.cancel(true);
 		getMatchingBlocksTask = null;
 		
-		if(compileVerticesTask != null)
-			compileVerticesTask.cancel(true);
-		compileVerticesTask = null;
+		if(compileVerticesTasks != null)
+			compileVerticesTasks.forEach(task -> task.cancel(true));
+		compileVerticesTasks = null;
 		
 		bufferUpToDate = false;
 	}
@@ -204,13 +206,13 @@ public final class SearchHack extends Hack
 		Comparator<BlockPos> comparator =
 			Comparator.comparingInt(pos -> eyesPos.distManhattan(pos));
 		
-		getMatchingBlocksTask = forkJoinPool.submit(() -> coordinator
-			.getMatches().parallel().map(ChunkSearcher.Result::pos)
-			.sorted(comparator).limit(limit.getValueLog())
-			.collect(Collectors.toCollection(HashSet::new)));
+		getMatchingBlocksTask = WURST.getTaskScheduler().submit(Priority.NEAR,
+			() -> coordinator.getMatchingPositions().sorted(comparator)
+				.limit(limit.getValueLog())
+				.collect(Collectors.toCollection(HashSet::new)));
 	}
 	
-	private void startCompileVerticesTask()
+	private void startCompileVerticesTasks()
 	{
 		HashSet<BlockPos> matchingBlocks = getMatchingBlocksTask.join();
 		
@@ -224,26 +226,77 @@ public final class SearchHack extends Hack
 			notify = false;
 		}
 		
-		compileVerticesTask = forkJoinPool
-			.submit(() -> BlockVertexCompiler.compile(matchingBlocks));
+		Long2ObjectOpenHashMap<ArrayList<BlockPos>> byChunk =
+			new Long2ObjectOpenHashMap<>();
+		for(BlockPos pos : matchingBlocks)
+			byChunk
+				.computeIfAbsent(ChunkPos.asLong(pos), c -> new ArrayList<>())
+				.add(pos);
+		
+		// each chunk is a separate task, so that they can be compiled on
+		// several workers at once
+		compileVerticesTasks = new ArrayList<>(byChunk.size());
+		for(ArrayList<BlockPos> chunkBlocks : byChunk.values())
+			compileVerticesTasks.add(WURST.getTaskScheduler().submit(
+				Priority.RENDER,
+				() -> new CompiledChunk(BlockVertexCompiler
+					.compileMerged(chunkBlocks, matchingBlocks),
+					getBounds(chunkBlocks))));
+	}
+	
+	private AABB getBounds(ArrayList<BlockPos> blocks)
+	{
+		int minX = Integer.MAX_VALUE;
+		int minY = Integer.MAX_VALUE;
+		int minZ = Integer.MAX_VALUE;
+		int maxX = Integer.MIN_VALUE;
+		int maxY = Integer.MIN_VALUE;
+		int maxZ = Integer.MIN_VALUE;
+		
+		for(BlockPos pos : blocks)
+		{
+			minX = Math.min(minX, pos.getX());
+			minY = Math.min(minY, pos.getY());
+			minZ = Math.min(minZ, pos.getZ());
+			maxX = Math.max(maxX, pos.getX());
+			maxY = Math.max(maxY, pos.getY());
+			maxZ = Math.max(maxZ, pos.getZ());
+		}
+		
+		return new AABB(minX, minY, minZ, maxX + 1, maxY + 1, maxZ + 1);
 	}
 	
 	private void setBufferFromTask()
 	{
-		ArrayList<int[]> vertices = compileVerticesTask.join();
 		RegionPos region = RenderUtils.getCameraRegion();
+		closeBuffers();
 		
-		if(vertexBuffer != null)
-			vertexBuffer.close();
-		
-		vertexBuffer = EasyVertexBuffer.createAndUpload(Mode.QUADS,
-			DefaultVertexFormat.POSITION_COLOR, buffer -> {
-				for(int[] vertex : vertices)
-					buffer.addVertex(vertex[0] - region.x(), vertex[1],
-						vertex[2] - region.z()).setColor(0xFFFFFFFF);
-			});
+		for(CompletableFuture<CompiledChunk> task : compileVerticesTasks)
+		{
+			CompiledChunk compiled = task.join();
+			VertexSlab vertices = compiled.vertices();
+			if(vertices.isEmpty())
+				continue;
+			
+			EasyVertexBuffer buffer = EasyVertexBuffer.createAndUpload(
+				Mode.QUADS, DefaultVertexFormat.POSITION_COLOR,
+				consumer -> vertices.writeTo(consumer, region));
+			chunkBuffers.add(new ChunkBuffer(buffer, compiled.bounds()));
+		}
 		
 		bufferUpToDate = true;
 		bufferRegion = region;
 	}
+	
+	private void closeBuffers()
+	{
+		chunkBuffers.forEach(chunkBuffer -> chunkBuffer.buffer().close());
+		chunkBuffers.clear();
+	}
+	
+	private record CompiledChunk(VertexSlab vertices, AABB bounds)
+	{}
+	
+	private record ChunkBuffer(EasyVertexBuffer buffer, AABB bounds)
+	{}
 }
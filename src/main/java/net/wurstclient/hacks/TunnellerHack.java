@@ -10,7 +10,6 @@ package net.wurstclient.hacks;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashSet;
-import java.util.stream.StreamSupport;
 
 import com.mojang.blaze3d.vertex.DefaultVertexFormat;
 import com.mojang.blaze3d.vertex.PoseStack;
@@ -731,10 +730,9 @@ public final class TunnellerHack extends Hack
 		public boolean canRun()
 		{
 			// check for nearby falling blocks
-			return StreamSupport
-				.stream(MC.level.entitiesForRendering().spliterator(), false)
-				.filter(FallingBlockEntity.class::isInstance)
-				.anyMatch(e -> MC.player.distanceToSqr(e) < 36);
+			return WURST.getEntitySnapshot()
+				.getInRange(MC.player.position(), 6)
+				.anyMatch(FallingBlockEntity.class::isInstance);
 		}
 		
 		@Override
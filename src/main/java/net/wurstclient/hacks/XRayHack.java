@@ -7,8 +7,7 @@
  */
 package net.wurstclient.hacks;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.BitSet;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
@@ -19,6 +18,7 @@ import net.minecraft.client.gui.screens.Screen;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
 import net.wurstclient.Category;
 import net.wurstclient.SearchTags;
 import net.wurstclient.clickgui.screens.EditBlockListScreen;
@@ -27,6 +27,7 @@ import net.wurstclient.events.RenderBlockEntityListener;
 import net.wurstclient.events.SetOpaqueCubeListener;
 import net.wurstclient.events.ShouldDrawSideListener;
 import net.wurstclient.events.UpdateListener;
+import net.wurstclient.event.EventManager;
 import net.wurstclient.hack.Hack;
 import net.wurstclient.mixinterface.ISimpleOption;
 import net.wurstclient.settings.BlockListSetting;
@@ -93,7 +94,13 @@ public final class XRayHack extends Hack implements UpdateListener,
 	private final String renderName =
 		Math.random() < 0.01 ? "X-Wurst" : getName();
 	
-	private ArrayList<String> oreNamesCache;
+	/**
+	 * IDs of all block states that X-Ray shows, indexed by
+	 * {@link Block#getId(BlockState)}. Looking up a bit here is much cheaper
+	 * than looking up a block name, which matters because the render mixins
+	 * call {@link #isVisible(BlockState, BlockPos)} for every block face.
+	 */
+	private BitSet visibleStates;
 	private final ThreadLocal<BlockPos.MutableBlockPos> mutablePosForExposedCheck =
 		ThreadLocal.withInitial(BlockPos.MutableBlockPos::new);
 	
@@ -116,8 +123,9 @@ public final class XRayHack extends Hack implements UpdateListener,
 	@Override
 	protected void onEnable()
 	{
-		// cache block names in case the setting changes while X-Ray is enabled
-		oreNamesCache = new ArrayList<>(ores.getBlockNames());
+		// cache visible states in case the setting changes while X-Ray is
+		// enabled
+		visibleStates = BlockUtils.getStateIds(ores.getBlockNames());
 		
 		// add event listeners
 		EVENTS.add(UpdateListener.class, this);
@@ -177,27 +185,57 @@ public final class XRayHack extends Hack implements UpdateListener,
 	@Override
 	public void onShouldDrawSide(ShouldDrawSideEvent event)
 	{
-		boolean visible =
-			isVisible(event.getState().getBlock(), event.getPos());
+		Boolean rendered =
+			getRenderedOverride(event.getState(), event.getPos());
+		if(rendered != null)
+			event.setRendered(rendered);
+	}
+	
+	/**
+	 * Returns whether the given side should be drawn, or null to let the game
+	 * decide. Called by the block and fluid rendering mixins instead of firing
+	 * a {@link ShouldDrawSideEvent} directly.
+	 *
+	 * <p>
+	 * If X-Ray is the only {@link ShouldDrawSideListener}, this skips creating
+	 * and firing the event, since this runs for every face of every block
+	 * while chunks are being rebuilt.
+	 */
+	public Boolean shouldDrawSide(BlockState state, BlockPos pos)
+	{
+		if(EVENTS.isOnlyListener(ShouldDrawSideListener.class, this))
+			return getRenderedOverride(state, pos);
+		
+		ShouldDrawSideEvent event = ShouldDrawSideEvent.reuse(state, pos);
+		EventManager.fire(event);
+		return event.isRendered();
+	}
+	
+	private Boolean getRenderedOverride(BlockState state, BlockPos pos)
+	{
+		boolean visible = isVisible(state, pos);
 		if(!visible && opacity.getValue() > 0)
-			return;
+			return null;
 		
-		event.setRendered(visible);
+		return visible;
 	}
 	
 	@Override
 	public void onRenderBlockEntity(RenderBlockEntityEvent event)
 	{
 		BlockPos pos = event.getState().blockPos;
-		if(!isVisible(BlockUtils.getBlock(pos), pos))
+		if(!isVisible(BlockUtils.getState(pos), pos))
 			event.cancel();
 	}
 	
 	public boolean isVisible(Block block, BlockPos pos)
 	{
-		String name = BlockUtils.getName(block);
-		int index = Collections.binarySearch(oreNamesCache, name);
-		boolean visible = index >= 0;
+		return isVisible(block.defaultBlockState(), pos);
+	}
+	
+	public boolean isVisible(BlockState state, BlockPos pos)
+	{
+		boolean visible = visibleStates.get(Block.getId(state));
 		
 		if(visible && onlyExposed.isChecked() && pos != null)
 			return isExposed(pos);
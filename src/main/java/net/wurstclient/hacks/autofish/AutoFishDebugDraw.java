@@ -14,7 +14,6 @@ import com.mojang.blaze3d.vertex.PoseStack;
 import com.mojang.blaze3d.vertex.VertexConsumer;
 
 import net.minecraft.client.Minecraft;
-import net.minecraft.client.renderer.MultiBufferSource;
 import net.minecraft.network.protocol.game.ClientboundSoundPacket;
 import net.minecraft.world.entity.projectile.FishingHook;
 import net.minecraft.world.phys.AABB;
@@ -26,6 +25,7 @@ import net.wurstclient.settings.ColorSetting;
 import net.wurstclient.settings.Setting;
 import net.wurstclient.settings.SliderSetting;
 import net.wurstclient.util.EntityUtils;
+import net.wurstclient.util.RenderBatcher;
 import net.wurstclient.util.RenderUtils;
 
 public final class AutoFishDebugDraw
@@ -117,7 +117,6 @@ public final class AutoFishDebugDraw
 		
 		int color = ddColor.getColorI(0xC0);
 		
-		MultiBufferSource.BufferSource vcp = RenderUtils.getVCP();
 		Vec3 camPos = RenderUtils.getCameraPos();
 		
 		for(FishingSpot spot : fishingSpots.getFishingSpots())
@@ -131,7 +130,7 @@ public final class AutoFishDebugDraw
 			matrices.mulPose(spot.input().rotation().toQuaternion());
 			
 			VertexConsumer lineBuffer =
-				vcp.getBuffer(WurstRenderLayers.ESP_LINES);
+				RenderBatcher.getBuffer(WurstRenderLayers.ESP_LINES);
 			
 			RenderUtils.drawOutlinedBox(matrices, lineBuffer, headBox, color);
 			RenderUtils.drawOutlinedBox(matrices, lineBuffer, noseBox, color);
@@ -144,7 +143,7 @@ public final class AutoFishDebugDraw
 				playerPos.subtract(camPos), bobberPos.subtract(camPos), color,
 				0.1F);
 			
-			vcp.endBatch(WurstRenderLayers.ESP_LINES);
+			RenderBatcher.endBatch(WurstRenderLayers.ESP_LINES);
 		}
 	}
 	
@@ -7,17 +7,18 @@
  */
 package net.wurstclient.hacks.newchunks;
 
-import java.util.Set;
-
 import com.mojang.blaze3d.vertex.VertexConsumer;
 
 import net.minecraft.client.renderer.RenderType;
-import net.minecraft.world.level.ChunkPos;
+import net.wurstclient.util.RegionPos;
 
 public interface NewChunksChunkRenderer
 {
-	public void buildBuffer(VertexConsumer buffer, Set<ChunkPos> chunks,
-		int drawDistance);
+	/**
+	 * Adds the given chunks to the buffer, relative to the given region.
+	 */
+	public void buildBuffer(VertexConsumer buffer, long[] chunks,
+		RegionPos region);
 	
 	public RenderType.CompositeRenderType getLayer();
 }
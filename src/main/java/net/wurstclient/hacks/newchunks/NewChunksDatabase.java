@@ -0,0 +1,403 @@
+/*
+ * Copyright (c) 2014-2025 Wurst-Imperium and contributors.
+ *
+ * This source code is subject to the terms of the GNU General Public
+ * License, version 3. If a copy of the GPL was not distributed with this
+ * file, You can obtain one at: https://www.gnu.org/licenses/gpl-3.0.txt
+ */
+package net.wurstclient.hacks.newchunks;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongLinkedOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.ChunkPos;
+
+/**
+ * Stores the results of NewChunks for one dimension of one server.
+ *
+ * <p>
+ * Chunks are kept in memory as {@link net.minecraft.world.level.ChunkPos}
+ * longs in primitive sets. Every new result is also appended to a log file,
+ * which is read back in when the same server and dimension are visited
+ * again. Since results never change once they are found, the log never
+ * needs to be rewritten.
+ *
+ * <p>
+ * The reason for each result is only needed for rendering, so only the most
+ * recent {@link #MAX_REASONS} reasons of each kind are kept in memory. Older
+ * ones are still in the log.
+ *
+ * <p>
+ * Results and reasons are also indexed by region of 32x32 chunks, the same
+ * regions that {@link NewChunksRenderer} builds its buffers for, so that
+ * rebuilding one region doesn't need to look at all of them.
+ *
+ * <p>
+ * All methods are thread-safe.
+ */
+public final class NewChunksDatabase
+{
+	private static final int MAGIC = 0x574E4331; // "WNC1"
+	private static final int HEADER_SIZE = 4;
+	private static final int RECORD_SIZE = 17;
+	
+	private static final byte NEW = 1;
+	private static final byte OLD = 2;
+	private static final byte CHECKED = 3;
+	
+	private static final int MAX_REASONS = 8192;
+	
+	private final Path file;
+	private final Object fileLock = new Object();
+	
+	private final LongOpenHashSet newChunks = new LongOpenHashSet();
+	private final LongOpenHashSet oldChunks = new LongOpenHashSet();
+	private final LongOpenHashSet checkedChunks = new LongOpenHashSet();
+	private final LongLinkedOpenHashSet newChunkReasons =
+		new LongLinkedOpenHashSet();
+	private final LongLinkedOpenHashSet oldChunkReasons =
+		new LongLinkedOpenHashSet();
+	
+	private final RegionIndex newChunksByRegion = new RegionIndex();
+	private final RegionIndex oldChunksByRegion = new RegionIndex();
+	private final RegionIndex newChunkReasonsByRegion = new RegionIndex();
+	private final RegionIndex oldChunkReasonsByRegion = new RegionIndex();
+	
+	// records that haven't been written to the file yet
+	private final ByteArrayOutputStream unsaved = new ByteArrayOutputStream();
+	private final DataOutputStream unsavedOut = new DataOutputStream(unsaved);
+	
+	private NewChunksDatabase(Path file)
+	{
+		this.file = file;
+	}
+	
+	/**
+	 * Opens the database in the given file, or creates an empty one if the
+	 * file doesn't exist yet. Never fails, since losing old results is
+	 * better than breaking NewChunks.
+	 */
+	public static NewChunksDatabase open(Path file)
+	{
+		NewChunksDatabase database = new NewChunksDatabase(file);
+		if(!Files.exists(file))
+			return database;
+		
+		try
+		{
+			database.load();
+			
+		}catch(IOException e)
+		{
+			System.out.println("Couldn't load " + file.getFileName());
+			e.printStackTrace();
+		}
+		
+		return database;
+	}
+	
+	private void load() throws IOException
+	{
+		long validLength = readRecords();
+		if(validLength < HEADER_SIZE)
+		{
+			Path bad = file.resolveSibling(file.getFileName() + ".bad");
+			Files.move(file, bad, StandardCopyOption.REPLACE_EXISTING);
+			System.out.println("Moved unreadable " + file.getFileName()
+				+ " to " + bad.getFileName());
+			return;
+		}
+		
+		// drop anything after the last complete record, e.g. from a crash,
+		// so that new records can be appended safely
+		try(FileChannel channel =
+			FileChannel.open(file, StandardOpenOption.WRITE))
+		{
+			if(channel.size() > validLength)
+				channel.truncate(validLength);
+		}
+	}
+	
+	/**
+	 * Reads all records from the file and returns the length of the part
+	 * that could be read, or 0 if the file isn't a NewChunks log.
+	 */
+	private long readRecords() throws IOException
+	{
+		long validLength = 0;
+		
+		try(DataInputStream in = new DataInputStream(
+			new BufferedInputStream(Files.newInputStream(file))))
+		{
+			if(in.readInt() != MAGIC)
+				return 0;
+			
+			validLength = HEADER_SIZE;
+			while(true)
+			{
+				byte type = in.readByte();
+				long chunk = in.readLong();
+				long reason = in.readLong();
+				if(!apply(type, chunk, reason))
+					break;
+				
+				validLength += RECORD_SIZE;
+			}
+			
+		}catch(EOFException e)
+		{
+			// end of the log
+		}
+		
+		return validLength;
+	}
+	
+	private boolean apply(byte type, long chunk, long reason)
+	{
+		switch(type)
+		{
+			case NEW ->
+			{
+				if(newChunks.add(chunk))
+					newChunksByRegion.addChunk(chunk);
+				addReason(newChunkReasons, newChunkReasonsByRegion, reason);
+			}
+			
+			case OLD ->
+			{
+				if(oldChunks.add(chunk))
+					oldChunksByRegion.addChunk(chunk);
+				addReason(oldChunkReasons, oldChunkReasonsByRegion, reason);
+			}
+			
+			case CHECKED -> checkedChunks.add(chunk);
+			
+			default ->
+			{
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	private void addReason(LongLinkedOpenHashSet reasons, RegionIndex index,
+		long reason)
+	{
+		if(reasons.addAndMoveToLast(reason))
+			index.addBlock(reason);
+		
+		while(reasons.size() > MAX_REASONS)
+			index.removeBlock(reasons.removeFirstLong());
+	}
+	
+	/**
+	 * Returns true if the given chunk has already been marked as new or old,
+	 * or has been checked without finding anything.
+	 */
+	public synchronized boolean isKnown(long chunk)
+	{
+		return newChunks.contains(chunk) || oldChunks.contains(chunk)
+			|| checkedChunks.contains(chunk);
+	}
+	
+	public synchronized boolean isNewOrOld(long chunk)
+	{
+		return newChunks.contains(chunk) || oldChunks.contains(chunk);
+	}
+	
+	/**
+	 * Marks the given chunk as new, unless it's already new or old. Returns
+	 * true if it was marked.
+	 */
+	public synchronized boolean addNew(long chunk, long reason)
+	{
+		if(oldChunks.contains(chunk) || !newChunks.add(chunk))
+			return false;
+		
+		newChunksByRegion.addChunk(chunk);
+		addReason(newChunkReasons, newChunkReasonsByRegion, reason);
+		append(NEW, chunk, reason);
+		return true;
+	}
+	
+	/**
+	 * Marks the given chunk as old, unless it's already new or old. Returns
+	 * true if it was marked.
+	 */
+	public synchronized boolean addOld(long chunk, long reason)
+	{
+		if(newChunks.contains(chunk) || !oldChunks.add(chunk))
+			return false;
+		
+		oldChunksByRegion.addChunk(chunk);
+		addReason(oldChunkReasons, oldChunkReasonsByRegion, reason);
+		append(OLD, chunk, reason);
+		return true;
+	}
+	
+	/**
+	 * Remembers that the given chunk was checked without finding anything,
+	 * so that it's not checked again the next time it's loaded.
+	 */
+	public synchronized void addChecked(long chunk)
+	{
+		if(checkedChunks.add(chunk))
+			append(CHECKED, chunk, 0);
+	}
+	
+	private void append(byte type, long chunk, long reason)
+	{
+		try
+		{
+			unsavedOut.writeByte(type);
+			unsavedOut.writeLong(chunk);
+			unsavedOut.writeLong(reason);
+			
+		}catch(IOException e)
+		{
+			// can't happen with a ByteArrayOutputStream
+			throw new RuntimeException(e);
+		}
+	}
+	
+	/**
+	 * Appends all new results to the file. Can be slow, so it should usually
+	 * be called from an I/O thread.
+	 */
+	public void save()
+	{
+		synchronized(fileLock)
+		{
+			byte[] records;
+			synchronized(this)
+			{
+				if(unsaved.size() == 0)
+					return;
+				
+				records = unsaved.toByteArray();
+				unsaved.reset();
+			}
+			
+			try
+			{
+				Files.createDirectories(file.getParent());
+				boolean isNewFile = !Files.exists(file);
+				
+				try(OutputStream out = Files.newOutputStream(file,
+					StandardOpenOption.CREATE, StandardOpenOption.APPEND))
+				{
+					if(isNewFile)
+						new DataOutputStream(out).writeInt(MAGIC);
+					
+					out.write(records);
+				}
+				
+			}catch(IOException e)
+			{
+				System.out.println("Couldn't save " + file.getFileName());
+				e.printStackTrace();
+			}
+		}
+	}
+	
+	/**
+	 * Returns the new chunks in the given region of 32x32 chunks, i.e. whose
+	 * chunk coordinates shifted right by 5 are the given coordinates.
+	 */
+	public synchronized long[] getNewChunks(int regionX, int regionZ)
+	{
+		return newChunksByRegion.get(regionX, regionZ);
+	}
+	
+	public synchronized long[] getOldChunks(int regionX, int regionZ)
+	{
+		return oldChunksByRegion.get(regionX, regionZ);
+	}
+	
+	public synchronized long[] getNewChunkReasons(int regionX, int regionZ)
+	{
+		return newChunkReasonsByRegion.get(regionX, regionZ);
+	}
+	
+	public synchronized long[] getOldChunkReasons(int regionX, int regionZ)
+	{
+		return oldChunkReasonsByRegion.get(regionX, regionZ);
+	}
+	
+	public synchronized int countNewChunks()
+	{
+		return newChunks.size();
+	}
+	
+	public synchronized int countOldChunks()
+	{
+		return oldChunks.size();
+	}
+	
+	public Path getFile()
+	{
+		return file;
+	}
+	
+	/**
+	 * Chunks ({@link ChunkPos} longs) or reasons ({@link BlockPos} longs) by
+	 * region of 32x32 chunks.
+	 */
+	private static final class RegionIndex
+	{
+		private static final long[] NONE = {};
+		
+		private final Long2ObjectOpenHashMap<LongOpenHashSet> regions =
+			new Long2ObjectOpenHashMap<>();
+		
+		private void addChunk(long chunk)
+		{
+			long region = ChunkPos.asLong(ChunkPos.getX(chunk) >> 5,
+				ChunkPos.getZ(chunk) >> 5);
+			regions.computeIfAbsent(region, r -> new LongOpenHashSet())
+				.add(chunk);
+		}
+		
+		private void addBlock(long pos)
+		{
+			regions.computeIfAbsent(getRegion(pos), r -> new LongOpenHashSet())
+				.add(pos);
+		}
+		
+		private void removeBlock(long pos)
+		{
+			long region = getRegion(pos);
+			LongOpenHashSet values = regions.get(region);
+			if(values != null && values.remove(pos) && values.isEmpty())
+				regions.remove(region);
+		}
+		
+		private static long getRegion(long pos)
+		{
+			return ChunkPos.asLong(BlockPos.getX(pos) >> 9,
+				BlockPos.getZ(pos) >> 9);
+		}
+		
+		private long[] get(int regionX, int regionZ)
+		{
+			LongOpenHashSet values =
+				regions.get(ChunkPos.asLong(regionX, regionZ));
+			return values == null ? NONE : values.toLongArray();
+		}
+	}
+}
@@ -7,8 +7,6 @@
  */
 package net.wurstclient.hacks.newchunks;
 
-import java.util.Set;
-
 import com.mojang.blaze3d.vertex.VertexConsumer;
 
 import net.minecraft.client.renderer.RenderType;
@@ -21,17 +19,12 @@ import net.wurstclient.util.RenderUtils;
 public final class NewChunksOutlineRenderer implements NewChunksChunkRenderer
 {
 	@Override
-	public void buildBuffer(VertexConsumer buffer, Set<ChunkPos> chunks,
-		int drawDistance)
+	public void buildBuffer(VertexConsumer buffer, long[] chunks,
+		RegionPos region)
 	{
-		ChunkPos camChunkPos = new ChunkPos(RenderUtils.getCameraBlockPos());
-		RegionPos region = RegionPos.of(camChunkPos);
-		
-		for(ChunkPos chunkPos : chunks)
+		for(long chunk : chunks)
 		{
-			if(chunkPos.getChessboardDistance(camChunkPos) > drawDistance)
-				continue;
-			
+			ChunkPos chunkPos = new ChunkPos(chunk);
 			BlockPos blockPos =
 				chunkPos.getBlockAt(-region.x(), 0, -region.z());
 			float x1 = blockPos.getX() + 0.5F;
@@ -7,41 +7,27 @@
  */
 package net.wurstclient.hacks.newchunks;
 
-import java.util.List;
-
 import com.mojang.blaze3d.vertex.VertexConsumer;
 
 import net.minecraft.client.renderer.RenderType;
 import net.minecraft.core.BlockPos;
-import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.phys.AABB;
 import net.wurstclient.WurstRenderLayers;
-import net.wurstclient.settings.SliderSetting;
 import net.wurstclient.util.RegionPos;
 import net.wurstclient.util.RenderUtils;
 
 public final class NewChunksReasonsRenderer
 {
-	private final SliderSetting drawDistance;
-	
-	public NewChunksReasonsRenderer(SliderSetting drawDistance)
-	{
-		this.drawDistance = drawDistance;
-	}
-	
-	public void buildBuffer(VertexConsumer buffer, List<BlockPos> reasons)
+	/**
+	 * Adds the given reasons to the buffer, relative to the given region.
+	 */
+	public void buildBuffer(VertexConsumer buffer, long[] reasons,
+		RegionPos region)
 	{
-		ChunkPos camChunkPos = new ChunkPos(RenderUtils.getCameraBlockPos());
-		RegionPos region = RegionPos.of(camChunkPos);
-		int drawDistance = this.drawDistance.getValueI();
-		
-		for(BlockPos pos : reasons)
+		for(long reason : reasons)
 		{
-			ChunkPos chunkPos = new ChunkPos(pos);
-			if(chunkPos.getChessboardDistance(camChunkPos) > drawDistance)
-				continue;
-			
-			AABB box = new AABB(pos).move(-region.x(), 0, -region.z());
+			AABB box = new AABB(BlockPos.of(reason)).move(-region.x(), 0,
+				-region.z());
 			RenderUtils.drawSolidBox(buffer, box, 0xFFFFFFFF);
 		}
 	}
@@ -7,79 +7,343 @@
  */
 package net.wurstclient.hacks.newchunks;
 
-import java.util.function.Consumer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.mojang.blaze3d.vertex.PoseStack;
-import com.mojang.blaze3d.vertex.VertexConsumer;
 
-import net.minecraft.client.renderer.RenderType;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.ChunkPos;
+import net.wurstclient.hacks.newchunks.NewChunksShowSetting.Show;
+import net.wurstclient.hacks.newchunks.NewChunksStyleSetting.Style;
+import net.wurstclient.settings.CheckboxSetting;
 import net.wurstclient.settings.ColorSetting;
 import net.wurstclient.settings.SliderSetting;
 import net.wurstclient.util.BufferWithLayer;
+import net.wurstclient.util.RegionPos;
 import net.wurstclient.util.RenderUtils;
 
+/**
+ * Keeps one set of vertex buffers per region and only rebuilds a region when
+ * its chunks, the style, or the draw distance around it have changed.
+ *
+ * <p>
+ * Regions that are partly outside the draw distance only contain the chunks
+ * that were in range when they were built, so they are rebuilt whenever the
+ * camera enters a different chunk. Regions that are fully in range don't
+ * depend on the camera at all.
+ *
+ * <p>
+ * Altitude, color and opacity are applied when drawing and never require a
+ * rebuild.
+ */
 public final class NewChunksRenderer
 {
-	private final BufferWithLayer[] vertexBuffers = new BufferWithLayer[4];
+	// regions rebuilt per frame, so that changing a setting or teleporting
+	// spreads the uploads over a few frames instead of stalling one
+	private static final int UPLOAD_BUDGET = 4;
 	
+	private static final long[] NONE = {};
+	
+	private final NewChunksStyleSetting style;
+	private final NewChunksShowSetting show;
+	private final CheckboxSetting showReasons;
 	private final SliderSetting altitude;
+	private final SliderSetting drawDistance;
 	private final SliderSetting opacity;
 	private final ColorSetting newChunksColor;
 	private final ColorSetting oldChunksColor;
 	
-	public NewChunksRenderer(SliderSetting altitude, SliderSetting opacity,
-		ColorSetting newChunksColor, ColorSetting oldChunksColor)
+	private final NewChunksReasonsRenderer reasonsRenderer =
+		new NewChunksReasonsRenderer();
+	
+	private final HashMap<RegionPos, RegionBuffers> regions = new HashMap<>();
+	private final Set<RegionPos> changedRegions =
+		ConcurrentHashMap.newKeySet();
+	
+	private ChunkPos lastCamChunk;
+	private Style lastStyle;
+	private Show lastShow;
+	private boolean lastShowReasons;
+	private int lastDrawDistance;
+	
+	public NewChunksRenderer(NewChunksStyleSetting style,
+		NewChunksShowSetting show, CheckboxSetting showReasons,
+		SliderSetting altitude, SliderSetting drawDistance,
+		SliderSetting opacity, ColorSetting newChunksColor,
+		ColorSetting oldChunksColor)
 	{
+		this.style = style;
+		this.show = show;
+		this.showReasons = showReasons;
 		this.altitude = altitude;
+		this.drawDistance = drawDistance;
 		this.opacity = opacity;
 		this.newChunksColor = newChunksColor;
 		this.oldChunksColor = oldChunksColor;
 	}
 	
-	public void updateBuffer(int i, RenderType.CompositeRenderType layer,
-		Consumer<VertexConsumer> callback)
+	/**
+	 * Marks the region of the given chunk as changed, so that it's rebuilt
+	 * in one of the next frames. Can be called from any thread.
+	 */
+	public void markChanged(ChunkPos chunkPos)
 	{
-		vertexBuffers[i] = BufferWithLayer.createAndUpload(layer, callback);
+		changedRegions.add(RegionPos.of(chunkPos));
 	}
 	
-	public void closeBuffers()
+	/**
+	 * Rebuilds up to {@link #UPLOAD_BUDGET} outdated regions, nearest first.
+	 */
+	public void update(NewChunksDatabase database)
+	{
+		ChunkPos camChunk = new ChunkPos(RenderUtils.getCameraBlockPos());
+		int drawDistance = this.drawDistance.getValueI();
+		
+		boolean settingsChanged = style.getSelected() != lastStyle
+			|| show.getSelected() != lastShow
+			|| showReasons.isChecked() != lastShowReasons
+			|| drawDistance != lastDrawDistance;
+		
+		if(settingsChanged || !camChunk.equals(lastCamChunk))
+		{
+			lastStyle = style.getSelected();
+			lastShow = show.getSelected();
+			lastShowReasons = showReasons.isChecked();
+			lastDrawDistance = drawDistance;
+			lastCamChunk = camChunk;
+			updateRegionsInRange(camChunk, drawDistance, settingsChanged);
+		}
+		
+		Iterator<RegionPos> itr = changedRegions.iterator();
+		while(itr.hasNext())
+		{
+			RegionBuffers buffers = regions.get(itr.next());
+			if(buffers != null)
+				buffers.dirty = true;
+			itr.remove();
+		}
+		
+		rebuildDirtyRegions(database, camChunk, drawDistance);
+	}
+	
+	private void updateRegionsInRange(ChunkPos camChunk, int drawDistance,
+		boolean rebuildAll)
 	{
-		for(int i = 0; i < vertexBuffers.length; i++)
+		for(Iterator<Entry<RegionPos, RegionBuffers>> itr =
+			regions.entrySet().iterator(); itr.hasNext();)
 		{
-			if(vertexBuffers[i] == null)
+			Entry<RegionPos, RegionBuffers> entry = itr.next();
+			if(getMinDistance(entry.getKey(), camChunk) <= drawDistance)
 				continue;
 			
-			vertexBuffers[i].close();
-			vertexBuffers[i] = null;
+			entry.getValue().close();
+			itr.remove();
 		}
+		
+		int minX = camChunk.x - drawDistance >> 5;
+		int maxX = camChunk.x + drawDistance >> 5;
+		int minZ = camChunk.z - drawDistance >> 5;
+		int maxZ = camChunk.z + drawDistance >> 5;
+		
+		for(int x = minX; x <= maxX; x++)
+			for(int z = minZ; z <= maxZ; z++)
+			{
+				RegionPos region = new RegionPos(x << 9, z << 9);
+				RegionBuffers buffers =
+					regions.computeIfAbsent(region, r -> new RegionBuffers());
+				
+				boolean partial =
+					getMaxDistance(region, camChunk) > drawDistance;
+				if(rebuildAll || partial || buffers.partial)
+					buffers.dirty = true;
+			}
 	}
 	
-	public void render(PoseStack matrixStack, float partialTicks)
+	private void rebuildDirtyRegions(NewChunksDatabase database,
+		ChunkPos camChunk, int drawDistance)
+	{
+		RegionPos camRegion = RegionPos.of(camChunk);
+		ArrayList<RegionPos> batch = new ArrayList<>();
+		regions.forEach((region, buffers) -> {
+			if(buffers.dirty)
+				batch.add(region);
+		});
+		
+		if(batch.isEmpty())
+			return;
+		
+		batch.sort(Comparator.comparingInt(region -> Math.max(
+			Math.abs(region.x() - camRegion.x()),
+			Math.abs(region.z() - camRegion.z()))));
+		if(batch.size() > UPLOAD_BUDGET)
+			batch.subList(UPLOAD_BUDGET, batch.size()).clear();
+		
+		Show show = this.show.getSelected();
+		boolean reasons = showReasons.isChecked();
+		for(RegionPos region : batch)
+		{
+			int regionX = region.x() >> 9;
+			int regionZ = region.z() >> 9;
+			
+			long[][] sources = new long[4][];
+			sources[0] = show.includesNew()
+				? database.getNewChunks(regionX, regionZ) : NONE;
+			sources[1] = show.includesNew() && reasons
+				? database.getNewChunkReasons(regionX, regionZ) : NONE;
+			sources[2] = show.includesOld()
+				? database.getOldChunks(regionX, regionZ) : NONE;
+			sources[3] = show.includesOld() && reasons
+				? database.getOldChunkReasons(regionX, regionZ) : NONE;
+			
+			RegionBuffers buffers = regions.get(region);
+			buffers.partial = getMaxDistance(region, camChunk) > drawDistance;
+			
+			for(int i = 0; i < sources.length; i++)
+			{
+				boolean isReasons = i % 2 == 1;
+				long[] values = buffers.partial ? filterInRange(sources[i],
+					isReasons, camChunk, drawDistance) : sources[i];
+				buffers.set(i, createBuffer(values, isReasons, region));
+			}
+			
+			buffers.dirty = false;
+		}
+	}
+	
+	private BufferWithLayer createBuffer(long[] values, boolean isReasons,
+		RegionPos region)
 	{
-		matrixStack.pushPose();
-		RenderUtils.applyRegionalRenderOffset(matrixStack);
+		if(values.length == 0)
+			return null;
 		
+		if(isReasons)
+			return BufferWithLayer.createAndUpload(reasonsRenderer.getLayer(),
+				buffer -> reasonsRenderer.buildBuffer(buffer, values, region));
+		
+		NewChunksChunkRenderer chunkRenderer =
+			style.getSelected().getChunkRenderer();
+		return BufferWithLayer.createAndUpload(chunkRenderer.getLayer(),
+			buffer -> chunkRenderer.buildBuffer(buffer, values, region));
+	}
+	
+	/**
+	 * Returns the chunks or reasons of a region that is partly outside the
+	 * draw distance, without the ones that are out of range.
+	 */
+	private long[] filterInRange(long[] values, boolean isReasons,
+		ChunkPos camChunk, int drawDistance)
+	{
+		LongArrayList inRange = new LongArrayList(values.length);
+		for(long value : values)
+		{
+			int chunkX = isReasons ? BlockPos.getX(value) >> 4
+				: ChunkPos.getX(value);
+			int chunkZ = isReasons ? BlockPos.getZ(value) >> 4
+				: ChunkPos.getZ(value);
+			
+			if(Math.abs(chunkX - camChunk.x) <= drawDistance
+				&& Math.abs(chunkZ - camChunk.z) <= drawDistance)
+				inRange.add(value);
+		}
+		
+		return inRange.toLongArray();
+	}
+	
+	/**
+	 * Returns the chessboard distance from the camera chunk to the nearest
+	 * chunk of the given region.
+	 */
+	private static int getMinDistance(RegionPos region, ChunkPos camChunk)
+	{
+		int minX = region.x() >> 4;
+		int minZ = region.z() >> 4;
+		int dx = Math.max(minX - camChunk.x, camChunk.x - minX - 31);
+		int dz = Math.max(minZ - camChunk.z, camChunk.z - minZ - 31);
+		return Math.max(0, Math.max(dx, dz));
+	}
+	
+	/**
+	 * Returns the chessboard distance from the camera chunk to the farthest
+	 * chunk of the given region.
+	 */
+	private static int getMaxDistance(RegionPos region, ChunkPos camChunk)
+	{
+		int minX = region.x() >> 4;
+		int minZ = region.z() >> 4;
+		int dx = Math.max(Math.abs(minX - camChunk.x),
+			Math.abs(minX + 31 - camChunk.x));
+		int dz = Math.max(Math.abs(minZ - camChunk.z),
+			Math.abs(minZ + 31 - camChunk.z));
+		return Math.max(dx, dz);
+	}
+	
+	public void closeBuffers()
+	{
+		regions.values().forEach(RegionBuffers::close);
+		regions.clear();
+		changedRegions.clear();
+		lastCamChunk = null;
+	}
+	
+	public void render(PoseStack matrixStack, float partialTicks)
+	{
 		float alpha = opacity.getValueF();
 		double altitudeD = altitude.getValue();
+		float[] newRgb = newChunksColor.getColorF();
+		float[] oldRgb = oldChunksColor.getColorF();
 		
-		for(int i = 0; i < vertexBuffers.length; i++)
+		for(Entry<RegionPos, RegionBuffers> entry : regions.entrySet())
 		{
-			BufferWithLayer buffer = vertexBuffers[i];
-			if(buffer == null)
-				continue;
+			BufferWithLayer[] vertexBuffers = entry.getValue().vertexBuffers;
 			
 			matrixStack.pushPose();
-			if(i == 0 || i == 2)
-				matrixStack.translate(0, altitudeD, 0);
+			RenderUtils.applyRegionalRenderOffset(matrixStack, entry.getKey());
 			
-			float[] rgb =
-				i < 2 ? newChunksColor.getColorF() : oldChunksColor.getColorF();
-			
-			buffer.draw(matrixStack, rgb, alpha);
+			for(int i = 0; i < vertexBuffers.length; i++)
+			{
+				BufferWithLayer buffer = vertexBuffers[i];
+				if(buffer == null)
+					continue;
+				
+				matrixStack.pushPose();
+				if(i == 0 || i == 2)
+					matrixStack.translate(0, altitudeD, 0);
+				
+				buffer.draw(matrixStack, i < 2 ? newRgb : oldRgb, alpha);
+				
+				matrixStack.popPose();
+			}
 			
 			matrixStack.popPose();
 		}
+	}
+	
+	private static final class RegionBuffers
+	{
+		// new chunks, new chunk reasons, old chunks, old chunk reasons
+		private final BufferWithLayer[] vertexBuffers = new BufferWithLayer[4];
+		private boolean dirty = true;
+		private boolean partial;
+		
+		private void set(int i, BufferWithLayer buffer)
+		{
+			if(vertexBuffers[i] != null)
+				vertexBuffers[i].close();
+			
+			vertexBuffers[i] = buffer;
+		}
 		
-		matrixStack.popPose();
+		private void close()
+		{
+			for(int i = 0; i < vertexBuffers.length; i++)
+				set(i, null);
+		}
 	}
 }
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2014-2025 Wurst-Imperium and contributors.
+ *
+ * This source code is subject to the terms of the GNU General Public
+ * License, version 3. If a copy of the GPL was not distributed with this
+ * file, You can obtain one at: https://www.gnu.org/licenses/gpl-3.0.txt
+ */
+package net.wurstclient.hud;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.minecraft.client.gui.Font;
+import net.minecraft.client.gui.GuiGraphics;
+import net.minecraft.util.CommonColors;
+import net.wurstclient.WurstClient;
+import net.wurstclient.event.EventProfiler;
+import net.wurstclient.event.EventProfiler.Entry;
+
+/**
+ * Shows the slowest event listeners measured by the {@link EventProfiler}.
+ * Toggled with the .profiler command.
+ */
+public final class EventProfilerHUD
+{
+	private static final int MAX_LINES = 10;
+	private static final long REFRESH_INTERVAL = 1_000_000_000L;
+	
+	private final ArrayList<String> lines = new ArrayList<>();
+	private boolean visible;
+	private long lastRefresh;
+	
+	public void render(GuiGraphics context)
+	{
+		if(!visible)
+			return;
+		
+		// sorting all entries every frame would skew the numbers it shows
+		long now = System.nanoTime();
+		if(now - lastRefresh >= REFRESH_INTERVAL)
+		{
+			refresh();
+			lastRefresh = now;
+		}
+		
+		Font tr = WurstClient.MC.font;
+		int posY = context.guiHeight() / 2;
+		
+		int width = 0;
+		for(String line : lines)
+			width = Math.max(width, tr.width(line));
+		context.fill(0, posY - 2, width + 4, posY + lines.size() * 9,
+			0x80000000);
+		
+		context.guiRenderState.up();
+		
+		for(String line : lines)
+		{
+			context.drawString(tr, line, 2, posY, CommonColors.WHITE, false);
+			posY += 9;
+		}
+	}
+	
+	private void refresh()
+	{
+		EventProfiler profiler =
+			WurstClient.INSTANCE.getEventManager().getProfiler();
+		lines.clear();
+		
+		if(!profiler.isRunning())
+		{
+			lines.add("Event profiler: stopped");
+			return;
+		}
+		
+		double seconds = Math.max(profiler.getRunningTime() / 1e9, 1e-3);
+		lines.add("Event profiler (ms per second)");
+		
+		List<Entry> entries = profiler.getEntries();
+		for(Entry e : entries.subList(0, Math.min(MAX_LINES, entries.size())))
+			lines.add(String.format("%.2f %s (%s)",
+				e.totalNanos() / 1e6 / seconds, e.getListenerName(),
+				e.getTypeName()));
+	}
+	
+	public boolean isVisible()
+	{
+		return visible;
+	}
+	
+	public void setVisible(boolean visible)
+	{
+		this.visible = visible;
+		lastRefresh = 0;
+	}
+}
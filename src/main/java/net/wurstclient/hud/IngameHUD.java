@@ -17,6 +17,7 @@ public final class IngameHUD implements GUIRenderListener
 {
 	private final WurstLogo wurstLogo = new WurstLogo();
 	private final HackListHUD hackList = new HackListHUD();
+	private final EventProfilerHUD profilerHud = new EventProfilerHUD();
 	private TabGui tabGui;
 	
 	@Override
@@ -35,6 +36,7 @@ public final class IngameHUD implements GUIRenderListener
 		wurstLogo.render(context);
 		hackList.render(context, partialTicks);
 		tabGui.render(context, partialTicks);
+		profilerHud.render(context);
 		
 		// pinned windows
 		if(!(WurstClient.MC.screen instanceof ClickGuiScreen))
@@ -45,4 +47,9 @@ public final class IngameHUD implements GUIRenderListener
 	{
 		return hackList;
 	}
+	
+	public EventProfilerHUD getProfilerHud()
+	{
+		return profilerHud;
+	}
 }
@@ -51,7 +51,7 @@ public abstract class AbstractBlockStateMixin
 	private void onIsFullCube(BlockGetter world, BlockPos pos,
 		CallbackInfoReturnable<Boolean> cir)
 	{
-		IsNormalCubeEvent event = new IsNormalCubeEvent();
+		IsNormalCubeEvent event = IsNormalCubeEvent.reuse();
 		EventManager.fire(event);
 		
 		cir.setReturnValue(cir.getReturnValue() && !event.isCancelled());
@@ -64,8 +64,8 @@ public abstract class AbstractBlockStateMixin
 		BlockPos blockPos, CallbackInfoReturnable<Float> cir)
 	{
 		GetAmbientOcclusionLightLevelEvent event =
-			new GetAmbientOcclusionLightLevelEvent((BlockState)(Object)this,
-				cir.getReturnValueF());
+			GetAmbientOcclusionLightLevelEvent
+				.reuse((BlockState)(Object)this, cir.getReturnValueF());
 		
 		EventManager.fire(event);
 		cir.setReturnValue(event.getLightLevel());
@@ -22,8 +22,6 @@ import net.minecraft.world.level.BlockAndTintGetter;
 import net.minecraft.world.level.ItemLike;
 import net.minecraft.world.level.block.state.BlockState;
 import net.wurstclient.WurstClient;
-import net.wurstclient.event.EventManager;
-import net.wurstclient.events.ShouldDrawSideListener.ShouldDrawSideEvent;
 import net.wurstclient.hacks.XRayHack;
 
 @Mixin(ModelBlockRenderer.class)
@@ -45,17 +43,16 @@ public abstract class BlockModelRendererMixin implements ItemLike
 		BlockAndTintGetter world, BlockState stateButFromTheOtherMethod,
 		boolean cull, Direction sideButFromTheOtherMethod, BlockPos pos)
 	{
-		ShouldDrawSideEvent event = new ShouldDrawSideEvent(state, pos);
-		EventManager.fire(event);
-		
 		XRayHack xray = WurstClient.INSTANCE.getHax().xRayHack;
-		if(!xray.isOpacityMode() || xray.isVisible(state.getBlock(), pos))
+		Boolean rendered = xray.shouldDrawSide(state, pos);
+		
+		if(!xray.isOpacityMode() || xray.isVisible(state, pos))
 			currentOpacity.set(1F);
 		else
 			currentOpacity.set(xray.getOpacityFloat());
 		
-		if(event.isRendered() != null)
-			return event.isRendered();
+		if(rendered != null)
+			return rendered;
 		
 		return original.call(state, otherState, side);
 	}
@@ -25,7 +25,7 @@ public class ChunkOcclusionGraphBuilderMixin
 		cancellable = true)
 	private void onMarkClosed(BlockPos pos, CallbackInfo ci)
 	{
-		SetOpaqueCubeEvent event = new SetOpaqueCubeEvent();
+		SetOpaqueCubeEvent event = SetOpaqueCubeEvent.reuse();
 		EventManager.fire(event);
 		
 		if(event.isCancelled())
@@ -66,6 +66,7 @@ public class ClientPlayerEntityMixin extends AbstractClientPlayer
 		ordinal = 0), method = "tick()V")
 	private void onTick(CallbackInfo ci)
 	{
+		WurstClient.INSTANCE.getEntitySnapshot().invalidate();
 		EventManager.fire(UpdateEvent.INSTANCE);
 	}
 	
@@ -24,8 +24,6 @@ import net.minecraft.world.level.BlockAndTintGetter;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.material.FluidState;
 import net.wurstclient.WurstClient;
-import net.wurstclient.event.EventManager;
-import net.wurstclient.events.ShouldDrawSideListener.ShouldDrawSideEvent;
 import net.wurstclient.hacks.XRayHack;
 
 @Mixin(LiquidBlockRenderer.class)
@@ -46,17 +44,16 @@ public class FluidRendererMixin
 		BlockAndTintGetter world, BlockPos pos, VertexConsumer vertexConsumer,
 		BlockState blockState, FluidState fluidState)
 	{
-		ShouldDrawSideEvent event = new ShouldDrawSideEvent(blockState, null);
-		EventManager.fire(event);
-		
 		XRayHack xray = WurstClient.INSTANCE.getHax().xRayHack;
-		if(!xray.isOpacityMode() || xray.isVisible(blockState.getBlock(), pos))
+		Boolean rendered = xray.shouldDrawSide(blockState, null);
+		
+		if(!xray.isOpacityMode() || xray.isVisible(blockState, pos))
 			currentOpacity.set(1F);
 		else
 			currentOpacity.set(xray.getOpacityFloat());
 		
-		if(event.isRendered() != null)
-			return !event.isRendered();
+		if(rendered != null)
+			return !rendered;
 		
 		return original.call(side, height, neighborState);
 	}
@@ -25,6 +25,9 @@ import net.minecraft.client.renderer.LevelRenderer;
 import net.wurstclient.WurstClient;
 import net.wurstclient.event.EventManager;
 import net.wurstclient.events.RenderListener.RenderEvent;
+import net.wurstclient.util.EspCulling;
+import net.wurstclient.util.InstancedBoxRenderer;
+import net.wurstclient.util.RenderBatcher;
 
 @Mixin(LevelRenderer.class)
 public class WorldRendererMixin
@@ -51,6 +54,18 @@ public class WorldRendererMixin
 		matrixStack.mulPose(positionMatrix);
 		float tickProgress = tickCounter.getGameTimeDeltaPartialTick(false);
 		RenderEvent event = new RenderEvent(matrixStack, tickProgress);
-		EventManager.fire(event);
+		
+		EspCulling.updateFrustum(positionMatrix, projectionMatrix);
+		RenderBatcher.beginFrame();
+		InstancedBoxRenderer.beginFrame();
+		try
+		{
+			EventManager.fire(event);
+			
+		}finally
+		{
+			// otherwise RenderUtils would keep collecting and never draw
+			RenderBatcher.endFrame();
+		}
 	}
 }
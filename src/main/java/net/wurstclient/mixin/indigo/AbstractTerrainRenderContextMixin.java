@@ -40,8 +40,8 @@ public abstract class AbstractTerrainRenderContextMixin
 		boolean emissive, boolean vanillaShade, CallbackInfo ci)
 	{
 		XRayHack xray = WurstClient.INSTANCE.getHax().xRayHack;
-		if(!xray.isOpacityMode() || xray
-			.isVisible(blockInfo.blockState.getBlock(), blockInfo.blockPos))
+		if(!xray.isOpacityMode()
+			|| xray.isVisible(blockInfo.blockState, blockInfo.blockPos))
 			return;
 		
 		for(int i = 0; i < 4; i++)
@@ -17,8 +17,7 @@ import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.world.level.block.state.BlockState;
-import net.wurstclient.event.EventManager;
-import net.wurstclient.events.ShouldDrawSideListener.ShouldDrawSideEvent;
+import net.wurstclient.WurstClient;
 
 @Pseudo
 @Mixin(
@@ -42,11 +41,10 @@ public abstract class BlockRenderInfoMixin
 	private void onShouldDrawSide(Direction face,
 		CallbackInfoReturnable<Boolean> cir)
 	{
-		ShouldDrawSideEvent event =
-			new ShouldDrawSideEvent(blockState, blockPos);
-		EventManager.fire(event);
+		Boolean rendered = WurstClient.INSTANCE.getHax().xRayHack
+			.shouldDrawSide(blockState, blockPos);
 		
-		if(event.isRendered() != null)
-			cir.setReturnValue(event.isRendered());
+		if(rendered != null)
+			cir.setReturnValue(rendered);
 	}
 }
@@ -18,8 +18,7 @@ import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.world.level.block.state.BlockState;
-import net.wurstclient.event.EventManager;
-import net.wurstclient.events.ShouldDrawSideListener.ShouldDrawSideEvent;
+import net.wurstclient.WurstClient;
 
 /**
  * Last updated for <a href=
@@ -48,10 +47,10 @@ public class AbstractBlockRenderContextMixin
 	private void onIsFaceCulled(@Nullable Direction face,
 		CallbackInfoReturnable<Boolean> cir)
 	{
-		ShouldDrawSideEvent event = new ShouldDrawSideEvent(state, pos);
-		EventManager.fire(event);
+		Boolean rendered =
+			WurstClient.INSTANCE.getHax().xRayHack.shouldDrawSide(state, pos);
 		
-		if(event.isRendered() != null)
-			cir.setReturnValue(!event.isRendered());
+		if(rendered != null)
+			cir.setReturnValue(!rendered);
 	}
 }
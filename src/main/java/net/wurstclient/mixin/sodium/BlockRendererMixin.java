@@ -37,7 +37,7 @@ public class BlockRendererMixin extends AbstractBlockRenderContextMixin
 	private int onBufferQuad(int original)
 	{
 		XRayHack xray = WurstClient.INSTANCE.getHax().xRayHack;
-		if(!xray.isOpacityMode() || xray.isVisible(state.getBlock(), pos))
+		if(!xray.isOpacityMode() || xray.isVisible(state, pos))
 			return original;
 		
 		return original & xray.getOpacityColorMask();
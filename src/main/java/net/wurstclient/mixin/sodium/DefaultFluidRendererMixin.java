@@ -22,8 +22,6 @@ import net.minecraft.world.level.BlockAndTintGetter;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.material.FluidState;
 import net.wurstclient.WurstClient;
-import net.wurstclient.event.EventManager;
-import net.wurstclient.events.ShouldDrawSideListener.ShouldDrawSideEvent;
 import net.wurstclient.hacks.XRayHack;
 
 /**
@@ -48,11 +46,11 @@ public class DefaultFluidRendererMixin
 		BlockPos pos, Direction dir, BlockState state, FluidState fluid,
 		CallbackInfoReturnable<Boolean> cir)
 	{
-		ShouldDrawSideEvent event = new ShouldDrawSideEvent(state, pos);
-		EventManager.fire(event);
+		Boolean rendered =
+			WurstClient.INSTANCE.getHax().xRayHack.shouldDrawSide(state, pos);
 		
-		if(event.isRendered() != null)
-			cir.setReturnValue(!event.isRendered());
+		if(rendered != null)
+			cir.setReturnValue(!rendered);
 	}
 	
 	/**
@@ -68,7 +66,7 @@ public class DefaultFluidRendererMixin
 	{
 		XRayHack xray = WurstClient.INSTANCE.getHax().xRayHack;
 		if(!xray.isOpacityMode()
-			|| xray.isVisible(state.createLegacyBlock().getBlock(), pos))
+			|| xray.isVisible(state.createLegacyBlock(), pos))
 			return original;
 		
 		return original & xray.getOpacityColorMask();
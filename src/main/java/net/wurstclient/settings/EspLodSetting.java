@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2014-2025 Wurst-Imperium and contributors.
+ *
+ * This source code is subject to the terms of the GNU General Public
+ * License, version 3. If a copy of the GPL was not distributed with this
+ * file, You can obtain one at: https://www.gnu.org/licenses/gpl-3.0.txt
+ */
+package net.wurstclient.settings;
+
+import java.util.List;
+
+import net.minecraft.world.phys.AABB;
+import net.wurstclient.util.EspCulling;
+import net.wurstclient.util.RenderUtils.ColoredBox;
+
+public final class EspLodSetting extends SliderSetting
+{
+	public EspLodSetting()
+	{
+		super("LOD distance",
+			"Matches that are further away than this are merged into one box"
+				+ " per chunk section, which keeps the frame rate up when there"
+				+ " are lots of them.\n\n"
+				+ "Tracers then point at the merged boxes.",
+			0, 0, 256, 16, ValueDisplay.INTEGER.withSuffix(" blocks")
+				.withLabel(0, "off"));
+	}
+	
+	public List<AABB> apply(List<AABB> boxes)
+	{
+		return EspCulling.collapseDistant(boxes, getValue());
+	}
+	
+	public List<ColoredBox> applyColored(List<ColoredBox> boxes)
+	{
+		return EspCulling.collapseDistantColored(boxes, getValue());
+	}
+}
@@ -7,6 +7,7 @@
  */
 package net.wurstclient.settings.filterlists;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -14,14 +15,30 @@ import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
+import it.unimi.dsi.fastutil.objects.Reference2ByteOpenHashMap;
 import net.minecraft.world.entity.Entity;
 import net.wurstclient.settings.Setting;
 import net.wurstclient.settings.filters.*;
 
+/**
+ * A list of entity filters that is compiled into a single predicate. The
+ * predicate is only rebuilt when a filter is turned on or off or changes
+ * mode, not for every stream it's applied to.
+ *
+ * <p>
+ * Filters that only depend on the entity's class are tested once per class
+ * and then cached, so only the filters that look at the entity itself (like
+ * health, sleeping, named or pets) are tested for every entity.
+ */
 public class EntityFilterList
 {
 	private final List<EntityFilter> entityFilters;
 	
+	// the state of each filter that the compiled predicate was built for
+	private final boolean[] enabled;
+	private final boolean[] typeOnly;
+	private CompiledFilter compiled;
+	
 	public EntityFilterList(EntityFilter... filters)
 	{
 		this(Arrays.asList(filters));
@@ -30,6 +47,8 @@ public class EntityFilterList
 	public EntityFilterList(List<EntityFilter> filters)
 	{
 		entityFilters = Collections.unmodifiableList(filters);
+		enabled = new boolean[filters.size()];
+		typeOnly = new boolean[filters.size()];
 	}
 	
 	public final void forEach(Consumer<? super Setting> action)
@@ -37,26 +56,68 @@ public class EntityFilterList
 		entityFilters.stream().map(EntityFilter::getSetting).forEach(action);
 	}
 	
+	/**
+	 * Filters the given stream. The stream must be sequential, since the
+	 * compiled filter caches its per-class results in a map that is not
+	 * thread-safe.
+	 */
 	public final <T extends Entity> Stream<T> applyTo(Stream<T> stream)
 	{
-		for(EntityFilter filter : entityFilters)
+		CompiledFilter filter = getCompiledFilter();
+		if(filter.isEmpty())
+			return stream;
+		
+		return stream.filter(filter);
+	}
+	
+	public final boolean testOne(Entity entity)
+	{
+		return getCompiledFilter().test(entity);
+	}
+	
+	private CompiledFilter getCompiledFilter()
+	{
+		boolean changed = compiled == null;
+		
+		for(int i = 0; i < entityFilters.size(); i++)
 		{
-			if(!filter.isFilterEnabled())
+			EntityFilter filter = entityFilters.get(i);
+			boolean isEnabled = filter.isFilterEnabled();
+			boolean isTypeOnly = isEnabled && filter.isTypeOnly();
+			
+			if(enabled[i] == isEnabled && typeOnly[i] == isTypeOnly)
 				continue;
 			
-			stream = stream.filter(filter);
+			enabled[i] = isEnabled;
+			typeOnly[i] = isTypeOnly;
+			changed = true;
 		}
 		
-		return stream;
+		if(changed)
+			compiled = compile();
+		
+		return compiled;
 	}
 	
-	public final boolean testOne(Entity entity)
+	private CompiledFilter compile()
 	{
-		for(EntityFilter filter : entityFilters)
-			if(filter.isFilterEnabled() && !filter.test(entity))
-				return false;
+		ArrayList<EntityFilter> typeFilters = new ArrayList<>();
+		ArrayList<EntityFilter> dynamicFilters = new ArrayList<>();
+		
+		for(int i = 0; i < entityFilters.size(); i++)
+		{
+			if(!enabled[i])
+				continue;
 			
-		return true;
+			EntityFilter filter = entityFilters.get(i);
+			if(typeOnly[i])
+				typeFilters.add(filter);
+			else
+				dynamicFilters.add(filter);
+		}
+		
+		return new CompiledFilter(typeFilters.toArray(new EntityFilter[0]),
+			dynamicFilters.toArray(new EntityFilter[0]));
 	}
 	
 	public static EntityFilterList genericCombat()
@@ -95,6 +156,75 @@ public class EntityFilterList
 	{
 		public boolean isFilterEnabled();
 		
+		/**
+		 * Returns true if this filter currently only depends on
+		 * the entity's class, so that its result can be cached per class.
+		 */
+		public default boolean isTypeOnly()
+		{
+			return false;
+		}
+		
 		public Setting getSetting();
 	}
+	
+	/**
+	 * Single-threaded, see {@link EntityFilterList#applyTo(Stream)}.
+	 */
+	private static final class CompiledFilter implements Predicate<Entity>
+	{
+		private static final byte UNKNOWN = -1;
+		private static final byte REJECTED = 0;
+		private static final byte ACCEPTED = 1;
+		
+		private final EntityFilter[] typeFilters;
+		private final EntityFilter[] dynamicFilters;
+		private final Reference2ByteOpenHashMap<Class<?>> typeResults =
+			new Reference2ByteOpenHashMap<>();
+		
+		private CompiledFilter(EntityFilter[] typeFilters,
+			EntityFilter[] dynamicFilters)
+		{
+			this.typeFilters = typeFilters;
+			this.dynamicFilters = dynamicFilters;
+			typeResults.defaultReturnValue(UNKNOWN);
+		}
+		
+		public boolean isEmpty()
+		{
+			return typeFilters.length == 0 && dynamicFilters.length == 0;
+		}
+		
+		@Override
+		public boolean test(Entity e)
+		{
+			if(typeFilters.length > 0 && !testType(e))
+				return false;
+			
+			for(EntityFilter filter : dynamicFilters)
+				if(!filter.test(e))
+					return false;
+				
+			return true;
+		}
+		
+		private boolean testType(Entity e)
+		{
+			Class<?> type = e.getClass();
+			byte result = typeResults.getByte(type);
+			if(result != UNKNOWN)
+				return result == ACCEPTED;
+			
+			result = ACCEPTED;
+			for(EntityFilter filter : typeFilters)
+				if(!filter.test(e))
+				{
+					result = REJECTED;
+					break;
+				}
+			
+			typeResults.put(type, result);
+			return result == ACCEPTED;
+		}
+	}
 }
@@ -39,6 +39,10 @@ public abstract class AttackDetectingEntityFilter implements EntityFilter
 		}
 	}
 	
+	/**
+	 * The test used in "On" mode. Must only depend on the entity's class,
+	 * since its results are cached per class.
+	 */
 	public abstract boolean onTest(Entity e);
 	
 	public abstract boolean ifCalmTest(Entity e);
@@ -49,6 +53,12 @@ public abstract class AttackDetectingEntityFilter implements EntityFilter
 		return mode.get() == Mode.IF_CALM ? ifCalmTest(e) : onTest(e);
 	}
 	
+	@Override
+	public final boolean isTypeOnly()
+	{
+		return mode.get() == Mode.ON;
+	}
+	
 	@Override
 	public final boolean isFilterEnabled()
 	{
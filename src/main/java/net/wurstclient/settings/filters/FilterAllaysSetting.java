@@ -23,6 +23,12 @@ public final class FilterAllaysSetting extends EntityFilterCheckbox
 		return !(e instanceof Allay);
 	}
 	
+	@Override
+	public boolean isTypeOnly()
+	{
+		return true;
+	}
+	
 	public static FilterAllaysSetting genericCombat(boolean checked)
 	{
 		return new FilterAllaysSetting(
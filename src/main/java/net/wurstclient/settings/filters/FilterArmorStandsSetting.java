@@ -23,6 +23,12 @@ public final class FilterArmorStandsSetting extends EntityFilterCheckbox
 		return !(e instanceof ArmorStand);
 	}
 	
+	@Override
+	public boolean isTypeOnly()
+	{
+		return true;
+	}
+	
 	public static FilterArmorStandsSetting genericCombat(boolean checked)
 	{
 		return new FilterArmorStandsSetting(
@@ -23,6 +23,12 @@ public final class FilterBatsSetting extends EntityFilterCheckbox
 		return !(e instanceof AmbientCreature);
 	}
 	
+	@Override
+	public boolean isTypeOnly()
+	{
+		return true;
+	}
+	
 	public static FilterBatsSetting genericCombat(boolean checked)
 	{
 		return new FilterBatsSetting(
@@ -23,6 +23,12 @@ public final class FilterCrystalsSetting extends EntityFilterCheckbox
 		return !(e instanceof EndCrystal);
 	}
 	
+	@Override
+	public boolean isTypeOnly()
+	{
+		return true;
+	}
+	
 	public static FilterCrystalsSetting genericCombat(boolean checked)
 	{
 		return new FilterCrystalsSetting(
@@ -24,6 +24,12 @@ public final class FilterGolemsSetting extends EntityFilterCheckbox
 		return !(e instanceof AbstractGolem) || e instanceof Shulker;
 	}
 	
+	@Override
+	public boolean isTypeOnly()
+	{
+		return true;
+	}
+	
 	public static FilterGolemsSetting genericCombat(boolean checked)
 	{
 		return new FilterGolemsSetting(
@@ -32,6 +32,12 @@ public final class FilterHostileSetting extends EntityFilterCheckbox
 		return !(e instanceof Enemy);
 	}
 	
+	@Override
+	public boolean isTypeOnly()
+	{
+		return true;
+	}
+	
 	public static FilterHostileSetting genericCombat(boolean checked)
 	{
 		return new FilterHostileSetting(
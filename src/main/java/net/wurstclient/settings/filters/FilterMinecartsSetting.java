@@ -22,4 +22,10 @@ public final class FilterMinecartsSetting extends EntityFilterCheckbox
 	{
 		return !(e instanceof AbstractMinecart);
 	}
+	
+	@Override
+	public boolean isTypeOnly()
+	{
+		return true;
+	}
 }
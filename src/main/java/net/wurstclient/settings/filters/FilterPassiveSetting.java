@@ -41,6 +41,12 @@ public final class FilterPassiveSetting extends EntityFilterCheckbox
 			|| e instanceof WaterAnimal || e instanceof AgeableWaterCreature);
 	}
 	
+	@Override
+	public boolean isTypeOnly()
+	{
+		return true;
+	}
+	
 	public static FilterPassiveSetting genericCombat(boolean checked)
 	{
 		return new FilterPassiveSetting("Won't attack animals like pigs and"
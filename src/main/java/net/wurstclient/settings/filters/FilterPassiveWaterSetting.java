@@ -35,6 +35,12 @@ public final class FilterPassiveWaterSetting extends EntityFilterCheckbox
 			|| e instanceof Axolotl);
 	}
 	
+	@Override
+	public boolean isTypeOnly()
+	{
+		return true;
+	}
+	
 	public static FilterPassiveWaterSetting genericCombat(boolean checked)
 	{
 		return new FilterPassiveWaterSetting("Won't attack passive water mobs"
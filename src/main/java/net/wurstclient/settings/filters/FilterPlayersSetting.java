@@ -23,6 +23,12 @@ public final class FilterPlayersSetting extends EntityFilterCheckbox
 		return !(e instanceof Player);
 	}
 	
+	@Override
+	public boolean isTypeOnly()
+	{
+		return true;
+	}
+	
 	public static FilterPlayersSetting genericCombat(boolean checked)
 	{
 		return new FilterPlayersSetting(
@@ -23,6 +23,12 @@ public final class FilterShulkerBulletSetting extends EntityFilterCheckbox
 		return !(e instanceof ShulkerBullet);
 	}
 	
+	@Override
+	public boolean isTypeOnly()
+	{
+		return true;
+	}
+	
 	public static FilterShulkerBulletSetting genericCombat(boolean checked)
 	{
 		return new FilterShulkerBulletSetting(
@@ -23,6 +23,12 @@ public final class FilterShulkersSetting extends EntityFilterCheckbox
 		return !(e instanceof Shulker);
 	}
 	
+	@Override
+	public boolean isTypeOnly()
+	{
+		return true;
+	}
+	
 	public static FilterShulkersSetting genericCombat(boolean checked)
 	{
 		return new FilterShulkersSetting(
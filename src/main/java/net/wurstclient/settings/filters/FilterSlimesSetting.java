@@ -27,6 +27,12 @@ public final class FilterSlimesSetting extends EntityFilterCheckbox
 		return !(e instanceof Slime) || e instanceof MagmaCube;
 	}
 	
+	@Override
+	public boolean isTypeOnly()
+	{
+		return true;
+	}
+	
 	public static FilterSlimesSetting genericCombat(boolean checked)
 	{
 		return new FilterSlimesSetting("Won't attack slimes.", checked);
@@ -23,6 +23,12 @@ public final class FilterVillagersSetting extends EntityFilterCheckbox
 		return !(e instanceof AbstractVillager);
 	}
 	
+	@Override
+	public boolean isTypeOnly()
+	{
+		return true;
+	}
+	
 	public static FilterVillagersSetting genericCombat(boolean checked)
 	{
 		return new FilterVillagersSetting(
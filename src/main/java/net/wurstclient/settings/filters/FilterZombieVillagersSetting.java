@@ -23,6 +23,12 @@ public final class FilterZombieVillagersSetting extends EntityFilterCheckbox
 		return !(e instanceof ZombieVillager);
 	}
 	
+	@Override
+	public boolean isTypeOnly()
+	{
+		return true;
+	}
+	
 	public static FilterZombieVillagersSetting genericCombat(boolean checked)
 	{
 		return new FilterZombieVillagersSetting(
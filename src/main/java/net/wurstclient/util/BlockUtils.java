@@ -8,6 +8,8 @@
 package net.wurstclient.util;
 
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -81,6 +83,28 @@ public enum BlockUtils
 		}
 	}
 	
+	/**
+	 * Returns a {@link BitSet} containing the IDs
+	 * ({@link Block#getId(BlockState)}) of all states of all blocks in the
+	 * given list of block names. Unknown names are ignored.
+	 */
+	public static BitSet getStateIds(Collection<String> blockNames)
+	{
+		BitSet stateIds = new BitSet();
+		for(String name : blockNames)
+		{
+			Block block = getBlockFromNameOrID(name);
+			if(block == null)
+				continue;
+			
+			for(BlockState state : block.getStateDefinition()
+				.getPossibleStates())
+				stateIds.set(Block.getId(state));
+		}
+		
+		return stateIds;
+	}
+	
 	/**
 	 * @param nameOrId
 	 *            a String containing the block's name
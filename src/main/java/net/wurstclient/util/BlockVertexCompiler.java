@@ -7,104 +7,319 @@
  */
 package net.wurstclient.util;
 
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashSet;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
-import java.util.stream.Stream.Builder;
 
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMaps;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
 import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
 import net.wurstclient.hacks.SearchHack;
 
 /**
- * Converts a {@link HashSet} of block positions into an {@link ArrayList} of
+ * Converts a {@link HashSet} of block positions into a {@link VertexSlab} of
  * vertices that can be used to render those blocks.
  * <p>
+ * All vertices are written into one slab, so no objects are allocated per
+ * vertex.
+ * <p>
+ * Meant to be called from a {@link TaskScheduler} task. It runs on that
+ * task's thread only and stops early if the task is cancelled, in which case
+ * the result is incomplete and should be thrown away.
+ * <p>
  * Used by {@link SearchHack Search} and similar hacks.
  */
 public enum BlockVertexCompiler
 {
 	;
 	
-	public static ArrayList<int[]> compile(HashSet<BlockPos> blocks)
+	public static VertexSlab compile(HashSet<BlockPos> blocks)
 	{
-		return blocks.parallelStream().flatMap(pos -> getVertices(pos, blocks))
-			.collect(Collectors.toCollection(ArrayList::new));
+		VertexSlab slab = new VertexSlab();
+		for(BlockPos pos : blocks)
+		{
+			if(TaskScheduler.isCurrentTaskCancelled())
+				break;
+			
+			addVertices(slab, pos, blocks);
+		}
+		
+		return slab;
 	}
 	
-	public static ArrayList<int[]> compile(HashSet<BlockPos> blocks,
+	public static VertexSlab compile(HashSet<BlockPos> blocks,
 		RegionPos region)
 	{
-		return blocks.parallelStream().flatMap(pos -> getVertices(pos, blocks))
-			.map(v -> applyRegionOffset(v, region))
-			.collect(Collectors.toCollection(ArrayList::new));
+		VertexSlab vertices = compile(blocks);
+		vertices.applyRegionOffset(region);
+		return vertices;
 	}
 	
-	private static int[] applyRegionOffset(int[] vertex, RegionPos region)
+	/**
+	 * Same as {@link #compile(HashSet)}, but merges neighboring faces that
+	 * point in the same direction into larger rectangles. This covers exactly
+	 * the same surface with far fewer quads wherever many matching blocks
+	 * touch each other, e.g. in caves or walls.
+	 */
+	public static VertexSlab compileMerged(HashSet<BlockPos> blocks)
 	{
-		vertex[0] -= region.x();
-		vertex[2] -= region.z();
-		return vertex;
+		return compileMerged(blocks, blocks);
 	}
 	
-	private static Stream<int[]> getVertices(BlockPos pos,
-		HashSet<BlockPos> matchingBlocks)
+	/**
+	 * Same as {@link #compileMerged(HashSet)}, but only for the given part of
+	 * a larger set of blocks, e.g. the blocks in one chunk. Faces between that
+	 * part and the rest of the set are still hidden.
+	 */
+	public static VertexSlab compileMerged(Collection<BlockPos> part,
+		HashSet<BlockPos> blocks)
 	{
-		Builder<int[]> builder = Stream.<int[]> builder();
+		VertexSlab slab = new VertexSlab();
+		for(Long2ObjectMap.Entry<LongArrayList> plane : Long2ObjectMaps
+			.fastIterable(getExposedFaces(part, blocks)))
+		{
+			if(TaskScheduler.isCurrentTaskCancelled())
+				break;
+			
+			mergeFaces(slab, plane.getLongKey(), plane.getValue());
+		}
 		
+		return slab;
+	}
+	
+	public static VertexSlab compileMerged(HashSet<BlockPos> blocks,
+		RegionPos region)
+	{
+		VertexSlab vertices = compileMerged(blocks);
+		vertices.applyRegionOffset(region);
+		return vertices;
+	}
+	
+	/**
+	 * Groups the faces of the given part that aren't covered by another one
+	 * of the given blocks by the plane that they lie in. Planes are keyed by
+	 * direction and position along that direction's axis. Faces are stored
+	 * as their two coordinates within the plane, see
+	 * {@link #packFace(int, int)}.
+	 */
+	private static Long2ObjectOpenHashMap<LongArrayList> getExposedFaces(
+		Collection<BlockPos> part, HashSet<BlockPos> blocks)
+	{
+		Long2ObjectOpenHashMap<LongArrayList> planes =
+			new Long2ObjectOpenHashMap<>();
+		
+		for(BlockPos pos : part)
+			for(Direction side : Direction.values())
+			{
+				if(blocks.contains(pos.relative(side)))
+					continue;
+				
+				Direction.Axis axis = side.getAxis();
+				int plane = pos.get(axis);
+				if(side.getAxisDirection() == Direction.AxisDirection.POSITIVE)
+					plane++;
+				
+				long planeKey =
+					(long)side.ordinal() << 32 | plane & 0xFFFFFFFFL;
+				
+				long face = switch(axis)
+				{
+					case X -> packFace(pos.getZ(), pos.getY());
+					case Y -> packFace(pos.getX(), pos.getZ());
+					case Z -> packFace(pos.getX(), pos.getY());
+				};
+				
+				planes.computeIfAbsent(planeKey, k -> new LongArrayList())
+					.add(face);
+			}
+		
+		return planes;
+	}
+	
+	private static void mergeFaces(VertexSlab slab, long planeKey,
+		LongArrayList faces)
+	{
+		Direction side = Direction.values()[(int)(planeKey >>> 32)];
+		int plane = (int)planeKey;
+		
+		// go row by row, so every rectangle starts at its top left corner
+		long[] sorted = faces.toLongArray();
+		Arrays.sort(sorted);
+		LongOpenHashSet remaining = new LongOpenHashSet(sorted);
+		
+		for(long face : sorted)
+		{
+			if(!remaining.remove(face))
+				continue;
+			
+			int u1 = getU(face);
+			int v1 = getV(face);
+			
+			// grow along the row as far as possible
+			int u2 = u1;
+			while(remaining.remove(packFace(u2 + 1, v1)))
+				u2++;
+			
+			// then add whole rows below it
+			int v2 = v1;
+			while(hasRow(remaining, u1, u2, v2 + 1))
+			{
+				v2++;
+				for(int u = u1; u <= u2; u++)
+					remaining.remove(packFace(u, v2));
+			}
+			
+			addQuad(slab, side, plane, u1, v1, u2 + 1, v2 + 1);
+		}
+	}
+	
+	private static boolean hasRow(LongOpenHashSet faces, int u1, int u2, int v)
+	{
+		for(int u = u1; u <= u2; u++)
+			if(!faces.contains(packFace(u, v)))
+				return false;
+			
+		return true;
+	}
+	
+	/**
+	 * Adds the corners of a merged face, in the same order as
+	 * {@link #addVertices(VertexSlab, BlockPos, HashSet)} would for a single
+	 * block.
+	 */
+	private static void addQuad(VertexSlab slab, Direction side, int p,
+		int u1, int v1, int u2, int v2)
+	{
+		switch(side)
+		{
+			case DOWN ->
+			{
+				slab.add(u1, p, v1);
+				slab.add(u2, p, v1);
+				slab.add(u2, p, v2);
+				slab.add(u1, p, v2);
+			}
+			
+			case UP ->
+			{
+				slab.add(u1, p, v1);
+				slab.add(u1, p, v2);
+				slab.add(u2, p, v2);
+				slab.add(u2, p, v1);
+			}
+			
+			case NORTH ->
+			{
+				slab.add(u1, v1, p);
+				slab.add(u1, v2, p);
+				slab.add(u2, v2, p);
+				slab.add(u2, v1, p);
+			}
+			
+			case EAST ->
+			{
+				slab.add(p, v1, u1);
+				slab.add(p, v2, u1);
+				slab.add(p, v2, u2);
+				slab.add(p, v1, u2);
+			}
+			
+			case SOUTH ->
+			{
+				slab.add(u1, v1, p);
+				slab.add(u2, v1, p);
+				slab.add(u2, v2, p);
+				slab.add(u1, v2, p);
+			}
+			
+			case WEST ->
+			{
+				slab.add(p, v1, u1);
+				slab.add(p, v1, u2);
+				slab.add(p, v2, u2);
+				slab.add(p, v2, u1);
+			}
+		}
+	}
+	
+	/**
+	 * Packs the two in-plane coordinates of a face into a long that sorts
+	 * by v first, then by u.
+	 */
+	private static long packFace(int u, int v)
+	{
+		return (long)v << 32 | (u ^ Integer.MIN_VALUE) & 0xFFFFFFFFL;
+	}
+	
+	private static int getU(long face)
+	{
+		return (int)face ^ Integer.MIN_VALUE;
+	}
+	
+	private static int getV(long face)
+	{
+		return (int)(face >> 32);
+	}
+	
+	private static void addVertices(VertexSlab slab, BlockPos pos,
+		HashSet<BlockPos> matchingBlocks)
+	{
 		if(!matchingBlocks.contains(pos.below()))
 		{
-			builder.accept(getVertex(pos, 0, 0, 0));
-			builder.accept(getVertex(pos, 1, 0, 0));
-			builder.accept(getVertex(pos, 1, 0, 1));
-			builder.accept(getVertex(pos, 0, 0, 1));
+			addVertex(slab, pos, 0, 0, 0);
+			addVertex(slab, pos, 1, 0, 0);
+			addVertex(slab, pos, 1, 0, 1);
+			addVertex(slab, pos, 0, 0, 1);
 		}
 		
 		if(!matchingBlocks.contains(pos.above()))
 		{
-			builder.accept(getVertex(pos, 0, 1, 0));
-			builder.accept(getVertex(pos, 0, 1, 1));
-			builder.accept(getVertex(pos, 1, 1, 1));
-			builder.accept(getVertex(pos, 1, 1, 0));
+			addVertex(slab, pos, 0, 1, 0);
+			addVertex(slab, pos, 0, 1, 1);
+			addVertex(slab, pos, 1, 1, 1);
+			addVertex(slab, pos, 1, 1, 0);
 		}
 		
 		if(!matchingBlocks.contains(pos.north()))
 		{
-			builder.accept(getVertex(pos, 0, 0, 0));
-			builder.accept(getVertex(pos, 0, 1, 0));
-			builder.accept(getVertex(pos, 1, 1, 0));
-			builder.accept(getVertex(pos, 1, 0, 0));
+			addVertex(slab, pos, 0, 0, 0);
+			addVertex(slab, pos, 0, 1, 0);
+			addVertex(slab, pos, 1, 1, 0);
+			addVertex(slab, pos, 1, 0, 0);
 		}
 		
 		if(!matchingBlocks.contains(pos.east()))
 		{
-			builder.accept(getVertex(pos, 1, 0, 0));
-			builder.accept(getVertex(pos, 1, 1, 0));
-			builder.accept(getVertex(pos, 1, 1, 1));
-			builder.accept(getVertex(pos, 1, 0, 1));
+			addVertex(slab, pos, 1, 0, 0);
+			addVertex(slab, pos, 1, 1, 0);
+			addVertex(slab, pos, 1, 1, 1);
+			addVertex(slab, pos, 1, 0, 1);
 		}
 		
 		if(!matchingBlocks.contains(pos.south()))
 		{
-			builder.accept(getVertex(pos, 0, 0, 1));
-			builder.accept(getVertex(pos, 1, 0, 1));
-			builder.accept(getVertex(pos, 1, 1, 1));
-			builder.accept(getVertex(pos, 0, 1, 1));
+			addVertex(slab, pos, 0, 0, 1);
+			addVertex(slab, pos, 1, 0, 1);
+			addVertex(slab, pos, 1, 1, 1);
+			addVertex(slab, pos, 0, 1, 1);
 		}
 		
 		if(!matchingBlocks.contains(pos.west()))
 		{
-			builder.accept(getVertex(pos, 0, 0, 0));
-			builder.accept(getVertex(pos, 0, 0, 1));
-			builder.accept(getVertex(pos, 0, 1, 1));
-			builder.accept(getVertex(pos, 0, 1, 0));
+			addVertex(slab, pos, 0, 0, 0);
+			addVertex(slab, pos, 0, 0, 1);
+			addVertex(slab, pos, 0, 1, 1);
+			addVertex(slab, pos, 0, 1, 0);
 		}
-		
-		return builder.build();
 	}
 	
-	private static int[] getVertex(BlockPos pos, int x, int y, int z)
+	private static void addVertex(VertexSlab slab, BlockPos pos, int x, int y,
+		int z)
 	{
-		return new int[]{pos.getX() + x, pos.getY() + y, pos.getZ() + z};
+		slab.add(pos.getX() + x, pos.getY() + y, pos.getZ() + z);
 	}
 }
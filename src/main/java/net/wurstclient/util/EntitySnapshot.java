@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2014-2025 Wurst-Imperium and contributors.
+ *
+ * This source code is subject to the terms of the GNU General Public
+ * License, version 3. If a copy of the GPL was not distributed with this
+ * file, You can obtain one at: https://www.gnu.org/licenses/gpl-3.0.txt
+ */
+package net.wurstclient.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.stream.Stream;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.client.multiplayer.ClientLevel;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.entity.item.ItemEntity;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.phys.Vec3;
+import net.wurstclient.WurstClient;
+
+/**
+ * A list of all loaded entities that is taken once per tick and shared by
+ * all hacks, sorted into {@link Kind kinds} and into a grid of
+ * chunk columns. Range and type queries only look at the parts of the
+ * snapshot that can match, instead of every hack going through every entity
+ * in the world on its own.
+ *
+ * <p>
+ * The snapshot is taken on first use after each tick starts, so it costs
+ * nothing while no hack uses it. Entities can still move, die or be removed
+ * during the tick, so queries always check the entity's current position,
+ * and callers should still check {@link Entity#isRemoved()} where it
+ * matters.
+ *
+ * <p>
+ * Only safe to use from the client thread.
+ */
+public final class EntitySnapshot
+{
+	// entities can move a bit after the snapshot is taken, so range queries
+	// look at grid cells this much further out and then check the distance
+	private static final double MARGIN = 4;
+	
+	private final ArrayList<Entity> entities = new ArrayList<>();
+	private final EnumMap<Kind, ArrayList<Entity>> byKind =
+		new EnumMap<>(Kind.class);
+	private final Long2ObjectOpenHashMap<ArrayList<Entity>> byChunk =
+		new Long2ObjectOpenHashMap<>();
+	
+	private ClientLevel level;
+	private boolean valid;
+	
+	public EntitySnapshot()
+	{
+		for(Kind kind : Kind.values())
+			byKind.put(kind, new ArrayList<>());
+	}
+	
+	/**
+	 * Makes the next query take a new snapshot. Called at the start of each
+	 * tick.
+	 */
+	public void invalidate()
+	{
+		valid = false;
+	}
+	
+	private void update()
+	{
+		ClientLevel level = WurstClient.MC.level;
+		if(valid && level == this.level)
+			return;
+		
+		entities.clear();
+		byKind.values().forEach(ArrayList::clear);
+		byChunk.clear();
+		this.level = level;
+		valid = true;
+		
+		if(level == null)
+			return;
+		
+		for(Entity entity : level.entitiesForRendering())
+		{
+			if(entity == null)
+				continue;
+			
+			entities.add(entity);
+			byKind.get(Kind.of(entity)).add(entity);
+			
+			long chunk = ChunkPos.asLong(entity.getBlockX() >> 4,
+				entity.getBlockZ() >> 4);
+			byChunk.computeIfAbsent(chunk, c -> new ArrayList<>()).add(entity);
+		}
+	}
+	
+	/**
+	 * Returns all entities in the snapshot.
+	 */
+	public List<Entity> getAll()
+	{
+		update();
+		return Collections.unmodifiableList(entities);
+	}
+	
+	public Stream<Entity> stream()
+	{
+		return getAll().stream();
+	}
+	
+	public List<Entity> get(Kind kind)
+	{
+		update();
+		return Collections.unmodifiableList(byKind.get(kind));
+	}
+	
+	/**
+	 * Returns all entities of the given type, only looking at the kinds
+	 * that can contain it.
+	 */
+	public <T extends Entity> Stream<T> getOfType(Class<T> type)
+	{
+		update();
+		
+		Stream<Entity> stream;
+		if(Player.class.isAssignableFrom(type))
+			stream = byKind.get(Kind.PLAYER).stream();
+		else if(LivingEntity.class.isAssignableFrom(type))
+			stream = Stream.concat(byKind.get(Kind.MOB).stream(),
+				byKind.get(Kind.PLAYER).stream());
+		else if(ItemEntity.class.isAssignableFrom(type))
+			stream = byKind.get(Kind.ITEM).stream();
+		else
+			stream = entities.stream();
+		
+		return stream.filter(type::isInstance).map(type::cast);
+	}
+	
+	/**
+	 * Returns all entities whose position is within the given range of the
+	 * given point.
+	 */
+	public Stream<Entity> getInRange(Vec3 center, double range)
+	{
+		update();
+		
+		double rangeSq = range * range;
+		int minX = (int)Math.floor(center.x - range - MARGIN) >> 4;
+		int maxX = (int)Math.floor(center.x + range + MARGIN) >> 4;
+		int minZ = (int)Math.floor(center.z - range - MARGIN) >> 4;
+		int maxZ = (int)Math.floor(center.z + range + MARGIN) >> 4;
+		
+		// for huge ranges, going through the list is faster than the grid
+		long cells = (long)(maxX - minX + 1) * (maxZ - minZ + 1);
+		if(cells > byChunk.size())
+			return entities.stream()
+				.filter(e -> e.position().distanceToSqr(center) <= rangeSq);
+		
+		ArrayList<Entity> inRange = new ArrayList<>();
+		for(int x = minX; x <= maxX; x++)
+			for(int z = minZ; z <= maxZ; z++)
+			{
+				ArrayList<Entity> cell = byChunk.get(ChunkPos.asLong(x, z));
+				if(cell == null)
+					continue;
+				
+				for(Entity e : cell)
+					if(e.position().distanceToSqr(center) <= rangeSq)
+						inRange.add(e);
+			}
+		
+		return inRange.stream();
+	}
+	
+	public static enum Kind
+	{
+		/**
+		 * All players, including the local player and fake players.
+		 */
+		PLAYER,
+		
+		/**
+		 * All other living entities.
+		 */
+		MOB,
+		
+		ITEM,
+		
+		/**
+		 * Everything else, like end crystals, projectiles and vehicles.
+		 */
+		OTHER;
+		
+		public static Kind of(Entity entity)
+		{
+			if(entity instanceof Player)
+				return PLAYER;
+			
+			if(entity instanceof LivingEntity)
+				return MOB;
+			
+			if(entity instanceof ItemEntity)
+				return ITEM;
+			
+			return OTHER;
+		}
+	}
+}
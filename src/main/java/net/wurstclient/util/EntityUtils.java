@@ -9,7 +9,6 @@ package net.wurstclient.util;
 
 import java.util.function.Predicate;
 import java.util.stream.Stream;
-import java.util.stream.StreamSupport;
 
 import net.minecraft.client.Minecraft;
 import net.minecraft.util.Mth;
@@ -31,8 +30,7 @@ public enum EntityUtils
 	
 	public static Stream<Entity> getAttackableEntities()
 	{
-		return StreamSupport
-			.stream(MC.level.entitiesForRendering().spliterator(), true)
+		return WURST.getEntitySnapshot().stream()
 			.filter(IS_ATTACKABLE);
 	}
 	
@@ -45,9 +43,7 @@ public enum EntityUtils
 	
 	public static Stream<Animal> getValidAnimals()
 	{
-		return StreamSupport
-			.stream(MC.level.entitiesForRendering().spliterator(), true)
-			.filter(Animal.class::isInstance).map(e -> (Animal)e)
+		return WURST.getEntitySnapshot().getOfType(Animal.class)
 			.filter(IS_VALID_ANIMAL);
 	}
 	
@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2014-2025 Wurst-Imperium and contributors.
+ *
+ * This source code is subject to the terms of the GNU General Public
+ * License, version 3. If a copy of the GPL was not distributed with this
+ * file, You can obtain one at: https://www.gnu.org/licenses/gpl-3.0.txt
+ */
+package net.wurstclient.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import org.joml.FrustumIntersection;
+import org.joml.Matrix4f;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.SectionPos;
+import net.minecraft.util.Mth;
+import net.minecraft.world.phys.AABB;
+import net.minecraft.world.phys.Vec3;
+import net.wurstclient.util.RenderUtils.ColoredBox;
+
+/**
+ * Shared culling stage for ESP hacks. Boxes that are outside of the camera's
+ * view can be dropped before any vertices are written for them, and boxes
+ * that are far away can be merged into one marker per chunk section, so that
+ * looking at a dense base doesn't cost more than looking away from it.
+ *
+ * <p>
+ * The frustum is updated right before each
+ * {@link net.wurstclient.events.RenderListener.RenderEvent}. Until the first
+ * frame, everything counts as visible.
+ */
+public enum EspCulling
+{
+	;
+	
+	private static FrustumIntersection frustum;
+	private static Vec3 frustumPos = Vec3.ZERO;
+	
+	/**
+	 * Updates the frustum from the matrices of the current frame. Called
+	 * right before the render event is fired.
+	 */
+	public static void updateFrustum(Matrix4f positionMatrix,
+		Matrix4f projectionMatrix)
+	{
+		Matrix4f matrix = new Matrix4f(projectionMatrix).mul(positionMatrix);
+		
+		if(frustum == null)
+			frustum = new FrustumIntersection(matrix, false);
+		else
+			frustum.set(matrix, false);
+		
+		frustumPos = RenderUtils.getCameraPos();
+	}
+	
+	/**
+	 * Returns true if any part of the given box is inside the camera's view.
+	 */
+	public static boolean isVisible(AABB box)
+	{
+		if(frustum == null)
+			return true;
+		
+		return frustum.testAab((float)(box.minX - frustumPos.x),
+			(float)(box.minY - frustumPos.y), (float)(box.minZ - frustumPos.z),
+			(float)(box.maxX - frustumPos.x), (float)(box.maxY - frustumPos.y),
+			(float)(box.maxZ - frustumPos.z));
+	}
+	
+	/**
+	 * Returns the boxes that are inside the camera's view.
+	 */
+	public static List<AABB> cull(List<AABB> boxes)
+	{
+		ArrayList<AABB> visible = new ArrayList<>(boxes.size());
+		for(AABB box : boxes)
+			if(isVisible(box))
+				visible.add(box);
+		
+		return visible;
+	}
+	
+	/**
+	 * Returns the boxes that are inside the camera's view.
+	 */
+	public static List<ColoredBox> cullColored(List<ColoredBox> boxes)
+	{
+		ArrayList<ColoredBox> visible = new ArrayList<>(boxes.size());
+		for(ColoredBox box : boxes)
+			if(isVisible(box.box()))
+				visible.add(box);
+		
+		return visible;
+	}
+	
+	/**
+	 * Merges all boxes that are further away from the camera than the given
+	 * distance into one box per chunk section, covering all of them. Boxes
+	 * that are closer are kept as they are. A distance of 0 turns this off.
+	 */
+	public static List<AABB> collapseDistant(List<AABB> boxes,
+		double distance)
+	{
+		if(distance <= 0)
+			return boxes;
+		
+		Vec3 camPos = RenderUtils.getCameraPos();
+		double distanceSq = distance * distance;
+		
+		ArrayList<AABB> result = new ArrayList<>();
+		Long2ObjectOpenHashMap<AABB> merged = new Long2ObjectOpenHashMap<>();
+		
+		for(AABB box : boxes)
+		{
+			Vec3 center = box.getCenter();
+			if(center.distanceToSqr(camPos) <= distanceSq)
+			{
+				result.add(box);
+				continue;
+			}
+			
+			merged.merge(getSection(center), box, AABB::minmax);
+		}
+		
+		result.addAll(merged.values());
+		return result;
+	}
+	
+	/**
+	 * Same as {@link #collapseDistant(List, double)}, but only merges boxes
+	 * that have the same color.
+	 */
+	public static List<ColoredBox> collapseDistantColored(
+		List<ColoredBox> boxes, double distance)
+	{
+		if(distance <= 0)
+			return boxes;
+		
+		Vec3 camPos = RenderUtils.getCameraPos();
+		double distanceSq = distance * distance;
+		
+		ArrayList<ColoredBox> result = new ArrayList<>();
+		HashMap<SectionColor, AABB> merged = new HashMap<>();
+		
+		for(ColoredBox coloredBox : boxes)
+		{
+			AABB box = coloredBox.box();
+			Vec3 center = box.getCenter();
+			if(center.distanceToSqr(camPos) <= distanceSq)
+			{
+				result.add(coloredBox);
+				continue;
+			}
+			
+			SectionColor key =
+				new SectionColor(getSection(center), coloredBox.color());
+			merged.merge(key, box, AABB::minmax);
+		}
+		
+		merged.forEach(
+			(key, box) -> result.add(new ColoredBox(box, key.color())));
+		return result;
+	}
+	
+	private static long getSection(Vec3 pos)
+	{
+		return SectionPos.asLong(Mth.floor(pos.x) >> 4, Mth.floor(pos.y) >> 4,
+			Mth.floor(pos.z) >> 4);
+	}
+	
+	private record SectionColor(long section, int color)
+	{}
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2014-2025 Wurst-Imperium and contributors.
+ *
+ * This source code is subject to the terms of the GNU General Public
+ * License, version 3. If a copy of the GPL was not distributed with this
+ * file, You can obtain one at: https://www.gnu.org/licenses/gpl-3.0.txt
+ */
+package net.wurstclient.util;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+
+import org.joml.Matrix4fStack;
+import org.joml.Vector3f;
+import org.joml.Vector4f;
+
+import com.mojang.blaze3d.buffers.GpuBuffer;
+import com.mojang.blaze3d.buffers.GpuBufferSlice;
+import com.mojang.blaze3d.pipeline.RenderTarget;
+import com.mojang.blaze3d.systems.RenderPass;
+import com.mojang.blaze3d.systems.RenderSystem;
+import com.mojang.blaze3d.vertex.BufferBuilder;
+import com.mojang.blaze3d.vertex.DefaultVertexFormat;
+import com.mojang.blaze3d.vertex.MeshData;
+import com.mojang.blaze3d.vertex.PoseStack;
+import com.mojang.blaze3d.vertex.Tesselator;
+import com.mojang.blaze3d.vertex.VertexFormat.Mode;
+
+import net.minecraft.client.renderer.RenderType;
+import net.minecraft.world.phys.AABB;
+import net.minecraft.world.phys.Vec3;
+import net.wurstclient.WurstRenderLayers;
+import net.wurstclient.util.RenderUtils.ColoredBox;
+
+/**
+ * Draws the outlines of many boxes at once, for ESP hacks that can have
+ * thousands of them on screen. A unit cube is uploaded once, and each frame
+ * only the corners and color of each box are uploaded, instead of all 12
+ * edges of each box. The instanced_box_lines shader then moves and scales the
+ * cube for each box.
+ *
+ * <p>
+ * Vertex formats can't have per-instance attributes, so the box data is
+ * passed in a uniform buffer instead. Uniform buffers are only guaranteed to
+ * hold 16 KiB, so every {@link #MAX_INSTANCES} boxes take one draw call.
+ *
+ * <p>
+ * Every draw call in a frame gets its own instance buffer, so that the driver
+ * doesn't have to wait for the previous draw before overwriting it. The
+ * buffers are reused from the first one again in the next frame.
+ */
+public enum InstancedBoxRenderer
+{
+	;
+	
+	// must match the size of the Boxes array in instanced_box_lines.vsh
+	private static final int MAX_INSTANCES = 256;
+	
+	// min corner, max corner and color, as one vec4 each
+	private static final int INSTANCE_SIZE = 3 * 16;
+	
+	// Past this many draw calls in a frame (or outside of the render event,
+	// where nothing calls beginFrame()), buffers are reused and the driver
+	// may have to wait after all.
+	private static final int MAX_BUFFERS = 64;
+	
+	private static final ByteBuffer INSTANCE_DATA = ByteBuffer
+		.allocateDirect(MAX_INSTANCES * INSTANCE_SIZE)
+		.order(ByteOrder.nativeOrder());
+	
+	private static final ArrayList<GpuBuffer> instanceBuffers =
+		new ArrayList<>();
+	private static int usedBuffers;
+	
+	private static GpuBuffer cubeVertices;
+	private static RenderSystem.AutoStorageIndexBuffer cubeIndices;
+	private static int cubeIndexCount;
+	
+	/**
+	 * Starts reusing the instance buffers of the previous frame. Called right
+	 * before the render event is fired.
+	 */
+	public static void beginFrame()
+	{
+		usedBuffers = 0;
+	}
+	
+	public static void drawOutlinedBoxes(PoseStack matrixStack,
+		List<ColoredBox> boxes, boolean depthTest)
+	{
+		if(boxes.isEmpty())
+			return;
+		
+		if(cubeVertices == null)
+			uploadCube();
+		
+		RenderType.CompositeRenderType layer =
+			WurstRenderLayers.getInstancedBoxLines(depthTest);
+		Vec3 camPos = RenderUtils.getCameraPos();
+		
+		for(int start = 0; start < boxes.size(); start += MAX_INSTANCES)
+		{
+			int end = Math.min(start + MAX_INSTANCES, boxes.size());
+			GpuBuffer instances = getInstanceBuffer();
+			
+			writeInstances(instances, boxes.subList(start, end), camPos);
+			draw(matrixStack, layer, instances, end - start);
+		}
+	}
+	
+	public static void drawOutlinedBoxes(PoseStack matrixStack,
+		List<AABB> boxes, int color, boolean depthTest)
+	{
+		ArrayList<ColoredBox> coloredBoxes = new ArrayList<>(boxes.size());
+		for(AABB box : boxes)
+			coloredBoxes.add(new ColoredBox(box, color));
+		
+		drawOutlinedBoxes(matrixStack, coloredBoxes, depthTest);
+	}
+	
+	private static void uploadCube()
+	{
+		BufferBuilder bufferBuilder = Tesselator.getInstance()
+			.begin(Mode.LINES, DefaultVertexFormat.POSITION_COLOR_NORMAL);
+		RenderUtils.drawOutlinedBox(bufferBuilder, new AABB(0, 0, 0, 1, 1, 1),
+			0xFFFFFFFF);
+		
+		try(MeshData mesh = bufferBuilder.buildOrThrow())
+		{
+			cubeIndices = RenderSystem.getSequentialBuffer(Mode.LINES);
+			cubeIndexCount = mesh.drawState().indexCount();
+			cubeVertices = RenderSystem.getDevice().createBuffer(
+				() -> "Wurst unit cube", GpuBuffer.USAGE_VERTEX,
+				mesh.vertexBuffer());
+		}
+	}
+	
+	/**
+	 * Returns an instance buffer that hasn't been used yet in this frame.
+	 */
+	private static GpuBuffer getInstanceBuffer()
+	{
+		if(usedBuffers == MAX_BUFFERS)
+			usedBuffers = 0;
+		
+		int i = usedBuffers++;
+		while(instanceBuffers.size() <= i)
+			instanceBuffers.add(RenderSystem.getDevice().createBuffer(
+				() -> "Wurst box instances",
+				GpuBuffer.USAGE_UNIFORM | GpuBuffer.USAGE_COPY_DST,
+				MAX_INSTANCES * INSTANCE_SIZE));
+		
+		return instanceBuffers.get(i);
+	}
+	
+	private static void writeInstances(GpuBuffer instances,
+		List<ColoredBox> boxes, Vec3 camPos)
+	{
+		ByteBuffer data = INSTANCE_DATA.clear();
+		for(ColoredBox coloredBox : boxes)
+		{
+			AABB box = coloredBox.box();
+			data.putFloat((float)(box.minX - camPos.x));
+			data.putFloat((float)(box.minY - camPos.y));
+			data.putFloat((float)(box.minZ - camPos.z));
+			data.putFloat(0);
+			
+			data.putFloat((float)(box.maxX - camPos.x));
+			data.putFloat((float)(box.maxY - camPos.y));
+			data.putFloat((float)(box.maxZ - camPos.z));
+			data.putFloat(0);
+			
+			int color = coloredBox.color();
+			data.putFloat((color >> 16 & 0xFF) / 255F);
+			data.putFloat((color >> 8 & 0xFF) / 255F);
+			data.putFloat((color & 0xFF) / 255F);
+			data.putFloat((color >>> 24) / 255F);
+		}
+		data.flip();
+		
+		RenderSystem.getDevice().createCommandEncoder()
+			.writeToBuffer(instances.slice(0, data.remaining()), data);
+	}
+	
+	private static void draw(PoseStack matrixStack,
+		RenderType.CompositeRenderType layer, GpuBuffer instances, int count)
+	{
+		Matrix4fStack modelViewStack = RenderSystem.getModelViewStack();
+		modelViewStack.pushMatrix();
+		modelViewStack.mul(matrixStack.last().pose());
+		
+		layer.setupRenderState();
+		GpuBufferSlice gpuBufferSlice = RenderSystem.getDynamicUniforms()
+			.writeTransform(RenderSystem.getModelViewMatrix(),
+				new Vector4f(1, 1, 1, 1), new Vector3f(),
+				RenderSystem.getTextureMatrix(),
+				RenderSystem.getShaderLineWidth());
+		
+		RenderTarget framebuffer = layer.state.outputState.getRenderTarget();
+		GpuBuffer indexBuffer = cubeIndices.getBuffer(cubeIndexCount);
+		
+		try(RenderPass renderPass =
+			RenderSystem.getDevice().createCommandEncoder().createRenderPass(
+				() -> "Wurst instanced boxes",
+				framebuffer.getColorTextureView(), OptionalInt.empty(),
+				framebuffer.getDepthTextureView(), OptionalDouble.empty()))
+		{
+			renderPass.setPipeline(layer.renderPipeline);
+			RenderSystem.bindDefaultUniforms(renderPass);
+			renderPass.setUniform("DynamicTransforms", gpuBufferSlice);
+			renderPass.setUniform("BoxInstances", instances);
+			renderPass.setVertexBuffer(0, cubeVertices);
+			renderPass.setIndexBuffer(indexBuffer, cubeIndices.type());
+			renderPass.drawIndexed(0, 0, cubeIndexCount, count);
+		}
+		
+		layer.clearRenderState();
+		modelViewStack.popMatrix();
+	}
+}
@@ -7,8 +7,6 @@
  */
 package net.wurstclient.util;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -34,11 +32,4 @@ public class MinPriorityThreadFactory implements ThreadFactory
 		t.setPriority(Thread.MIN_PRIORITY);
 		return t;
 	}
-	
-	public static ExecutorService newFixedThreadPool()
-	{
-		return Executors.newFixedThreadPool(
-			Runtime.getRuntime().availableProcessors(),
-			new MinPriorityThreadFactory());
-	}
 }
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2014-2025 Wurst-Imperium and contributors.
+ *
+ * This source code is subject to the terms of the GNU General Public
+ * License, version 3. If a copy of the GPL was not distributed with this
+ * file, You can obtain one at: https://www.gnu.org/licenses/gpl-3.0.txt
+ */
+package net.wurstclient.util;
+
+import java.util.LinkedHashMap;
+
+import com.mojang.blaze3d.vertex.ByteBufferBuilder;
+import com.mojang.blaze3d.vertex.VertexConsumer;
+
+import net.minecraft.client.renderer.MultiBufferSource;
+import net.minecraft.client.renderer.RenderType;
+import net.wurstclient.WurstRenderLayers;
+
+/**
+ * Collects the boxes, lines and tracers that hacks draw during a
+ * {@link net.wurstclient.events.RenderListener.RenderEvent} and draws them
+ * all at the end of it, with one draw call per render layer instead of one
+ * per hack, style and depth test mode.
+ *
+ * <p>
+ * Each batched layer has its own buffer, so submitting to one layer never
+ * flushes another. Line strips can't be merged without connecting them, so
+ * they are never batched.
+ *
+ * <p>
+ * Outside of the render event, everything is drawn right away, exactly like
+ * before.
+ */
+public enum RenderBatcher
+{
+	;
+	
+	private static final RenderType[] BATCHED_LAYERS =
+		{WurstRenderLayers.LINES, WurstRenderLayers.ESP_LINES,
+			WurstRenderLayers.QUADS, WurstRenderLayers.ESP_QUADS};
+	
+	private static MultiBufferSource.BufferSource vcp;
+	private static boolean batching;
+	
+	/**
+	 * Starts collecting. Called right before the render event is fired.
+	 */
+	public static void beginFrame()
+	{
+		batching = true;
+	}
+	
+	/**
+	 * Draws everything that was collected since {@link #beginFrame()}.
+	 * Called right after the render event, while the matrices that the
+	 * hacks drew with are still in place.
+	 */
+	public static void endFrame()
+	{
+		batching = false;
+		if(vcp != null)
+			vcp.endBatch();
+	}
+	
+	/**
+	 * Returns a buffer for the given layer. Must be followed by
+	 * {@link #endBatch(RenderType)} once the caller is done with it.
+	 */
+	public static VertexConsumer getBuffer(RenderType layer)
+	{
+		if(isBatched(layer))
+			return getBatchVCP().getBuffer(layer);
+		
+		return RenderUtils.getVCP().getBuffer(layer);
+	}
+	
+	/**
+	 * Draws the given layer right away, unless it's being batched, in which
+	 * case it's drawn at the end of the frame.
+	 */
+	public static void endBatch(RenderType layer)
+	{
+		if(isBatched(layer))
+			return;
+		
+		RenderUtils.getVCP().endBatch(layer);
+	}
+	
+	private static boolean isBatched(RenderType layer)
+	{
+		if(!batching)
+			return false;
+		
+		for(RenderType batchedLayer : BATCHED_LAYERS)
+			if(batchedLayer == layer)
+				return true;
+		
+		return false;
+	}
+	
+	private static MultiBufferSource.BufferSource getBatchVCP()
+	{
+		if(vcp != null)
+			return vcp;
+		
+		// created on first use, so that nothing is allocated until a hack
+		// actually draws something
+		LinkedHashMap<RenderType, ByteBufferBuilder> buffers =
+			new LinkedHashMap<>();
+		for(RenderType layer : BATCHED_LAYERS)
+			buffers.put(layer, new ByteBufferBuilder(layer.bufferSize()));
+		
+		vcp = MultiBufferSource.immediateWithBuffers(buffers,
+			new ByteBufferBuilder(1536));
+		return vcp;
+	}
+}
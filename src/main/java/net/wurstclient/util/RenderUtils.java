@@ -114,14 +114,13 @@ public enum RenderUtils
 	public static void drawLine(PoseStack matrices, Vec3 start, Vec3 end,
 		int color, boolean depthTest)
 	{
-		MultiBufferSource.BufferSource vcp = getVCP();
 		RenderType layer = WurstRenderLayers.getLines(depthTest);
-		VertexConsumer buffer = vcp.getBuffer(layer);
+		VertexConsumer buffer = RenderBatcher.getBuffer(layer);
 		
 		Vec3 offset = getCameraPos().reverse();
 		drawLine(matrices, buffer, start.add(offset), end.add(offset), color);
 		
-		vcp.endBatch(layer);
+		RenderBatcher.endBatch(layer);
 	}
 	
 	private static Vec3 getTracerOrigin(float partialTicks)
@@ -137,38 +136,35 @@ public enum RenderUtils
 	public static void drawTracer(PoseStack matrices, float partialTicks,
 		Vec3 end, int color, boolean depthTest)
 	{
-		MultiBufferSource.BufferSource vcp = getVCP();
 		RenderType layer = WurstRenderLayers.getLines(depthTest);
-		VertexConsumer buffer = vcp.getBuffer(layer);
+		VertexConsumer buffer = RenderBatcher.getBuffer(layer);
 		
 		Vec3 start = getTracerOrigin(partialTicks);
 		Vec3 offset = getCameraPos().reverse();
 		drawLine(matrices, buffer, start, end.add(offset), color);
 		
-		vcp.endBatch(layer);
+		RenderBatcher.endBatch(layer);
 	}
 	
 	public static void drawTracers(PoseStack matrices, float partialTicks,
 		List<Vec3> ends, int color, boolean depthTest)
 	{
-		MultiBufferSource.BufferSource vcp = getVCP();
 		RenderType layer = WurstRenderLayers.getLines(depthTest);
-		VertexConsumer buffer = vcp.getBuffer(layer);
+		VertexConsumer buffer = RenderBatcher.getBuffer(layer);
 		
 		Vec3 start = getTracerOrigin(partialTicks);
 		Vec3 offset = getCameraPos().reverse();
 		for(Vec3 end : ends)
 			drawLine(matrices, buffer, start, end.add(offset), color);
 		
-		vcp.endBatch(layer);
+		RenderBatcher.endBatch(layer);
 	}
 	
 	public static void drawTracers(PoseStack matrices, float partialTicks,
 		List<ColoredPoint> ends, boolean depthTest)
 	{
-		MultiBufferSource.BufferSource vcp = getVCP();
 		RenderType layer = WurstRenderLayers.getLines(depthTest);
-		VertexConsumer buffer = vcp.getBuffer(layer);
+		VertexConsumer buffer = RenderBatcher.getBuffer(layer);
 		
 		Vec3 start = getTracerOrigin(partialTicks);
 		Vec3 offset = getCameraPos().reverse();
@@ -176,7 +172,7 @@ public enum RenderUtils
 			drawLine(matrices, buffer, start, end.point().add(offset),
 				end.color());
 		
-		vcp.endBatch(layer);
+		RenderBatcher.endBatch(layer);
 	}
 	
 	public static void drawLine(PoseStack matrices, VertexConsumer buffer,
@@ -227,15 +223,14 @@ public enum RenderUtils
 	public static void drawCurvedLine(PoseStack matrices, List<Vec3> points,
 		int color, boolean depthTest)
 	{
-		MultiBufferSource.BufferSource vcp = getVCP();
 		RenderType layer = WurstRenderLayers.getLineStrip(depthTest);
-		VertexConsumer buffer = vcp.getBuffer(layer);
+		VertexConsumer buffer = RenderBatcher.getBuffer(layer);
 		
 		Vec3 offset = getCameraPos().reverse();
 		List<Vec3> points2 = points.stream().map(v -> v.add(offset)).toList();
 		drawCurvedLine(matrices, buffer, points2, color);
 		
-		vcp.endBatch(layer);
+		RenderBatcher.endBatch(layer);
 	}
 	
 	public static void drawCurvedLine(PoseStack matrices, VertexConsumer buffer,
@@ -263,43 +258,40 @@ public enum RenderUtils
 	public static void drawSolidBox(PoseStack matrices, AABB box, int color,
 		boolean depthTest)
 	{
-		MultiBufferSource.BufferSource vcp = getVCP();
 		RenderType layer = WurstRenderLayers.getQuads(depthTest);
-		VertexConsumer buffer = vcp.getBuffer(layer);
+		VertexConsumer buffer = RenderBatcher.getBuffer(layer);
 		
 		drawSolidBox(matrices, buffer, box.move(getCameraPos().reverse()),
 			color);
 		
-		vcp.endBatch(layer);
+		RenderBatcher.endBatch(layer);
 	}
 	
 	public static void drawSolidBoxes(PoseStack matrices, List<AABB> boxes,
 		int color, boolean depthTest)
 	{
-		MultiBufferSource.BufferSource vcp = getVCP();
 		RenderType layer = WurstRenderLayers.getQuads(depthTest);
-		VertexConsumer buffer = vcp.getBuffer(layer);
+		VertexConsumer buffer = RenderBatcher.getBuffer(layer);
 		
 		Vec3 camOffset = getCameraPos().reverse();
 		for(AABB box : boxes)
 			drawSolidBox(matrices, buffer, box.move(camOffset), color);
 		
-		vcp.endBatch(layer);
+		RenderBatcher.endBatch(layer);
 	}
 	
 	public static void drawSolidBoxes(PoseStack matrices,
 		List<ColoredBox> boxes, boolean depthTest)
 	{
-		MultiBufferSource.BufferSource vcp = getVCP();
 		RenderType layer = WurstRenderLayers.getQuads(depthTest);
-		VertexConsumer buffer = vcp.getBuffer(layer);
+		VertexConsumer buffer = RenderBatcher.getBuffer(layer);
 		
 		Vec3 camOffset = getCameraPos().reverse();
 		for(ColoredBox box : boxes)
 			drawSolidBox(matrices, buffer, box.box().move(camOffset),
 				box.color());
 		
-		vcp.endBatch(layer);
+		RenderBatcher.endBatch(layer);
 	}
 	
 	public static void drawSolidBox(VertexConsumer buffer, AABB box, int color)
@@ -352,43 +344,40 @@ public enum RenderUtils
 	public static void drawOutlinedBox(PoseStack matrices, AABB box, int color,
 		boolean depthTest)
 	{
-		MultiBufferSource.BufferSource vcp = getVCP();
 		RenderType layer = WurstRenderLayers.getLines(depthTest);
-		VertexConsumer buffer = vcp.getBuffer(layer);
+		VertexConsumer buffer = RenderBatcher.getBuffer(layer);
 		
 		drawOutlinedBox(matrices, buffer, box.move(getCameraPos().reverse()),
 			color);
 		
-		vcp.endBatch(layer);
+		RenderBatcher.endBatch(layer);
 	}
 	
 	public static void drawOutlinedBoxes(PoseStack matrices, List<AABB> boxes,
 		int color, boolean depthTest)
 	{
-		MultiBufferSource.BufferSource vcp = getVCP();
 		RenderType layer = WurstRenderLayers.getLines(depthTest);
-		VertexConsumer buffer = vcp.getBuffer(layer);
+		VertexConsumer buffer = RenderBatcher.getBuffer(layer);
 		
 		Vec3 camOffset = getCameraPos().reverse();
 		for(AABB box : boxes)
 			drawOutlinedBox(matrices, buffer, box.move(camOffset), color);
 		
-		vcp.endBatch(layer);
+		RenderBatcher.endBatch(layer);
 	}
 	
 	public static void drawOutlinedBoxes(PoseStack matrices,
 		List<ColoredBox> boxes, boolean depthTest)
 	{
-		MultiBufferSource.BufferSource vcp = getVCP();
 		RenderType layer = WurstRenderLayers.getLines(depthTest);
-		VertexConsumer buffer = vcp.getBuffer(layer);
+		VertexConsumer buffer = RenderBatcher.getBuffer(layer);
 		
 		Vec3 camOffset = getCameraPos().reverse();
 		for(ColoredBox box : boxes)
 			drawOutlinedBox(matrices, buffer, box.box().move(camOffset),
 				box.color());
 		
-		vcp.endBatch(layer);
+		RenderBatcher.endBatch(layer);
 	}
 	
 	public static void drawOutlinedBox(VertexConsumer buffer, AABB box,
@@ -466,43 +455,40 @@ public enum RenderUtils
 	public static void drawCrossBox(PoseStack matrices, AABB box, int color,
 		boolean depthTest)
 	{
-		MultiBufferSource.BufferSource vcp = getVCP();
 		RenderType layer = WurstRenderLayers.getLines(depthTest);
-		VertexConsumer buffer = vcp.getBuffer(layer);
+		VertexConsumer buffer = RenderBatcher.getBuffer(layer);
 		
 		drawCrossBox(matrices, buffer, box.move(getCameraPos().reverse()),
 			color);
 		
-		vcp.endBatch(layer);
+		RenderBatcher.endBatch(layer);
 	}
 	
 	public static void drawCrossBoxes(PoseStack matrices, List<AABB> boxes,
 		int color, boolean depthTest)
 	{
-		MultiBufferSource.BufferSource vcp = getVCP();
 		RenderType layer = WurstRenderLayers.getLines(depthTest);
-		VertexConsumer buffer = vcp.getBuffer(layer);
+		VertexConsumer buffer = RenderBatcher.getBuffer(layer);
 		
 		Vec3 camOffset = getCameraPos().reverse();
 		for(AABB box : boxes)
 			drawCrossBox(matrices, buffer, box.move(camOffset), color);
 		
-		vcp.endBatch(layer);
+		RenderBatcher.endBatch(layer);
 	}
 	
 	public static void drawCrossBoxes(PoseStack matrices,
 		List<ColoredBox> boxes, boolean depthTest)
 	{
-		MultiBufferSource.BufferSource vcp = getVCP();
 		RenderType layer = WurstRenderLayers.getLines(depthTest);
-		VertexConsumer buffer = vcp.getBuffer(layer);
+		VertexConsumer buffer = RenderBatcher.getBuffer(layer);
 		
 		Vec3 camOffset = getCameraPos().reverse();
 		for(ColoredBox box : boxes)
 			drawCrossBox(matrices, buffer, box.box().move(camOffset),
 				box.color());
 		
-		vcp.endBatch(layer);
+		RenderBatcher.endBatch(layer);
 	}
 	
 	public static void drawCrossBox(VertexConsumer buffer, AABB box, int color)
@@ -585,41 +571,38 @@ public enum RenderUtils
 	public static void drawNode(PoseStack matrices, AABB box, int color,
 		boolean depthTest)
 	{
-		MultiBufferSource.BufferSource vcp = getVCP();
 		RenderType layer = WurstRenderLayers.getLines(depthTest);
-		VertexConsumer buffer = vcp.getBuffer(layer);
+		VertexConsumer buffer = RenderBatcher.getBuffer(layer);
 		
 		drawNode(matrices, buffer, box.move(getCameraPos().reverse()), color);
 		
-		vcp.endBatch(layer);
+		RenderBatcher.endBatch(layer);
 	}
 	
 	public static void drawNodes(PoseStack matrices, List<AABB> boxes,
 		int color, boolean depthTest)
 	{
-		MultiBufferSource.BufferSource vcp = getVCP();
 		RenderType layer = WurstRenderLayers.getLines(depthTest);
-		VertexConsumer buffer = vcp.getBuffer(layer);
+		VertexConsumer buffer = RenderBatcher.getBuffer(layer);
 		
 		Vec3 camOffset = getCameraPos().reverse();
 		for(AABB box : boxes)
 			drawNode(matrices, buffer, box.move(camOffset), color);
 		
-		vcp.endBatch(layer);
+		RenderBatcher.endBatch(layer);
 	}
 	
 	public static void drawNodes(PoseStack matrices, List<ColoredBox> boxes,
 		boolean depthTest)
 	{
-		MultiBufferSource.BufferSource vcp = getVCP();
 		RenderType layer = WurstRenderLayers.getLines(depthTest);
-		VertexConsumer buffer = vcp.getBuffer(layer);
+		VertexConsumer buffer = RenderBatcher.getBuffer(layer);
 		
 		Vec3 camOffset = getCameraPos().reverse();
 		for(ColoredBox box : boxes)
 			drawNode(matrices, buffer, box.box().move(camOffset), box.color());
 		
-		vcp.endBatch(layer);
+		RenderBatcher.endBatch(layer);
 	}
 	
 	public static void drawNode(VertexConsumer buffer, AABB box, int color)
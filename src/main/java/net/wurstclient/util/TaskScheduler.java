@@ -0,0 +1,339 @@
+/*
+ * Copyright (c) 2014-2025 Wurst-Imperium and contributors.
+ *
+ * This source code is subject to the terms of the GNU General Public
+ * License, version 3. If a copy of the GPL was not distributed with this
+ * file, You can obtain one at: https://www.gnu.org/licenses/gpl-3.0.txt
+ */
+package net.wurstclient.util;
+
+import java.util.EnumMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Runs all of Wurst's background work on a fixed number of worker threads,
+ * instead of every feature starting its own threads or thread pools.
+ *
+ * <p>
+ * CPU-bound tasks share one set of workers, which always pick the queued
+ * task with the most urgent {@link Priority} first. {@link Priority#IO} tasks
+ * spend most of their time waiting, so they get their own small set of
+ * workers and can never hold up the CPU-bound ones.
+ *
+ * <p>
+ * Tasks whose future is cancelled before they start are skipped. Tasks that
+ * are already running keep going, but long tasks can check
+ * {@link #isCurrentTaskCancelled()} and stop early.
+ *
+ * <p>
+ * The queues themselves are unbounded, so that no submitted task is ever
+ * lost. Callers that can put off their work, like chunk scans, should check
+ * {@link #hasCapacity(Priority)} first and try again on a later tick.
+ */
+public final class TaskScheduler
+{
+	// leave one core for the client thread
+	private static final int CPU_WORKERS =
+		Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+	private static final int IO_WORKERS = 4;
+	
+	private static final ThreadLocal<Task<?>> CURRENT_TASK =
+		new ThreadLocal<>();
+	
+	private final PriorityBlockingQueue<Task<?>> cpuQueue =
+		new PriorityBlockingQueue<>();
+	private final PriorityBlockingQueue<Task<?>> ioQueue =
+		new PriorityBlockingQueue<>();
+	
+	private final EnumMap<Priority, Stats> stats =
+		new EnumMap<>(Priority.class);
+	private final AtomicLong nextSequence = new AtomicLong();
+	
+	public TaskScheduler()
+	{
+		for(Priority priority : Priority.values())
+			stats.put(priority, new Stats());
+		
+		startWorkers(cpuQueue, CPU_WORKERS);
+		startWorkers(ioQueue, IO_WORKERS);
+	}
+	
+	private void startWorkers(BlockingQueue<Task<?>> queue, int count)
+	{
+		ThreadFactory factory = new MinPriorityThreadFactory();
+		for(int i = 0; i < count; i++)
+			factory.newThread(() -> runWorker(queue)).start();
+	}
+	
+	private void runWorker(BlockingQueue<Task<?>> queue)
+	{
+		while(true)
+		{
+			Task<?> task;
+			try
+			{
+				task = queue.take();
+				
+			}catch(InterruptedException e)
+			{
+				return;
+			}
+			
+			task.run();
+		}
+	}
+	
+	/**
+	 * Queues the given task and returns a future for its result. Cancelling
+	 * the future cancels the task.
+	 */
+	public <T> CompletableFuture<T> submit(Priority priority,
+		Supplier<T> supplier)
+	{
+		Task<T> task = new Task<>(priority, nextSequence.getAndIncrement(),
+			supplier, stats.get(priority));
+		
+		task.stats.queued.incrementAndGet();
+		if(priority == Priority.IO)
+			ioQueue.add(task);
+		else
+			cpuQueue.add(task);
+		
+		return task.future;
+	}
+	
+	public CompletableFuture<Void> submit(Priority priority, Runnable runnable)
+	{
+		return submit(priority, () -> {
+			runnable.run();
+			return null;
+		});
+	}
+	
+	/**
+	 * Same as {@link #submit(Priority, Runnable)}, but also prints any
+	 * exception that the task throws, for tasks whose result nobody checks.
+	 */
+	public CompletableFuture<Void> execute(Priority priority, Runnable runnable)
+	{
+		CompletableFuture<Void> future = submit(priority, runnable);
+		future.exceptionally(e -> {
+			if(!(e instanceof CancellationException))
+				e.printStackTrace();
+			return null;
+		});
+		return future;
+	}
+	
+	/**
+	 * Returns an {@link Executor} that submits to this scheduler with the
+	 * given priority, e.g. for {@link CompletableFuture} chains.
+	 */
+	public Executor getExecutor(Priority priority)
+	{
+		return runnable -> submit(priority, runnable);
+	}
+	
+	/**
+	 * Returns true if the queue for the given priority is short enough that
+	 * more tasks can be submitted without falling behind.
+	 */
+	public boolean hasCapacity(Priority priority)
+	{
+		int workers = priority == Priority.IO ? IO_WORKERS : CPU_WORKERS;
+		return stats.get(priority).getQueued() < workers
+			* priority.queuedPerWorker;
+	}
+	
+	/**
+	 * Returns true if the task that is running on the current thread has
+	 * been cancelled. Always false outside of scheduled tasks.
+	 */
+	public static boolean isCurrentTaskCancelled()
+	{
+		Task<?> task = CURRENT_TASK.get();
+		return task != null && task.future.isCancelled();
+	}
+	
+	public Stats getStats(Priority priority)
+	{
+		return stats.get(priority);
+	}
+	
+	public int getCpuWorkers()
+	{
+		return CPU_WORKERS;
+	}
+	
+	public int getIoWorkers()
+	{
+		return IO_WORKERS;
+	}
+	
+	public static enum Priority
+	{
+		/**
+		 * Work that the next frames are waiting for, like building vertex
+		 * buffers.
+		 */
+		RENDER(64),
+		
+		/**
+		 * Work near the player, like scanning nearby chunks or finding
+		 * paths.
+		 */
+		NEAR(16),
+		
+		/**
+		 * Work that can wait, like scanning far away chunks.
+		 */
+		FAR(4),
+		
+		/**
+		 * Network and file access.
+		 */
+		IO(16);
+		
+		private final int queuedPerWorker;
+		
+		private Priority(int queuedPerWorker)
+		{
+			this.queuedPerWorker = queuedPerWorker;
+		}
+	}
+	
+	/**
+	 * Queue and latency metrics of one {@link Priority}, since the game was
+	 * started.
+	 */
+	public static final class Stats
+	{
+		private final AtomicInteger queued = new AtomicInteger();
+		private final AtomicInteger running = new AtomicInteger();
+		private final LongAdder completed = new LongAdder();
+		private final LongAdder cancelled = new LongAdder();
+		private final LongAdder failed = new LongAdder();
+		private final LongAdder totalWaitNanos = new LongAdder();
+		private final LongAdder totalRunNanos = new LongAdder();
+		private final AtomicLong maxWaitNanos = new AtomicLong();
+		
+		public int getQueued()
+		{
+			return queued.get();
+		}
+		
+		public int getRunning()
+		{
+			return running.get();
+		}
+		
+		public long getCompleted()
+		{
+			return completed.sum();
+		}
+		
+		public long getCancelled()
+		{
+			return cancelled.sum();
+		}
+		
+		public long getFailed()
+		{
+			return failed.sum();
+		}
+		
+		/**
+		 * Average time that tasks spent in the queue before they started.
+		 */
+		public double getAverageWaitMillis()
+		{
+			long started = completed.sum() + failed.sum();
+			return started == 0 ? 0 : totalWaitNanos.sum() / 1e6 / started;
+		}
+		
+		public double getMaxWaitMillis()
+		{
+			return maxWaitNanos.get() / 1e6;
+		}
+		
+		public double getAverageRunMillis()
+		{
+			long started = completed.sum() + failed.sum();
+			return started == 0 ? 0 : totalRunNanos.sum() / 1e6 / started;
+		}
+	}
+	
+	private static final class Task<T> implements Comparable<Task<?>>
+	{
+		private final Priority priority;
+		private final long sequence;
+		private final Supplier<T> supplier;
+		private final Stats stats;
+		private final CompletableFuture<T> future = new CompletableFuture<>();
+		private final long queuedTime = System.nanoTime();
+		
+		private Task(Priority priority, long sequence, Supplier<T> supplier,
+			Stats stats)
+		{
+			this.priority = priority;
+			this.sequence = sequence;
+			this.supplier = supplier;
+			this.stats = stats;
+		}
+		
+		private void run()
+		{
+			stats.queued.decrementAndGet();
+			
+			// cancelled while still in the queue
+			if(future.isDone())
+			{
+				stats.cancelled.increment();
+				return;
+			}
+			
+			long startTime = System.nanoTime();
+			long waitNanos = startTime - queuedTime;
+			stats.totalWaitNanos.add(waitNanos);
+			stats.maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+			stats.running.incrementAndGet();
+			CURRENT_TASK.set(this);
+			
+			try
+			{
+				future.complete(supplier.get());
+				stats.completed.increment();
+				
+			}catch(Throwable e)
+			{
+				future.completeExceptionally(e);
+				stats.failed.increment();
+				
+			}finally
+			{
+				CURRENT_TASK.remove();
+				stats.running.decrementAndGet();
+				stats.totalRunNanos.add(System.nanoTime() - startTime);
+			}
+		}
+		
+		@Override
+		public int compareTo(Task<?> other)
+		{
+			int result = priority.compareTo(other.priority);
+			if(result != 0)
+				return result;
+			
+			return Long.compare(sequence, other.sequence);
+		}
+	}
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2014-2025 Wurst-Imperium and contributors.
+ *
+ * This source code is subject to the terms of the GNU General Public
+ * License, version 3. If a copy of the GPL was not distributed with this
+ * file, You can obtain one at: https://www.gnu.org/licenses/gpl-3.0.txt
+ */
+package net.wurstclient.util;
+
+import java.util.Arrays;
+
+import com.mojang.blaze3d.vertex.VertexConsumer;
+
+/**
+ * A growable list of block-aligned vertex positions, packed as x, y, z
+ * triples into a single <code>int[]</code>. Unlike a list of
+ * <code>int[]</code>s, this only allocates when it has to grow, which matters
+ * when meshing hundreds of thousands of blocks.
+ *
+ * <p>
+ * Not thread-safe.
+ */
+public final class VertexSlab
+{
+	private int[] data;
+	private int size;
+	
+	public VertexSlab()
+	{
+		this(64);
+	}
+	
+	public VertexSlab(int initialVertices)
+	{
+		data = new int[Math.max(initialVertices, 1) * 3];
+	}
+	
+	public void add(int x, int y, int z)
+	{
+		ensureCapacity(size + 3);
+		data[size] = x;
+		data[size + 1] = y;
+		data[size + 2] = z;
+		size += 3;
+	}
+	
+	/**
+	 * Moves all vertices so that they are relative to the given region.
+	 */
+	public void applyRegionOffset(RegionPos region)
+	{
+		for(int i = 0; i < size; i += 3)
+		{
+			data[i] -= region.x();
+			data[i + 2] -= region.z();
+		}
+	}
+	
+	/**
+	 * Writes all vertices into the given buffer, relative to the given region
+	 * and in white, so that the color can be set when drawing.
+	 */
+	public void writeTo(VertexConsumer buffer, RegionPos region)
+	{
+		int regionX = region.x();
+		int regionZ = region.z();
+		
+		for(int i = 0; i < size; i += 3)
+		{
+			int x = data[i] - regionX;
+			int z = data[i + 2] - regionZ;
+			buffer.addVertex(x, data[i + 1], z).setColor(0xFFFFFFFF);
+		}
+	}
+	
+	public void clear()
+	{
+		size = 0;
+	}
+	
+	public int getVertexCount()
+	{
+		return size / 3;
+	}
+	
+	public boolean isEmpty()
+	{
+		return size == 0;
+	}
+	
+	private void ensureCapacity(int capacity)
+	{
+		if(capacity <= data.length)
+			return;
+		
+		data = Arrays.copyOf(data, Math.max(capacity, data.length * 2));
+	}
+}
@@ -11,11 +11,16 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
 import java.util.function.BiPredicate;
+import java.util.function.Predicate;
 
 import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.network.protocol.Packet;
 import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.state.BlockState;
@@ -31,21 +36,61 @@ public abstract class AbstractChunkCoordinator implements PacketInputListener
 		new HashMap<>();
 	protected final ChunkAreaSetting area;
 	private BiPredicate<BlockPos, BlockState> query;
+	private Predicate<BlockState> sectionFilter;
 	
 	protected final Set<ChunkPos> chunksToUpdate =
 		Collections.synchronizedSet(new HashSet<>());
+	protected final Set<BlockPos> blocksToUpdate =
+		Collections.synchronizedSet(new HashSet<>());
 	
 	public AbstractChunkCoordinator(BiPredicate<BlockPos, BlockState> query,
 		ChunkAreaSetting area)
+	{
+		this(query, state -> true, area);
+	}
+	
+	/**
+	 * @param sectionFilter
+	 *            Must accept every block state that the query could match.
+	 *            Chunk sections whose palette has no such state are skipped.
+	 */
+	public AbstractChunkCoordinator(BiPredicate<BlockPos, BlockState> query,
+		Predicate<BlockState> sectionFilter, ChunkAreaSetting area)
 	{
 		this.query = Objects.requireNonNull(query);
+		this.sectionFilter = Objects.requireNonNull(sectionFilter);
 		this.area = Objects.requireNonNull(area);
 	}
 	
+	@Override
+	public void onReceivedPacket(PacketInputEvent event)
+	{
+		Packet<?> packet = event.getPacket();
+		
+		// single blocks and sections are patched in place
+		List<BlockPos> changedBlocks = ChunkUtils.getChangedBlocks(packet);
+		if(changedBlocks != null)
+		{
+			blocksToUpdate.addAll(changedBlocks);
+			return;
+		}
+		
+		// full chunks are searched again from scratch
+		ChunkPos chunkPos = ChunkUtils.getAffectedChunk(packet);
+		if(chunkPos != null)
+			onChunkUpdate(chunkPos);
+	}
+	
+	protected void onChunkUpdate(ChunkPos chunkPos)
+	{
+		chunksToUpdate.add(chunkPos);
+	}
+	
 	public boolean update()
 	{
 		DimensionType dimension = WurstClient.MC.level.dimensionType();
 		HashSet<ChunkPos> chunkUpdates = clearChunksToUpdate();
+		HashSet<BlockPos> blockUpdates = clearBlocksToUpdate();
 		boolean searchersChanged = false;
 		
 		// remove outdated ChunkSearchers
@@ -75,6 +120,31 @@ public abstract class AbstractChunkCoordinator implements PacketInputListener
 			}
 		}
 		
+		// patch ChunkSearchers affected by block updates
+		int radius = getBlockUpdateRadius();
+		HashMap<ChunkPos, ArrayList<BlockPos>> patches =
+			groupByChunk(blockUpdates);
+		for(Entry<ChunkPos, ArrayList<BlockPos>> entry : patches.entrySet())
+		{
+			ChunkSearcher searcher = searchers.get(entry.getKey());
+			if(searcher == null)
+				continue;
+			
+			// too many changes, search the chunk again (see below)
+			if(searcher.isCheaperToRescan(entry.getValue(), radius))
+			{
+				searchers.remove(entry.getKey());
+				searcher.cancel();
+				onRemove(searcher);
+				searchersChanged = true;
+				continue;
+			}
+			
+			searcher.patch(entry.getValue(), radius);
+			onPatch(searcher);
+			searchersChanged = true;
+		}
+		
 		// add new ChunkSearchers
 		for(ChunkAccess chunk : area.getChunksInRange())
 		{
@@ -82,7 +152,8 @@ public abstract class AbstractChunkCoordinator implements PacketInputListener
 			if(searchers.containsKey(chunkPos))
 				continue;
 			
-			ChunkSearcher searcher = new ChunkSearcher(query, chunk, dimension);
+			ChunkSearcher searcher =
+				new ChunkSearcher(query, sectionFilter, chunk, dimension);
 			searchers.put(chunkPos, searcher);
 			searcher.start();
 			searchersChanged = true;
@@ -91,16 +162,58 @@ public abstract class AbstractChunkCoordinator implements PacketInputListener
 		return searchersChanged;
 	}
 	
+	/**
+	 * Groups the given changed blocks by every chunk that has a block within
+	 * {@link #getBlockUpdateRadius()} of them.
+	 */
+	private HashMap<ChunkPos, ArrayList<BlockPos>> groupByChunk(
+		HashSet<BlockPos> changedBlocks)
+	{
+		HashMap<ChunkPos, ArrayList<BlockPos>> groups = new HashMap<>();
+		int radius = getBlockUpdateRadius();
+		
+		for(BlockPos pos : changedBlocks)
+		{
+			int minX = SectionPos.blockToSectionCoord(pos.getX() - radius);
+			int minZ = SectionPos.blockToSectionCoord(pos.getZ() - radius);
+			int maxX = SectionPos.blockToSectionCoord(pos.getX() + radius);
+			int maxZ = SectionPos.blockToSectionCoord(pos.getZ() + radius);
+			
+			for(int x = minX; x <= maxX; x++)
+				for(int z = minZ; z <= maxZ; z++)
+					groups.computeIfAbsent(new ChunkPos(x, z),
+						chunkPos -> new ArrayList<>()).add(pos);
+		}
+		
+		return groups;
+	}
+	
+	/**
+	 * Returns how far away from a changed block the query results can be
+	 * affected by that change. Blocks within this distance are tested again
+	 * after a block update.
+	 */
+	protected int getBlockUpdateRadius()
+	{
+		return 0;
+	}
+	
 	protected void onRemove(ChunkSearcher searcher)
 	{
 		// Overridden in ChunkVertexBufferCoordinator
 	}
 	
+	protected void onPatch(ChunkSearcher searcher)
+	{
+		// Overridden in ChunkVertexBufferCoordinator
+	}
+	
 	public void reset()
 	{
 		searchers.values().forEach(ChunkSearcher::cancel);
 		searchers.clear();
 		chunksToUpdate.clear();
+		blocksToUpdate.clear();
 	}
 	
 	public boolean isDone()
@@ -109,15 +222,23 @@ public abstract class AbstractChunkCoordinator implements PacketInputListener
 	}
 	
 	public void setQuery(BiPredicate<BlockPos, BlockState> query)
+	{
+		setQuery(query, state -> true);
+	}
+	
+	public void setQuery(BiPredicate<BlockPos, BlockState> query,
+		Predicate<BlockState> sectionFilter)
 	{
 		this.query = Objects.requireNonNull(query);
+		this.sectionFilter = Objects.requireNonNull(sectionFilter);
 		searchers.values().forEach(ChunkSearcher::cancel);
 		searchers.clear();
 	}
 	
 	public void setTargetBlock(Block block)
 	{
-		setQuery((pos, state) -> block == state.getBlock());
+		setQuery((pos, state) -> block == state.getBlock(),
+			state -> block == state.getBlock());
 	}
 	
 	protected HashSet<ChunkPos> clearChunksToUpdate()
@@ -129,4 +250,14 @@ public abstract class AbstractChunkCoordinator implements PacketInputListener
 			return chunks;
 		}
 	}
+	
+	protected HashSet<BlockPos> clearBlocksToUpdate()
+	{
+		synchronized(blocksToUpdate)
+		{
+			HashSet<BlockPos> blocks = new HashSet<>(blocksToUpdate);
+			blocksToUpdate.clear();
+			return blocks;
+		}
+	}
 }
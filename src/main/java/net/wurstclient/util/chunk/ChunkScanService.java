@@ -0,0 +1,250 @@
+/*
+ * Copyright (c) 2014-2025 Wurst-Imperium and contributors.
+ *
+ * This source code is subject to the terms of the GNU General Public
+ * License, version 3. If a copy of the GPL was not distributed with this
+ * file, You can obtain one at: https://www.gnu.org/licenses/gpl-3.0.txt
+ */
+package net.wurstclient.util.chunk;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.wurstclient.WurstClient;
+import net.wurstclient.event.EventManager;
+import net.wurstclient.events.UpdateListener;
+import net.wurstclient.util.TaskScheduler;
+import net.wurstclient.util.TaskScheduler.Priority;
+
+/**
+ * Runs the searches of all {@link ChunkSearcher}s, no matter which hack they
+ * belong to.
+ *
+ * <p>
+ * Searches that are started during the same tick are collected and then run
+ * together, so that each chunk is only read once no matter how many hacks are
+ * searching it. Every block is tested against all queries that are interested
+ * in its section, and each {@link ChunkSearcher} still gets its own results.
+ *
+ * <p>
+ * Scans run on the {@link TaskScheduler}, closest chunks first. Chunks near
+ * the player get {@link Priority#NEAR}, all others {@link Priority#FAR}. When
+ * the scheduler is busy, the remaining scans wait for a later tick instead
+ * of piling up in its queue. Once every search of a chunk has been
+ * cancelled, its scan is cancelled too and stops at the next section.
+ *
+ * <p>
+ * {@link #submit(ChunkSearcher)} must be called from the client thread.
+ */
+public final class ChunkScanService implements UpdateListener
+{
+	// the 3x3 chunks around the player
+	private static final int NEAR_RANGE = 1;
+	
+	private final IdentityHashMap<ChunkAccess, ArrayList<ChunkSearcher>> pending =
+		new IdentityHashMap<>();
+	private boolean listening;
+	
+	void submit(ChunkSearcher searcher)
+	{
+		pending.computeIfAbsent(searcher.getChunk(), chunk -> new ArrayList<>())
+			.add(searcher);
+		
+		// Flush at the next tick, once every hack had a chance to submit
+		// its searches for this tick.
+		if(!listening)
+		{
+			getEventManager().add(UpdateListener.class, this);
+			listening = true;
+		}
+	}
+	
+	@Override
+	public void onUpdate()
+	{
+		ChunkPos center = WurstClient.MC.player.chunkPosition();
+		ArrayList<ArrayList<ChunkSearcher>> batches =
+			new ArrayList<>(pending.values());
+		batches.sort(Comparator.comparingInt(
+			batch -> getDistance(batch.get(0).getPos(), center)));
+		
+		TaskScheduler scheduler = getScheduler();
+		for(ArrayList<ChunkSearcher> searchers : batches)
+		{
+			ChunkAccess chunk = searchers.get(0).getChunk();
+			searchers.removeIf(ChunkSearcher::isInterrupted);
+			if(searchers.isEmpty())
+			{
+				pending.remove(chunk);
+				continue;
+			}
+			
+			// leave the rest for the next tick
+			Priority priority =
+				getDistance(chunk.getPos(), center) <= NEAR_RANGE
+					? Priority.NEAR : Priority.FAR;
+			if(!scheduler.hasCapacity(priority))
+				continue;
+			
+			CompletableFuture<Void> task =
+				scheduler.execute(priority, () -> scan(searchers));
+			pending.remove(chunk);
+			cancelWhenUnused(task, searchers);
+		}
+		
+		if(pending.isEmpty())
+		{
+			getEventManager().remove(UpdateListener.class, this);
+			listening = false;
+		}
+	}
+	
+	/**
+	 * Cancels the given scan once all of its searchers have been cancelled,
+	 * so that it doesn't keep reading a chunk that nobody needs anymore.
+	 */
+	private static void cancelWhenUnused(CompletableFuture<Void> task,
+		ArrayList<ChunkSearcher> searchers)
+	{
+		Runnable check = () -> {
+			if(searchers.stream().allMatch(ChunkSearcher::isInterrupted))
+				task.cancel(false);
+		};
+		
+		searchers.forEach(searcher -> searcher.whenCancelled(check));
+	}
+	
+	private static int getDistance(ChunkPos a, ChunkPos b)
+	{
+		return Math.max(Math.abs(a.x - b.x), Math.abs(a.z - b.z));
+	}
+	
+	/**
+	 * Returns the executor for patching search results after block updates.
+	 */
+	Executor getPatchExecutor()
+	{
+		return getScheduler().getExecutor(Priority.NEAR);
+	}
+	
+	private void scan(ArrayList<ChunkSearcher> searchers)
+	{
+		try
+		{
+			ChunkAccess chunk = searchers.get(0).getChunk();
+			ChunkSearchResults[] results = scanNow(chunk.getPos(),
+				chunk.getMinSectionY(), chunk.getSections(), searchers);
+			
+			for(int i = 0; i < results.length; i++)
+				searchers.get(i).complete(results[i]);
+			
+		}catch(Throwable e)
+		{
+			searchers.forEach(searcher -> searcher.completeExceptionally(e));
+		}
+	}
+	
+	/**
+	 * Tests every block in the given sections of a chunk against all of the
+	 * given searchers and returns their results in the same order. Doesn't
+	 * need a running game, so benchmarks can call this directly.
+	 */
+	static ChunkSearchResults[] scanNow(ChunkPos chunkPos, int minSectionY,
+		LevelChunkSection[] sections, List<ChunkSearcher> searchers)
+	{
+		int count = searchers.size();
+		int minY = SectionPos.sectionToBlockCoord(minSectionY);
+		
+		ChunkSearchResults[] results = new ChunkSearchResults[count];
+		for(int i = 0; i < count; i++)
+			results[i] = new ChunkSearchResults(chunkPos, minY);
+		
+		int minX = chunkPos.getMinBlockX();
+		int minZ = chunkPos.getMinBlockZ();
+		int maxY = getHighestNonEmptySectionY(minSectionY, sections) + 16;
+		
+		// Queries must not keep a reference to this position.
+		BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+		
+		// indices of the searchers that are interested in the current section
+		int[] active = new int[count];
+		
+		for(int i = 0; i < sections.length; i++)
+		{
+			if(TaskScheduler.isCurrentTaskCancelled())
+				break;
+			
+			int sectionMinY = SectionPos.sectionToBlockCoord(minSectionY + i);
+			if(sectionMinY > maxY)
+				break;
+			
+			LevelChunkSection section = sections[i];
+			int activeCount = 0;
+			for(int j = 0; j < count; j++)
+			{
+				ChunkSearcher searcher = searchers.get(j);
+				if(!searcher.isInterrupted() && searcher.mightMatch(section))
+					active[activeCount++] = j;
+			}
+			
+			// skip sections that can't contain any matches
+			if(activeCount == 0)
+				continue;
+			
+			int sectionMaxY = Math.min(sectionMinY + 15, maxY);
+			for(int y = sectionMinY; y <= sectionMaxY; y++)
+				for(int z = 0; z < 16; z++)
+					for(int x = 0; x < 16; x++)
+					{
+						BlockState state = section.getBlockState(x, y & 15, z);
+						pos.set(minX + x, y, minZ + z);
+						
+						for(int k = 0; k < activeCount; k++)
+						{
+							int j = active[k];
+							if(searchers.get(j).matches(pos, state))
+								results[j].add(minX + x, y, minZ + z, state);
+						}
+					}
+		}
+		
+		for(int i = 0; i < count; i++)
+			results[i].trimToSize();
+		
+		return results;
+	}
+	
+	/**
+	 * Same as {@link ChunkUtils#getHighestNonEmptySectionYOffset(ChunkAccess)},
+	 * but for a plain array of sections.
+	 */
+	private static int getHighestNonEmptySectionY(int minSectionY,
+		LevelChunkSection[] sections)
+	{
+		for(int i = sections.length - 1; i >= 0; i--)
+			if(!sections[i].hasOnlyAir())
+				return SectionPos.sectionToBlockCoord(minSectionY + i);
+			
+		return SectionPos.sectionToBlockCoord(minSectionY);
+	}
+	
+	private TaskScheduler getScheduler()
+	{
+		return WurstClient.INSTANCE.getTaskScheduler();
+	}
+	
+	private EventManager getEventManager()
+	{
+		return WurstClient.INSTANCE.getEventManager();
+	}
+}
@@ -0,0 +1,255 @@
+/*
+ * Copyright (c) 2014-2025 Wurst-Imperium and contributors.
+ *
+ * This source code is subject to the terms of the GNU General Public
+ * License, version 3. If a copy of the GPL was not distributed with this
+ * file, You can obtain one at: https://www.gnu.org/licenses/gpl-3.0.txt
+ */
+package net.wurstclient.util.chunk;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+import net.wurstclient.util.chunk.ChunkSearcher.Result;
+
+/**
+ * Compact storage for the matches found by a {@link ChunkSearcher}.
+ *
+ * <p>
+ * Instead of keeping one {@link BlockPos} and one {@link Result} object per
+ * match, positions are packed into chunk-local {@code int}s and block states
+ * are stored as their numeric IDs. Use {@link #cursor()} to walk the results
+ * without allocating anything per match, or {@link #asList()} and
+ * {@link #stream()} where {@link Result} objects are more convenient.
+ *
+ * <p>
+ * Not thread-safe. A {@link ChunkSearcher} fills this on a background thread
+ * and only hands it out once the search is done. Block updates are applied to
+ * a {@link #copy()}, so results that have already been handed out never
+ * change.
+ */
+public final class ChunkSearchResults
+{
+	private static final int[] EMPTY = {};
+	
+	private final int minBlockX;
+	private final int minY;
+	private final int minBlockZ;
+	
+	private int[] positions = EMPTY;
+	private int[] stateIds = EMPTY;
+	private int size;
+	
+	public ChunkSearchResults(ChunkPos chunkPos, int minY)
+	{
+		minBlockX = chunkPos.getMinBlockX();
+		this.minY = minY;
+		minBlockZ = chunkPos.getMinBlockZ();
+	}
+	
+	private ChunkSearchResults(ChunkSearchResults original)
+	{
+		minBlockX = original.minBlockX;
+		minY = original.minY;
+		minBlockZ = original.minBlockZ;
+		positions = Arrays.copyOf(original.positions, original.size);
+		stateIds = Arrays.copyOf(original.stateIds, original.size);
+		size = original.size;
+	}
+	
+	public ChunkSearchResults copy()
+	{
+		return new ChunkSearchResults(this);
+	}
+	
+	public void add(int x, int y, int z, BlockState state)
+	{
+		if(size == positions.length)
+			grow();
+		
+		positions[size] = pack(x - minBlockX, y - minY, z - minBlockZ);
+		stateIds[size] = Block.getId(state);
+		size++;
+	}
+	
+	private void grow()
+	{
+		int newLength = Math.max(16, positions.length * 2);
+		positions = Arrays.copyOf(positions, newLength);
+		stateIds = Arrays.copyOf(stateIds, newLength);
+	}
+	
+	/**
+	 * Removes all results whose position is in the given set of
+	 * {@link BlockPos#asLong()} keys.
+	 */
+	public void removeAll(LongSet blocks)
+	{
+		int newSize = 0;
+		for(int i = 0; i < size; i++)
+		{
+			if(blocks.contains(BlockPos.asLong(getX(i), getY(i), getZ(i))))
+				continue;
+			
+			positions[newSize] = positions[i];
+			stateIds[newSize] = stateIds[i];
+			newSize++;
+		}
+		
+		size = newSize;
+	}
+	
+	/**
+	 * Shrinks the backing arrays to the number of results. Called once the
+	 * search is done, since most chunks end up with far fewer matches than
+	 * the arrays have room for.
+	 */
+	public void trimToSize()
+	{
+		if(positions.length == size)
+			return;
+		
+		positions = size == 0 ? EMPTY : Arrays.copyOf(positions, size);
+		stateIds = size == 0 ? EMPTY : Arrays.copyOf(stateIds, size);
+	}
+	
+	private static int pack(int localX, int localY, int localZ)
+	{
+		return localY << 8 | localZ << 4 | localX;
+	}
+	
+	public int size()
+	{
+		return size;
+	}
+	
+	public boolean isEmpty()
+	{
+		return size == 0;
+	}
+	
+	public int getX(int index)
+	{
+		return minBlockX + (positions[index] & 15);
+	}
+	
+	public int getY(int index)
+	{
+		return minY + (positions[index] >>> 8);
+	}
+	
+	public int getZ(int index)
+	{
+		return minBlockZ + (positions[index] >> 4 & 15);
+	}
+	
+	public BlockPos getPos(int index)
+	{
+		return new BlockPos(getX(index), getY(index), getZ(index));
+	}
+	
+	public BlockState getState(int index)
+	{
+		return Block.stateById(stateIds[index]);
+	}
+	
+	public Result get(int index)
+	{
+		return new Result(getPos(index), getState(index));
+	}
+	
+	/**
+	 * Returns a new {@link Cursor} positioned before the first result.
+	 */
+	public Cursor cursor()
+	{
+		return new Cursor();
+	}
+	
+	/**
+	 * Returns a read-only {@link List} view of the results. Each call to
+	 * {@link List#get(int)} creates a new {@link Result}.
+	 */
+	public List<Result> asList()
+	{
+		return new ListView();
+	}
+	
+	public Stream<Result> stream()
+	{
+		return IntStream.range(0, size).mapToObj(this::get);
+	}
+	
+	public Stream<BlockPos> positions()
+	{
+		return IntStream.range(0, size).mapToObj(this::getPos);
+	}
+	
+	/**
+	 * Walks over the results while reusing a single mutable
+	 * {@link BlockPos}. Don't keep references to {@link #pos()} around after
+	 * calling {@link #next()} again.
+	 */
+	public final class Cursor
+	{
+		private final BlockPos.MutableBlockPos pos =
+			new BlockPos.MutableBlockPos();
+		private int index = -1;
+		
+		private Cursor()
+		{}
+		
+		public boolean next()
+		{
+			if(index + 1 >= size)
+				return false;
+			
+			index++;
+			pos.set(getX(index), getY(index), getZ(index));
+			return true;
+		}
+		
+		public BlockPos pos()
+		{
+			return pos;
+		}
+		
+		public BlockState state()
+		{
+			return getState(index);
+		}
+		
+		public int index()
+		{
+			return index;
+		}
+	}
+	
+	private final class ListView extends AbstractList<Result>
+		implements RandomAccess
+	{
+		@Override
+		public Result get(int index)
+		{
+			if(index < 0 || index >= size)
+				throw new IndexOutOfBoundsException(index);
+			
+			return ChunkSearchResults.this.get(index);
+		}
+		
+		@Override
+		public int size()
+		{
+			return size;
+		}
+	}
+}
@@ -7,90 +7,198 @@
  */
 package net.wurstclient.util.chunk;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
 import java.util.function.BiPredicate;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
 import net.minecraft.core.BlockPos;
 import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.chunk.LevelChunkSection;
 import net.minecraft.world.level.dimension.DimensionType;
-import net.wurstclient.util.MinPriorityThreadFactory;
+import net.wurstclient.WurstClient;
 
 /**
  * Searches the given {@link ChunkAccess} for blocks matching the given query.
+ *
+ * <p>
+ * If a section filter is given, sections whose palette contains no block
+ * state matching that filter are skipped entirely. The filter must accept
+ * every block state that the query could possibly match.
+ *
+ * <p>
+ * The actual search is run by the {@link ChunkScanService}, together with any
+ * other searches of the same chunk that were started during the same tick.
  */
 public final class ChunkSearcher
 {
-	private static final ExecutorService BACKGROUND_THREAD_POOL =
-		MinPriorityThreadFactory.newFixedThreadPool();
-	
 	private final BiPredicate<BlockPos, BlockState> query;
+	private final Predicate<BlockState> sectionFilter;
 	private final ChunkAccess chunk;
 	private final DimensionType dimension;
 	
-	private CompletableFuture<ArrayList<Result>> future;
-	private boolean interrupted;
+	// completed by the ChunkScanService once the search is done
+	private final CompletableFuture<ChunkSearchResults> scan =
+		new CompletableFuture<>();
+	
+	// the scan plus any patches, written on the client thread
+	private volatile CompletableFuture<ChunkSearchResults> result;
+	private volatile boolean interrupted;
 	
 	public ChunkSearcher(BiPredicate<BlockPos, BlockState> query,
 		ChunkAccess chunk, DimensionType dimension)
+	{
+		this(query, state -> true, chunk, dimension);
+	}
+	
+	public ChunkSearcher(BiPredicate<BlockPos, BlockState> query,
+		Predicate<BlockState> sectionFilter, ChunkAccess chunk,
+		DimensionType dimension)
 	{
 		this.query = query;
+		this.sectionFilter = sectionFilter;
 		this.chunk = chunk;
 		this.dimension = dimension;
 	}
 	
 	public void start()
 	{
-		if(future != null || interrupted)
+		if(result != null || interrupted)
 			throw new IllegalStateException();
 		
-		future = CompletableFuture.supplyAsync(this::searchNow,
-			BACKGROUND_THREAD_POOL);
+		result = scan;
+		WurstClient.INSTANCE.getChunkScanService().submit(this);
 	}
 	
-	private ArrayList<Result> searchNow()
+	/**
+	 * Returns whether the given section might contain blocks matching the
+	 * query, based on its palette.
+	 */
+	boolean mightMatch(LevelChunkSection section)
 	{
-		ArrayList<Result> results = new ArrayList<>();
-		ChunkPos chunkPos = chunk.getPos();
+		return section.maybeHas(sectionFilter);
+	}
+	
+	boolean matches(BlockPos pos, BlockState state)
+	{
+		return query.test(pos, state);
+	}
+	
+	void complete(ChunkSearchResults results)
+	{
+		scan.complete(results);
+	}
+	
+	void completeExceptionally(Throwable e)
+	{
+		scan.completeExceptionally(e);
+	}
+	
+	/**
+	 * Runs the given action once this search has been cancelled, or right
+	 * away if it already has been.
+	 */
+	void whenCancelled(Runnable action)
+	{
+		scan.whenComplete((results, e) -> {
+			if(scan.isCancelled())
+				action.run();
+		});
+	}
+	
+	/**
+	 * Re-tests all blocks within {@code radius} of the given changed blocks
+	 * and updates the results accordingly, without searching the whole chunk
+	 * again. The patch runs in the background once the search and any earlier
+	 * patches are done.
+	 */
+	public void patch(Collection<BlockPos> changedBlocks, int radius)
+	{
+		if(result == null || interrupted)
+			throw new IllegalStateException();
 		
+		result = result.thenApplyAsync(
+			results -> patchNow(results, changedBlocks, radius),
+			WurstClient.INSTANCE.getChunkScanService().getPatchExecutor());
+	}
+	
+	/**
+	 * Returns true if patching the given changed blocks could test more
+	 * blocks than searching the whole chunk again, in which case the chunk
+	 * should be searched again instead.
+	 */
+	public boolean isCheaperToRescan(Collection<BlockPos> changedBlocks,
+		int radius)
+	{
+		long side = 2L * radius + 1;
+		long chunkVolume = 16L * 16 * chunk.getHeight();
+		return changedBlocks.size() * side * side * side > chunkVolume;
+	}
+	
+	private ChunkSearchResults patchNow(ChunkSearchResults results,
+		Collection<BlockPos> changedBlocks, int radius)
+	{
+		ChunkPos chunkPos = chunk.getPos();
 		int minX = chunkPos.getMinBlockX();
 		int minY = chunk.getMinY();
 		int minZ = chunkPos.getMinBlockZ();
 		int maxX = chunkPos.getMaxBlockX();
-		int maxY = ChunkUtils.getHighestNonEmptySectionYOffset(chunk) + 16;
+		int maxY = chunk.getMaxY();
 		int maxZ = chunkPos.getMaxBlockZ();
 		
-		for(int x = minX; x <= maxX; x++)
-			for(int y = minY; y <= maxY; y++)
-				for(int z = minZ; z <= maxZ; z++)
-				{
-					if(interrupted)
-						return results;
-					
-					BlockPos pos = new BlockPos(x, y, z);
-					BlockState state = chunk.getBlockState(pos);
-					if(!query.test(pos, state))
-						continue;
-					
-					results.add(new Result(pos, state));
-				}
+		// only the parts of each cube that are inside this chunk
+		LongOpenHashSet blocks = new LongOpenHashSet();
+		for(BlockPos changed : changedBlocks)
+		{
+			int x1 = Math.max(minX, changed.getX() - radius);
+			int y1 = Math.max(minY, changed.getY() - radius);
+			int z1 = Math.max(minZ, changed.getZ() - radius);
+			int x2 = Math.min(maxX, changed.getX() + radius);
+			int y2 = Math.min(maxY, changed.getY() + radius);
+			int z2 = Math.min(maxZ, changed.getZ() + radius);
+			
+			for(int x = x1; x <= x2; x++)
+				for(int y = y1; y <= y2; y++)
+					for(int z = z1; z <= z2; z++)
+						blocks.add(BlockPos.asLong(x, y, z));
+		}
+		
+		ChunkSearchResults patched = results.copy();
+		patched.removeAll(blocks);
+		
+		// The query must not keep a reference to this position.
+		BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+		
+		for(LongIterator itr = blocks.iterator(); itr.hasNext();)
+		{
+			if(interrupted)
+				return patched;
+			
+			pos.set(itr.nextLong());
+			BlockState state = chunk.getBlockState(pos);
+			if(!query.test(pos, state))
+				continue;
 			
-		return results;
+			patched.add(pos.getX(), pos.getY(), pos.getZ(), state);
+		}
+		
+		return patched;
 	}
 	
 	public void cancel()
 	{
-		if(future == null || future.isDone())
+		if(result == null || result.isDone())
 			return;
 		
 		interrupted = true;
-		future.cancel(false);
+		result.cancel(false);
+		scan.cancel(false);
 	}
 	
 	public boolean isInterrupted()
@@ -103,6 +211,11 @@ public final class ChunkSearcher
 		return chunk.getPos();
 	}
 	
+	ChunkAccess getChunk()
+	{
+		return chunk;
+	}
+	
 	public DimensionType getDimension()
 	{
 		return dimension;
@@ -110,23 +223,34 @@ public final class ChunkSearcher
 	
 	public Stream<Result> getMatches()
 	{
-		if(future == null || future.isCancelled())
-			return Stream.empty();
-		
-		return future.join().stream();
+		return getResults().stream();
 	}
 	
 	public List<Result> getMatchesList()
 	{
-		if(future == null || future.isCancelled())
-			return List.of();
+		return getResults().asList();
+	}
+	
+	/**
+	 * Returns the packed results of this search, or an empty
+	 * {@link ChunkSearchResults} if the search was cancelled.
+	 *
+	 * <p>
+	 * Blocks until the search is done.
+	 */
+	public ChunkSearchResults getResults()
+	{
+		CompletableFuture<ChunkSearchResults> result = this.result;
+		if(result == null || result.isCancelled())
+			return new ChunkSearchResults(chunk.getPos(), chunk.getMinY());
 		
-		return Collections.unmodifiableList(future.join());
+		return result.join();
 	}
 	
 	public boolean isDone()
 	{
-		return future != null && future.isDone();
+		CompletableFuture<ChunkSearchResults> result = this.result;
+		return result != null && result.isDone();
 	}
 	
 	public record Result(BlockPos pos, BlockState state)
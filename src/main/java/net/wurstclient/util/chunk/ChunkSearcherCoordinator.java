@@ -8,12 +8,13 @@
 package net.wurstclient.util.chunk;
 
 import java.util.function.BiPredicate;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 import net.minecraft.core.BlockPos;
-import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.block.state.BlockState;
 import net.wurstclient.settings.ChunkAreaSetting;
+import net.wurstclient.util.TaskScheduler;
 import net.wurstclient.util.chunk.ChunkSearcher.Result;
 
 public final class ChunkSearcherCoordinator extends AbstractChunkCoordinator
@@ -29,17 +30,22 @@ public final class ChunkSearcherCoordinator extends AbstractChunkCoordinator
 		super(query, area);
 	}
 	
-	@Override
-	public void onReceivedPacket(PacketInputEvent event)
+	public ChunkSearcherCoordinator(BiPredicate<BlockPos, BlockState> query,
+		Predicate<BlockState> sectionFilter, ChunkAreaSetting area)
 	{
-		ChunkPos chunkPos = ChunkUtils.getAffectedChunk(event.getPacket());
-		
-		if(chunkPos != null)
-			chunksToUpdate.add(chunkPos);
+		super(query, sectionFilter, area);
 	}
 	
 	public Stream<Result> getMatches()
 	{
 		return searchers.values().stream().flatMap(ChunkSearcher::getMatches);
 	}
+	
+	public Stream<BlockPos> getMatchingPositions()
+	{
+		// stop early when called from a scheduler task that got cancelled
+		return searchers.values().stream()
+			.takeWhile(searcher -> !TaskScheduler.isCurrentTaskCancelled())
+			.flatMap(searcher -> searcher.getResults().positions());
+	}
 }
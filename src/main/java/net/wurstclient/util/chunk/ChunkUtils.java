@@ -7,10 +7,13 @@
  */
 package net.wurstclient.util.chunk;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.stream.Stream;
 
 import net.minecraft.client.Minecraft;
+import net.minecraft.core.BlockPos;
 import net.minecraft.core.SectionPos;
 import net.minecraft.network.protocol.Packet;
 import net.minecraft.network.protocol.game.ClientboundBlockUpdatePacket;
@@ -61,6 +64,31 @@ public enum ChunkUtils
 		return null;
 	}
 	
+	/**
+	 * Returns the positions of the blocks changed by the given
+	 * {@link ClientboundBlockUpdatePacket} or
+	 * {@link ClientboundSectionBlocksUpdatePacket}.
+	 *
+	 * <p>
+	 * Returns <code>null</code> if the given packet is of a different type,
+	 * including {@link ClientboundLevelChunkWithLightPacket}, which replaces
+	 * the whole chunk.
+	 */
+	public static List<BlockPos> getChangedBlocks(Packet<?> packet)
+	{
+		if(packet instanceof ClientboundBlockUpdatePacket p)
+			return List.of(p.getPos());
+		
+		if(packet instanceof ClientboundSectionBlocksUpdatePacket p)
+		{
+			ArrayList<BlockPos> blocks = new ArrayList<>();
+			p.runUpdates((pos, state) -> blocks.add(pos.immutable()));
+			return blocks;
+		}
+		
+		return null;
+	}
+	
 	public static Stream<LevelChunk> getLoadedChunks()
 	{
 		int radius = Math.max(2, MC.options.getEffectiveRenderDistance()) + 3;
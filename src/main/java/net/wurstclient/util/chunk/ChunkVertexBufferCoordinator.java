@@ -9,7 +9,7 @@ package net.wurstclient.util.chunk;
 
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.List;
+import java.util.HashSet;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
@@ -24,52 +24,78 @@ import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.block.state.BlockState;
 import net.wurstclient.settings.ChunkAreaSetting;
 import net.wurstclient.util.EasyVertexBuffer;
-import net.wurstclient.util.chunk.ChunkSearcher.Result;
 
 public final class ChunkVertexBufferCoordinator extends AbstractChunkCoordinator
 {
 	private final HashMap<ChunkPos, EasyVertexBuffer> buffers = new HashMap<>();
+	private final HashSet<ChunkPos> outdatedBuffers = new HashSet<>();
 	private final Renderer renderer;
 	private final Mode drawMode;
 	private final VertexFormat format;
+	private final int blockUpdateRadius;
 	
 	public ChunkVertexBufferCoordinator(BiPredicate<BlockPos, BlockState> query,
 		Mode drawMode, VertexFormat format, Renderer renderer,
 		ChunkAreaSetting area)
+	{
+		this(query, drawMode, format, renderer, area, 1);
+	}
+	
+	/**
+	 * @param blockUpdateRadius
+	 *            How far away from a changed block the query results can be
+	 *            affected by that change.
+	 */
+	public ChunkVertexBufferCoordinator(BiPredicate<BlockPos, BlockState> query,
+		Mode drawMode, VertexFormat format, Renderer renderer,
+		ChunkAreaSetting area, int blockUpdateRadius)
 	{
 		super(query, area);
 		this.renderer = Objects.requireNonNull(renderer);
 		this.drawMode = drawMode;
 		this.format = format;
+		this.blockUpdateRadius = blockUpdateRadius;
 	}
 	
 	@Override
-	public void onReceivedPacket(PacketInputEvent event)
+	protected void onChunkUpdate(ChunkPos center)
 	{
-		ChunkPos center = ChunkUtils.getAffectedChunk(event.getPacket());
-		if(center == null)
-			return;
-		
 		for(int x = center.x - 1; x <= center.x + 1; x++)
 			for(int z = center.z - 1; z <= center.z + 1; z++)
 				chunksToUpdate.add(new ChunkPos(x, z));
 	}
 	
+	@Override
+	protected int getBlockUpdateRadius()
+	{
+		return blockUpdateRadius;
+	}
+	
 	@Override
 	protected void onRemove(ChunkSearcher searcher)
 	{
+		outdatedBuffers.remove(searcher.getPos());
+		
 		@SuppressWarnings("resource")
 		EasyVertexBuffer buffer = buffers.remove(searcher.getPos());
 		if(buffer != null)
 			buffer.close();
 	}
 	
+	@Override
+	protected void onPatch(ChunkSearcher searcher)
+	{
+		// keep drawing the old buffer until the patch is done
+		outdatedBuffers.add(searcher.getPos());
+	}
+	
 	@Override
 	public void reset()
 	{
 		super.reset();
 		buffers.values().forEach(EasyVertexBuffer::close);
 		buffers.clear();
+		outdatedBuffers.clear();
 	}
 	
 	public Set<Entry<ChunkPos, EasyVertexBuffer>> getBuffers()
@@ -82,19 +108,25 @@ public final class ChunkVertexBufferCoordinator extends AbstractChunkCoordinator
 	
 	private void buildBuffer(ChunkSearcher searcher)
 	{
-		if(buffers.containsKey(searcher.getPos()))
+		ChunkPos pos = searcher.getPos();
+		if(!searcher.isDone()
+			|| buffers.containsKey(pos) && !outdatedBuffers.contains(pos))
 			return;
 		
 		EasyVertexBuffer vertexBuffer = EasyVertexBuffer
 			.createAndUpload(drawMode, format, buffer -> renderer
-				.buildBuffer(buffer, searcher, searcher.getMatchesList()));
+				.buildBuffer(buffer, searcher, searcher.getResults()));
+		
+		EasyVertexBuffer oldBuffer = buffers.put(pos, vertexBuffer);
+		if(oldBuffer != null)
+			oldBuffer.close();
 		
-		buffers.put(searcher.getPos(), vertexBuffer);
+		outdatedBuffers.remove(pos);
 	}
 	
 	public static interface Renderer
 	{
 		public void buildBuffer(VertexConsumer buffer, ChunkSearcher searcher,
-			List<Result> results);
+			ChunkSearchResults results);
 	}
 }
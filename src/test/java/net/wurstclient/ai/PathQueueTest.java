@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2014-2025 Wurst-Imperium and contributors.
+ *
+ * This source code is subject to the terms of the GNU General Public
+ * License, version 3. If a copy of the GPL was not distributed with this
+ * file, You can obtain one at: https://www.gnu.org/licenses/gpl-3.0.txt
+ */
+package net.wurstclient.ai;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import it.unimi.dsi.fastutil.longs.Long2FloatOpenHashMap;
+
+class PathQueueTest
+{
+	@Test
+	void testPollsInOrderOfPriority()
+	{
+		PathQueue queue = new PathQueue();
+		queue.add(1, 5F);
+		queue.add(2, 1F);
+		queue.add(3, 3F);
+		queue.add(4, 2F);
+		
+		assertEquals(4, queue.size());
+		assertEquals(2, queue.poll());
+		assertEquals(4, queue.poll());
+		assertEquals(3, queue.poll());
+		assertEquals(1, queue.poll());
+		assertTrue(queue.isEmpty());
+	}
+	
+	@Test
+	void testDecreaseKey()
+	{
+		PathQueue queue = new PathQueue();
+		queue.add(1, 1F);
+		queue.add(2, 2F);
+		queue.add(3, 3F);
+		
+		// lowering the priority moves the key up instead of adding it again
+		queue.add(3, 0.5F);
+		assertEquals(3, queue.size());
+		assertEquals(3, queue.poll());
+		
+		// raising it does nothing
+		queue.add(2, 10F);
+		assertEquals(1, queue.poll());
+		assertEquals(2, queue.poll());
+		assertTrue(queue.isEmpty());
+	}
+	
+	@Test
+	void testContainsAndClear()
+	{
+		PathQueue queue = new PathQueue();
+		queue.add(7, 1F);
+		queue.add(8, 2F);
+		assertTrue(queue.contains(7));
+		
+		queue.poll();
+		assertFalse(queue.contains(7));
+		assertTrue(queue.contains(8));
+		
+		queue.clear();
+		assertTrue(queue.isEmpty());
+		assertFalse(queue.contains(8));
+		assertThrows(NoSuchElementException.class, queue::poll);
+	}
+	
+	@Test
+	void testMatchesNaiveQueue()
+	{
+		// more keys than the initial capacity, so that the arrays have to grow
+		PathQueue queue = new PathQueue();
+		Long2FloatOpenHashMap expected = new Long2FloatOpenHashMap();
+		Random random = new Random(42);
+		
+		for(int i = 0; i < 20000; i++)
+		{
+			long key = random.nextInt(5000);
+			float priority = random.nextFloat() * 1000;
+			queue.add(key, priority);
+			if(!expected.containsKey(key) || priority < expected.get(key))
+				expected.put(key, priority);
+			
+			if(i % 3 == 0)
+				assertPollsMin(queue, expected);
+		}
+		
+		assertEquals(expected.size(), queue.size());
+		while(!expected.isEmpty())
+			assertPollsMin(queue, expected);
+		
+		assertTrue(queue.isEmpty());
+	}
+	
+	private static void assertPollsMin(PathQueue queue,
+		Long2FloatOpenHashMap expected)
+	{
+		float min = Float.POSITIVE_INFINITY;
+		for(float priority : expected.values())
+			min = Math.min(min, priority);
+		
+		long key = queue.poll();
+		assertTrue(expected.containsKey(key));
+		assertEquals(min, expected.remove(key));
+	}
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2014-2025 Wurst-Imperium and contributors.
+ *
+ * This source code is subject to the terms of the GNU General Public
+ * License, version 3. If a copy of the GPL was not distributed with this
+ * file, You can obtain one at: https://www.gnu.org/licenses/gpl-3.0.txt
+ */
+package net.wurstclient.hacks.newchunks;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.ChunkPos;
+
+class NewChunksDatabaseTest
+{
+	private static final long NEW_CHUNK = ChunkPos.asLong(3, -7);
+	private static final long OLD_CHUNK = ChunkPos.asLong(40, 2);
+	private static final long CHECKED_CHUNK = ChunkPos.asLong(-100, 100);
+	private static final long NEW_REASON = BlockPos.asLong(50, 64, -100);
+	private static final long OLD_REASON = BlockPos.asLong(650, 12, 40);
+	
+	@TempDir
+	Path dir;
+	
+	@Test
+	void testRoundTrip()
+	{
+		Path file = dir.resolve("overworld.bin");
+		NewChunksDatabase database = NewChunksDatabase.open(file);
+		assertTrue(database.addNew(NEW_CHUNK, NEW_REASON));
+		assertTrue(database.addOld(OLD_CHUNK, OLD_REASON));
+		database.addChecked(CHECKED_CHUNK);
+		database.save();
+		
+		NewChunksDatabase loaded = NewChunksDatabase.open(file);
+		assertEquals(1, loaded.countNewChunks());
+		assertEquals(1, loaded.countOldChunks());
+		assertTrue(loaded.isNewOrOld(NEW_CHUNK));
+		assertTrue(loaded.isNewOrOld(OLD_CHUNK));
+		assertFalse(loaded.isNewOrOld(CHECKED_CHUNK));
+		assertTrue(loaded.isKnown(CHECKED_CHUNK));
+		
+		assertArrayEquals(new long[]{NEW_CHUNK}, loaded.getNewChunks(0, -1));
+		assertArrayEquals(new long[]{OLD_CHUNK}, loaded.getOldChunks(1, 0));
+		assertArrayEquals(new long[]{NEW_REASON},
+			loaded.getNewChunkReasons(0, -1));
+		assertArrayEquals(new long[]{OLD_REASON},
+			loaded.getOldChunkReasons(1, 0));
+		assertEquals(0, loaded.getNewChunks(1, 0).length);
+	}
+	
+	@Test
+	void testNewAndOldAreExclusive()
+	{
+		NewChunksDatabase database =
+			NewChunksDatabase.open(dir.resolve("overworld.bin"));
+		assertTrue(database.addNew(NEW_CHUNK, NEW_REASON));
+		assertFalse(database.addNew(NEW_CHUNK, NEW_REASON));
+		assertFalse(database.addOld(NEW_CHUNK, OLD_REASON));
+		assertEquals(0, database.countOldChunks());
+	}
+	
+	@Test
+	void testSaveOnlyAppends() throws IOException
+	{
+		Path file = dir.resolve("overworld.bin");
+		NewChunksDatabase database = NewChunksDatabase.open(file);
+		database.addNew(NEW_CHUNK, NEW_REASON);
+		database.save();
+		long size = Files.size(file);
+		
+		database.save();
+		assertEquals(size, Files.size(file));
+		
+		database.addOld(OLD_CHUNK, OLD_REASON);
+		database.save();
+		assertEquals(size + 17, Files.size(file));
+	}
+	
+	@Test
+	void testPartialRecordIsTruncated() throws IOException
+	{
+		Path file = dir.resolve("overworld.bin");
+		NewChunksDatabase database = NewChunksDatabase.open(file);
+		database.addNew(NEW_CHUNK, NEW_REASON);
+		database.addOld(OLD_CHUNK, OLD_REASON);
+		database.save();
+		long size = Files.size(file);
+		
+		// simulate a crash in the middle of writing the next record
+		try(OutputStream out =
+			Files.newOutputStream(file, StandardOpenOption.APPEND))
+		{
+			out.write(new byte[]{1, 0, 0, 0, 0, 0});
+		}
+		
+		NewChunksDatabase loaded = NewChunksDatabase.open(file);
+		assertEquals(size, Files.size(file));
+		assertEquals(1, loaded.countNewChunks());
+		assertEquals(1, loaded.countOldChunks());
+		
+		// new records must start where the complete ones end
+		loaded.addChecked(CHECKED_CHUNK);
+		loaded.save();
+		assertTrue(NewChunksDatabase.open(file).isKnown(CHECKED_CHUNK));
+	}
+	
+	@Test
+	void testBadMagicIsMovedAway() throws IOException
+	{
+		Path file = dir.resolve("overworld.bin");
+		byte[] garbage = {'n', 'o', 't', ' ', 'a', ' ', 'l', 'o', 'g'};
+		Files.write(file, garbage);
+		
+		NewChunksDatabase database = NewChunksDatabase.open(file);
+		assertEquals(0, database.countNewChunks());
+		assertEquals(0, database.countOldChunks());
+		assertFalse(Files.exists(file));
+		
+		Path bad = dir.resolve("overworld.bin.bad");
+		assertArrayEquals(garbage, Files.readAllBytes(bad));
+		
+		// a fresh log is started in its place
+		database.addNew(NEW_CHUNK, NEW_REASON);
+		database.save();
+		assertTrue(NewChunksDatabase.open(file).isNewOrOld(NEW_CHUNK));
+	}
+}